@@ -0,0 +1,54 @@
+package com.example.chatserver.benchmark;
+
+import com.example.chatserver.chat.dto.ChatMessageDto;
+import com.example.chatserver.chat.service.ChatService;
+import com.example.chatserver.common.auth.JwtTokenProvider;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+
+/**
+ * 벤치마크 공용 준비물: application.yml과 같은 JWT 비밀키, 토큰, DB 없이 동작하는 ChatService, 예시 메시지.
+ */
+final class BenchmarkFixtures {
+
+    static final String SECRET_KEY = "Y2hhdHNlcnZlcnNlY3JldGFjY2Vzc3Rva2VuY2hhdHNlcnZlcnNlY3JldGFjY2Vzc3Rva2VuY2hhdHNlcnZlcnNlY3JldGFjY2Vzc3Rva2Vu";
+
+    static final String EMAIL = "bench@example.com";
+
+    private BenchmarkFixtures() {
+    }
+
+    static String token() {
+        return new JwtTokenProvider(SECRET_KEY, 3000).createToken(EMAIL, "USER");
+    }
+
+    // 구독 권한 확인만 하는 ChatService (저장소 없이 항상 참여자로 응답)
+    static ChatService participantOnlyChatService() {
+        return new ChatService(null, null, null, null, null, null, null, null, null, null, null, 200, 5000L) {
+            @Override
+            public boolean isRoomPaticipant(String email, Long roomId) {
+                return true;
+            }
+        };
+    }
+
+    // @Value 필드 주입 대신 직접 설정
+    static void setField(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
+    static ChatMessageDto message() {
+        return ChatMessageDto.builder()
+                .roomId(1L)
+                .message("안녕하세요, 오늘 회의는 3시에 시작합니다. Let's sync on the release checklist.")
+                .senderEmail(EMAIL)
+                .senderId(42L)
+                .clientMessageId("c7a1e3b2-5d4f-4a8e-9b0c-1f2e3d4c5b6a")
+                .messageId(123456789L)
+                .sentAt(1_700_000_000_000L)
+                .build();
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.chatserver.benchmark;
+
+import com.example.chatserver.chat.codec.ChatMessageCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.List;
+
+/**
+ * SimpleBroker 팬아웃: /topic/1 구독자 수별로 메시지 한 건을 구독자별 메시지로 만들어 아웃바운드 채널에 넣는 비용.
+ * 아웃바운드 채널은 받기만 하므로 실제 소켓 쓰기는 제외된다.
+ */
+@State(Scope.Benchmark)
+public class BrokerFanoutBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    public int subscribers;
+
+    private SimpleBrokerMessageHandler broker;
+
+    private Message<byte[]> message;
+
+    @Setup
+    public void setUp() {
+        MessageChannel outbound = (outboundMessage, timeout) -> true;
+        broker = new SimpleBrokerMessageHandler(new ExecutorSubscribableChannel(), outbound, new ExecutorSubscribableChannel(), List.of("/topic"));
+        broker.start();
+        for (int i = 0; i < subscribers; i++) {
+            SimpMessageHeaderAccessor subscribe = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+            subscribe.setSessionId("session-" + i);
+            subscribe.setSubscriptionId("sub-" + i);
+            subscribe.setDestination("/topic/1");
+            broker.handleMessage(MessageBuilder.createMessage(new byte[0], subscribe.getMessageHeaders()));
+        }
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination("/topic/1");
+        message = MessageBuilder.createMessage(new ChatMessageCodec().toJson(BenchmarkFixtures.message()), accessor.getMessageHeaders());
+    }
+
+    @TearDown
+    public void tearDown() {
+        broker.stop();
+    }
+
+    @Benchmark
+    public void fanout() {
+        broker.handleMessage(message);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.chatserver.benchmark;
+
+import com.example.chatserver.chat.codec.ChatMessageCodec;
+import com.example.chatserver.chat.dto.ChatMessageDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * ChatMessageDto 인코딩/디코딩: JSON(기본) 과 Redis용 CBOR 비교.
+ */
+@State(Scope.Benchmark)
+public class ChatMessageCodecBenchmark {
+
+    private final ChatMessageCodec chatMessageCodec = new ChatMessageCodec();
+
+    private ChatMessageDto message;
+
+    private byte[] json;
+
+    private byte[] cbor;
+
+    @Setup
+    public void setUp() {
+        message = BenchmarkFixtures.message();
+        json = chatMessageCodec.toJson(message);
+        cbor = chatMessageCodec.toRedisCbor(message);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() {
+        return chatMessageCodec.toJson(message);
+    }
+
+    @Benchmark
+    public ChatMessageDto decodeJson() {
+        return chatMessageCodec.fromJson(json);
+    }
+
+    @Benchmark
+    public byte[] encodeCbor() {
+        return chatMessageCodec.toRedisCbor(message);
+    }
+
+    @Benchmark
+    public ChatMessageDto decodeCbor() {
+        return chatMessageCodec.fromCbor(cbor);
+    }
+}
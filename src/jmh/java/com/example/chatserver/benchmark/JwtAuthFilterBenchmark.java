@@ -0,0 +1,49 @@
+package com.example.chatserver.benchmark;
+
+import com.example.chatserver.common.auth.JwtAuthFilter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.lang.reflect.Proxy;
+
+/**
+ * JwtAuthFilter.doFilter: Authorization 헤더의 JWT 파싱/서명 검증 + Authentication 생성.
+ * 서블릿 요청/응답은 필요한 메서드만 응답하는 프록시로 대신한다.
+ */
+@State(Scope.Thread)
+public class JwtAuthFilterBenchmark {
+
+    private JwtAuthFilter jwtAuthFilter;
+
+    private HttpServletRequest request;
+
+    private HttpServletResponse response;
+
+    private final FilterChain chain = (req, res) -> { };
+
+    @Setup
+    public void setUp() {
+        jwtAuthFilter = new JwtAuthFilter();
+        BenchmarkFixtures.setField(jwtAuthFilter, "secretKey", BenchmarkFixtures.SECRET_KEY);
+        String bearer = "Bearer " + BenchmarkFixtures.token();
+        request = (HttpServletRequest) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{HttpServletRequest.class},
+                (proxy, method, args) -> "getHeader".equals(method.getName()) && "Authorization".equals(args[0]) ? bearer : null);
+        response = (HttpServletResponse) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{HttpServletResponse.class},
+                (proxy, method, args) -> null);
+    }
+
+    @Benchmark
+    public Authentication parseToken() throws Exception {
+        jwtAuthFilter.doFilter(request, response, chain);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
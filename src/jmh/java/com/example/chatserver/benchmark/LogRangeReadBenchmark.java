@@ -0,0 +1,126 @@
+package com.example.chatserver.benchmark;
+
+import com.example.chatserver.chat.domain.ChatRoom;
+import com.example.chatserver.chat.dto.ChatMessageDto;
+import com.example.chatserver.chat.store.FsyncPolicy;
+import com.example.chatserver.chat.store.MappedLogMessageStore;
+import com.example.chatserver.member.domain.Member;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 로그 저장소 범위 조회 지연: 메시지가 많이 쌓인 채팅방 하나에서 이력 페이지/since 이후 조회 한 번.
+ *
+ * 로그는 trial마다 임시 디렉터리에 한 번 만든다 (fork 하나만 사용).
+ *  - shard 하나에 채팅방 ROOMS개의 메시지가 섞여서 기록되고, 그중 HOT_ROOM이 절반을 차지
+ *  - index-interval은 application.yml 기본값(64), 세그먼트는 8MB로 작게 잡아서 여러 개로 나뉘게 함
+ * 깊은 페이지(deepPage)와 최신 페이지(latestPage)가 비슷하면 커서 위치와 관계없이 필요한 구간만 읽고 있는 것.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class LogRangeReadBenchmark {
+
+    private static final int ROOMS = 100;
+
+    private static final long HOT_ROOM = 1L;
+
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"100000", "1000000"})
+    public int messageCount;
+
+    private Path logDir;
+
+    private MappedLogMessageStore store;
+
+    private Long deepCursor;
+
+    private Long middleCursor;
+
+    private long recentSince;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        logDir = Files.createTempDirectory("log-range-bench");
+        store = open();
+        SplittableRandom random = new SplittableRandom(42);
+        Member sender = Member.builder().id(1L).email(BenchmarkFixtures.EMAIL).build();
+        List<ChatRoom> rooms = Stream.iterate(1L, id -> id + 1).limit(ROOMS)
+                .map(id -> ChatRoom.builder().id(id).name("room-" + id).build())
+                .toList();
+        long firstHotId = 0;
+        long lastHotId = 0;
+        for (int i = 0; i < messageCount; i++) {
+            ChatRoom room = random.nextBoolean() ? rooms.get(0) : rooms.get(1 + random.nextInt(ROOMS - 1));
+            // 트랜잭션 밖이므로 바로 기록됨
+            long id = store.append(room, sender, BenchmarkFixtures.message().getMessage());
+            if (room.getId() == HOT_ROOM) {
+                firstHotId = firstHotId == 0 ? id : firstHotId;
+                lastHotId = id;
+            }
+        }
+        deepCursor = firstHotId + (lastHotId - firstHotId) / 100;
+        middleCursor = firstHotId + (lastHotId - firstHotId) / 2;
+        // 기록 시각은 append 시점: since 이후에는 마지막에 쓴 몇 건만 있음
+        recentSince = System.currentTimeMillis() - 1;
+        store.append(rooms.get(0), sender, BenchmarkFixtures.message().getMessage());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        store.destroy();
+        try (Stream<Path> files = Files.walk(logDir)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    // 첫 페이지 (커서 없음)
+    @Benchmark
+    public List<ChatMessageDto> latestPage() {
+        return store.readHistory(HOT_ROOM, null, PAGE_SIZE);
+    }
+
+    // 채팅방 중간쯤의 페이지
+    @Benchmark
+    public List<ChatMessageDto> middlePage() {
+        return store.readHistory(HOT_ROOM, middleCursor, PAGE_SIZE);
+    }
+
+    // 채팅방 맨 앞쪽 페이지 (첫 세그먼트 근처)
+    @Benchmark
+    public List<ChatMessageDto> deepPage() {
+        return store.readHistory(HOT_ROOM, deepCursor, PAGE_SIZE);
+    }
+
+    // 재접속 sync: 최근 시점 이후만
+    @Benchmark
+    public List<ChatMessageDto> recentSince() {
+        return store.readSince(HOT_ROOM, recentSince, PAGE_SIZE);
+    }
+
+    private MappedLogMessageStore open() throws IOException {
+        return new MappedLogMessageStore(logDir.toString(), 1, 8, 64, FsyncPolicy.NONE, 200);
+    }
+}
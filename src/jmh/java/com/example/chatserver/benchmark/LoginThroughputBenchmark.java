@@ -0,0 +1,68 @@
+package com.example.chatserver.benchmark;
+
+import com.example.chatserver.common.auth.JwtTokenProvider;
+import com.example.chatserver.common.auth.PasswordHasher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 로그인 처리량: 비밀번호 검증(bcrypt, application.yml과 같은 cost 10) + 토큰 발행.
+ * 요청 스레드가 코어 수보다 많이 몰리는 상황을 @Threads로 흉내 낸다.
+ *  - pooledLogin: PasswordHasher 풀(코어 수 스레드, 큐 64)에서 검증 (MemberService.login과 같은 경로)
+ *  - callerThreadLogin: 요청 스레드에서 바로 검증 (풀 도입 전 방식, 비교용)
+ * 두 값이 비슷하면 풀이 처리량을 깎지 않고 CPU 사용만 코어 수로 제한하고 있는 것.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(16)
+public class LoginThroughputBenchmark {
+
+    private static final String PASSWORD = "benchmark-password-1234";
+
+    private PasswordEncoder passwordEncoder;
+
+    private PasswordHasher passwordHasher;
+
+    private JwtTokenProvider jwtTokenProvider;
+
+    private String encodedPassword;
+
+    @Setup
+    public void setUp() {
+        passwordEncoder = new BCryptPasswordEncoder(10);
+        passwordHasher = new PasswordHasher(passwordEncoder, new SimpleMeterRegistry(), 0, 64);
+        jwtTokenProvider = new JwtTokenProvider(BenchmarkFixtures.SECRET_KEY, 3000);
+        encodedPassword = passwordEncoder.encode(PASSWORD);
+    }
+
+    @TearDown
+    public void tearDown() {
+        passwordHasher.destroy();
+    }
+
+    @Benchmark
+    public String pooledLogin() {
+        return passwordHasher.matches(PASSWORD, encodedPassword)
+                .thenApply(matched -> jwtTokenProvider.createToken(BenchmarkFixtures.EMAIL, "USER"))
+                .join();
+    }
+
+    @Benchmark
+    public String callerThreadLogin() {
+        passwordEncoder.matches(PASSWORD, encodedPassword);
+        return jwtTokenProvider.createToken(BenchmarkFixtures.EMAIL, "USER");
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.chatserver.benchmark;
+
+import com.example.chatserver.chat.dto.ChatMessageDto;
+import com.example.chatserver.chat.search.MessageSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * 메시지 전문 검색 지연: 수백만 건이 들어 있는 로컬 Lucene 인덱스에서 MessageSearchIndex.search 한 번.
+ *
+ * 인덱스는 trial마다 임시 디렉터리에 한 번 만든다 (300만 건 기준 수십 초~수 분, fork 하나만 사용).
+ *  - 채팅방 ROOMS개, 회원 한 명이 참여한 채팅방 JOINED_ROOMS개 (ChatService가 넘기는 roomIds와 같은 모양)
+ *  - 본문은 자주 쓰는 단어/드문 단어를 섞은 한글+영문 문장 (CJKAnalyzer bigram이 실제와 비슷하게 나오도록)
+ * 빌드가 끝나면 인덱스를 닫았다가 다시 열어서, 검색은 commit된 세그먼트만 본다 (재시작 직후와 같은 상태).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class MessageSearchBenchmark {
+
+    private static final int ROOMS = 10_000;
+
+    private static final int JOINED_ROOMS = 50;
+
+    private static final int PAGE_SIZE = 20;
+
+    // 앞쪽 단어일수록 자주 나옴
+    private static final String[] WORDS = {
+            "안녕하세요", "회의", "오늘", "내일", "확인", "부탁드립니다", "release", "deploy", "배포", "점심",
+            "일정", "공유", "문서", "리뷰", "테스트", "장애", "고객", "요청", "감사합니다", "sync",
+            "checklist", "서버", "데이터베이스", "마이그레이션", "hotfix", "롤백", "모니터링", "알림", "계약서", "견적서"
+    };
+
+    @Param({"1000000", "3000000"})
+    public int messageCount;
+
+    private Path indexDir;
+
+    private MessageSearchIndex index;
+
+    private List<Long> joinedRooms;
+
+    private Long deepCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        indexDir = Files.createTempDirectory("message-search-bench");
+        MessageSearchIndex builder = open();
+        SplittableRandom random = new SplittableRandom(42);
+        long createdTime = 1_700_000_000_000L;
+        for (long id = 1; id <= messageCount; id++) {
+            long roomId = 1 + random.nextInt(ROOMS);
+            builder.add(id, roomId, "user" + random.nextInt(5_000) + "@example.com", sentence(random), createdTime + id);
+        }
+        builder.destroy();
+
+        index = open();
+        Random rooms = new Random(7);
+        joinedRooms = LongStream.generate(() -> 1 + rooms.nextInt(ROOMS)).distinct().limit(JOINED_ROOMS).boxed().toList();
+        deepCursor = (long) messageCount / 10;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        index.destroy();
+        try (Stream<Path> files = Files.walk(indexDir)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    // 자주 나오는 단어 하나: 후보가 많아서 정렬(최신순) 비용이 큼
+    @Benchmark
+    public List<ChatMessageDto> commonWord() {
+        return index.search("회의", joinedRooms, null, null, PAGE_SIZE);
+    }
+
+    // 드물게 나오는 단어 하나
+    @Benchmark
+    public List<ChatMessageDto> rareWord() {
+        return index.search("견적서", joinedRooms, null, null, PAGE_SIZE);
+    }
+
+    // 단어 두 개 모두 포함
+    @Benchmark
+    public List<ChatMessageDto> twoWords() {
+        return index.search("배포 일정", joinedRooms, null, null, PAGE_SIZE);
+    }
+
+    // 커서로 한참 뒤 페이지 조회
+    @Benchmark
+    public List<ChatMessageDto> commonWordDeepPage() {
+        return index.search("회의", joinedRooms, null, deepCursor, PAGE_SIZE);
+    }
+
+    private MessageSearchIndex open() throws IOException {
+        // log 저장소 모드: DB catch-up 없이 add로만 채움. refresh는 빌드 중에 돌지 않도록 길게
+        return new MessageSearchIndex(null, null, "log", indexDir.toString(), 256, 2000, 1000,
+                60_000L, 60_000L, 3_600_000L);
+    }
+
+    private static String sentence(SplittableRandom random) {
+        int length = 3 + random.nextInt(8);
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            // 제곱으로 앞쪽 단어에 치우치게 선택
+            double r = random.nextDouble();
+            sentence.append(WORDS[(int) (r * r * WORDS.length)]).append(' ');
+        }
+        return sentence.toString();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.chatserver.benchmark;
+
+import com.example.chatserver.chat.codec.ChatMessageCodec;
+import com.example.chatserver.chat.service.HotRoomTracker;
+import com.example.chatserver.chat.service.RedisPubSubService;
+import com.example.chatserver.common.metrics.ChatMetrics;
+import com.example.chatserver.common.tracing.MessageTracer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * RedisPubSubService.onMessage: Redis 수신 payload 판별/역직렬화 + 지표 기록 + 브로커 채널로 전달.
+ * 브로커 채널은 받기만 하는 채널로 바꿔서 구독자 전달(BrokerFanoutBenchmark)은 제외한다.
+ */
+@State(Scope.Benchmark)
+public class RedisPubSubBenchmark {
+
+    @Param({"json", "cbor"})
+    public String encoding;
+
+    private RedisPubSubService redisPubSubService;
+
+    private Message message;
+
+    @Setup
+    public void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ChatMessageCodec chatMessageCodec = new ChatMessageCodec();
+        SimpMessagingTemplate messagingTemplate = new SimpMessagingTemplate((brokerMessage, timeout) -> true);
+        ChatMetrics chatMetrics = new ChatMetrics(meterRegistry);
+        // 추적은 끔 (샘플링되지 않은 메시지와 같은 경로)
+        MessageTracer messageTracer = new MessageTracer(meterRegistry, chatMetrics, false, 20, 0.005, 0.0001,
+                1000L, 1000L, 10_000, "./traces/spans.jsonl", 100L, "", "chatserver");
+        redisPubSubService = new RedisPubSubService(null, messagingTemplate, chatMessageCodec, chatMetrics,
+                new HotRoomTracker(meterRegistry, 20, 6, 10_000L, 4, 2048), messageTracer, encoding);
+        byte[] body = "cbor".equals(encoding)
+                ? chatMessageCodec.toRedisCbor(BenchmarkFixtures.message())
+                : chatMessageCodec.toJson(BenchmarkFixtures.message());
+        message = new DefaultMessage("chat".getBytes(StandardCharsets.UTF_8), body);
+    }
+
+    @Benchmark
+    public void onMessage() {
+        redisPubSubService.onMessage(message, null);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.chatserver.benchmark;
+
+import com.example.chatserver.chat.codec.ChatMessageCodec;
+import com.example.chatserver.chat.config.StompHandler;
+import com.example.chatserver.common.metrics.ChatMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.HashMap;
+
+/**
+ * StompHandler.preSend: CONNECT(JWT 검증 + 세션 속성), SUBSCRIBE(JWT 검증 + 구독 권한 확인).
+ * 구독 권한은 DB 없이 항상 참여자로 응답하므로 인터셉터 자체 비용만 측정한다.
+ */
+@State(Scope.Benchmark)
+public class StompHandlerBenchmark {
+
+    private StompHandler stompHandler;
+
+    private Message<byte[]> connect;
+
+    private Message<byte[]> subscribe;
+
+    @Setup
+    public void setUp() {
+        stompHandler = new StompHandler(BenchmarkFixtures.participantOnlyChatService(), new ChatMessageCodec(), null,
+                new ChatMetrics(new SimpleMeterRegistry()));
+        BenchmarkFixtures.setField(stompHandler, "secretKey", BenchmarkFixtures.SECRET_KEY);
+        String bearer = "Bearer " + BenchmarkFixtures.token();
+        connect = frame(StompCommand.CONNECT, bearer, null);
+        subscribe = frame(StompCommand.SUBSCRIBE, bearer, "/topic/1");
+    }
+
+    @Benchmark
+    public Message<?> connect() {
+        return stompHandler.preSend(connect, null);
+    }
+
+    @Benchmark
+    public Message<?> subscribe() {
+        return stompHandler.preSend(subscribe, null);
+    }
+
+    private static Message<byte[]> frame(StompCommand command, String bearer, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setNativeHeader("Authorization", bearer);
+        accessor.setSessionId("session-1");
+        accessor.setSessionAttributes(new HashMap<>());
+        if (destination != null) {
+            accessor.setDestination(destination);
+            accessor.setSubscriptionId("sub-1");
+        }
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
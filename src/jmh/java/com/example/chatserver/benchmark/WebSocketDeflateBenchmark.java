@@ -0,0 +1,133 @@
+package com.example.chatserver.benchmark;
+
+import com.example.chatserver.chat.codec.ChatMessageCodec;
+import com.example.chatserver.chat.dto.ChatMessageDto;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+/**
+ * WebSocket permessage-deflate 압축 비용과 크기: 브로커가 구독자에게 보내는 ChatMessageCodec.toJson 프레임 한 건.
+ *
+ * Tomcat 구현과 같은 방식으로 압축한다: raw deflate(nowrap), 메시지마다 SYNC_FLUSH 후 끝의 00 00 ff ff 4바이트 제거.
+ *  - contextTakeover=true : 연결 하나의 Deflater를 계속 사용 (server-context-takeover: true, 기본값)
+ *  - contextTakeover=false: 메시지마다 reset (server_no_context_takeover)
+ * 메시지는 채팅방 하나의 대화처럼 보낸 사람/본문/id가 조금씩 다른 PAYLOADS건을 돌아가며 압축한다.
+ *
+ * 압축 크기는 보조 지표로 나온다: compressedBytes / originalBytes (iteration 합계, 둘의 비율이 압축률)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WebSocketDeflateBenchmark {
+
+    private static final int PAYLOADS = 256;
+
+    private static final String[] SENDERS = {
+            "kim.minsu@example.com", "lee.jiyoung@example.com", "park.seojun@example.com", "choi.yuna@example.com", "bench@example.com"
+    };
+
+    private static final String[] SENTENCES = {
+            "안녕하세요, 오늘 회의는 3시에 시작합니다.",
+            "배포 일정 공유드립니다. 내일 오전 10시에 진행할 예정입니다.",
+            "Let's sync on the release checklist before the deploy.",
+            "확인했습니다! 문서 리뷰는 오늘 중으로 끝내겠습니다.",
+            "점심 뭐 드실래요? 저는 김치찌개 먹고 싶어요 ㅎㅎ",
+            "모니터링 알림 떠서 보고 있습니다. 데이터베이스 커넥션 수가 좀 높네요.",
+            "hotfix 브랜치에 올렸습니다. 테스트 부탁드립니다.",
+            "ㅇㅋ",
+            "고객 요청 건은 견적서 수정해서 다시 보내드렸습니다.",
+            "감사합니다 :)"
+    };
+
+    @Param({"true", "false"})
+    public boolean contextTakeover;
+
+    private byte[][] payloads;
+
+    private Deflater deflater;
+
+    private byte[] buffer = new byte[4096];
+
+    private int next;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class FrameSizes {
+
+        public long compressedBytes;
+
+        public long originalBytes;
+
+        @Setup(Level.Iteration)
+        public void clear() {
+            compressedBytes = 0;
+            originalBytes = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ChatMessageCodec chatMessageCodec = new ChatMessageCodec();
+        SplittableRandom random = new SplittableRandom(42);
+        payloads = new byte[PAYLOADS][];
+        long sentAt = 1_700_000_000_000L;
+        for (int i = 0; i < PAYLOADS; i++) {
+            int sender = random.nextInt(SENDERS.length);
+            sentAt += 500 + random.nextInt(30_000);
+            ChatMessageDto message = ChatMessageDto.builder()
+                    .roomId(1L)
+                    .message(SENTENCES[random.nextInt(SENTENCES.length)])
+                    .senderEmail(SENDERS[sender])
+                    .senderId(100L + sender)
+                    .clientMessageId(new UUID(random.nextLong(), random.nextLong()).toString())
+                    .messageId(123_456_789L + i)
+                    .sentAt(sentAt)
+                    .build();
+            payloads[i] = chatMessageCodec.toJson(message);
+        }
+        deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        deflater.end();
+    }
+
+    @Benchmark
+    public int deflate(FrameSizes frameSizes) {
+        byte[] payload = payloads[next];
+        next = (next + 1) % PAYLOADS;
+        if (!contextTakeover) {
+            deflater.reset();
+        }
+        deflater.setInput(payload);
+        int length = 0;
+        while (true) {
+            length += deflater.deflate(buffer, length, buffer.length - length, Deflater.SYNC_FLUSH);
+            if (length < buffer.length) {
+                break;
+            }
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        // SYNC_FLUSH가 붙이는 빈 블록(00 00 ff ff)은 전송하지 않음 (RFC 7692 7.2.1)
+        int frameLength = length - 4;
+        frameSizes.compressedBytes += frameLength;
+        frameSizes.originalBytes += payload.length;
+        return frameLength;
+    }
+}
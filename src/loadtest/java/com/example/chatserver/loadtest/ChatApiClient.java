@@ -0,0 +1,122 @@
+package com.example.chatserver.loadtest;
+
+import com.example.chatserver.chat.dto.ChatRoomListResDto;
+import com.example.chatserver.member.dto.MemberLoginReqDto;
+import com.example.chatserver.member.dto.MemberSaveReqDto;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 부하 테스트 준비 단계(가입, 로그인, 채팅방 생성/참여)에 쓰는 REST 클라이언트.
+ * 비밀번호 해싱 큐가 가득 차서 503이 오면 Retry-After 만큼 기다렸다가 다시 시도한다.
+ */
+final class ChatApiClient {
+
+    private static final int MAX_ATTEMPTS = 20;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final String baseUrl;
+
+    record Login(Long memberId, String token) {
+    }
+
+    ChatApiClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    // 이미 가입된 회원이면 로그인만 (대상 서버를 재사용하는 경우)
+    Login loginOrCreate(String name, String email, String password) throws IOException, InterruptedException {
+        Login login = login(email, password);
+        if (login != null) {
+            return login;
+        }
+        HttpResponse<String> created = send(post("/member/create", null, new MemberSaveReqDto(name, email, password)));
+        expect(created, 201, "회원 가입");
+        login = login(email, password);
+        if (login == null) {
+            throw new IllegalStateException("가입 직후 로그인 실패: " + email);
+        }
+        return login;
+    }
+
+    void createGroupRoom(String token, String roomName) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(post("/chat/room/group/create?roomName=" + encode(roomName), token, null));
+        expect(response, 200, "채팅방 생성");
+    }
+
+    // 이름 접두어로 그룹 채팅방 전체 조회 (roomId 커서 페이지네이션)
+    List<ChatRoomListResDto> listGroupRooms(String token, String prefix, Long cursor) throws IOException, InterruptedException {
+        String path = "/chat/room/group/list?size=100&prefix=" + encode(prefix) + (cursor == null ? "" : "&cursor=" + cursor);
+        HttpResponse<String> response = send(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + token)
+                .GET());
+        expect(response, 200, "채팅방 목록");
+        return objectMapper.readValue(response.body(), new TypeReference<List<ChatRoomListResDto>>() {
+        });
+    }
+
+    void joinGroupRoom(String token, Long roomId) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(post("/chat/room/group/" + roomId + "/join", token, null));
+        expect(response, 200, "채팅방 참여");
+    }
+
+    private Login login(String email, String password) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(post("/member/doLogin", null, new MemberLoginReqDto(email, password)));
+        if (response.statusCode() != 200) {
+            return null;
+        }
+        Map<String, Object> body = objectMapper.readValue(response.body(), new TypeReference<Map<String, Object>>() {
+        });
+        return new Login(((Number) body.get("id")).longValue(), (String) body.get("token"));
+    }
+
+    private HttpRequest.Builder post(String path, String token, Object body) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        if (body == null) {
+            return builder.POST(HttpRequest.BodyPublishers.noBody());
+        }
+        return builder.header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder builder) throws IOException, InterruptedException {
+        HttpRequest request = builder.timeout(Duration.ofSeconds(30)).build();
+        for (int attempt = 1; ; attempt++) {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 503 || attempt >= MAX_ATTEMPTS) {
+                return response;
+            }
+            long retryAfterSeconds = response.headers().firstValueAsLong("Retry-After").orElse(1L);
+            Thread.sleep(retryAfterSeconds * 1000L);
+        }
+    }
+
+    private static void expect(HttpResponse<String> response, int status, String action) {
+        if (response.statusCode() != status) {
+            throw new IllegalStateException(action + " 실패: HTTP " + response.statusCode() + " " + response.body());
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
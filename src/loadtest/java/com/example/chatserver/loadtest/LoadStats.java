@@ -0,0 +1,167 @@
+package com.example.chatserver.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 부하 테스트 집계: 처리량, 지연 분포, 오류.
+ *
+ * 지연은 메시지를 "보내기로 예정된 시각"부터 잰다 (clientMessageId에 기록).
+ * 전송 스레드나 서버가 밀려서 늦게 보낸 시간도 지연에 포함되므로 coordinated omission으로 지연이 작게 보이지 않는다.
+ *  - ack      : 예정 시각 → 보낸 세션이 /user/queue/ack 수신 (저장 + 발행까지)
+ *  - delivery : 예정 시각 → 구독자 세션이 /topic/{roomId} 수신 (구독자마다 한 건)
+ *
+ * 수신 스레드는 Recorder에 기록만 하고, 보고 스레드가 구간 히스토그램을 꺼내 누적한다 (warmup 구간은 누적 제외).
+ */
+final class LoadStats {
+
+    private final long originNanos = System.nanoTime();
+
+    final AtomicInteger connectedSessions = new AtomicInteger();
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder acked = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder expectedDeliveries = new LongAdder();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    private final Recorder ackLatency = new Recorder(3);
+    private final Recorder deliveryLatency = new Recorder(3);
+
+    // 보고 스레드에서만 갱신 (synchronized)
+    private final Histogram totalAckLatency = new Histogram(3);
+    private final Histogram totalDeliveryLatency = new Histogram(3);
+    private Histogram intervalAck;
+    private Histogram intervalDelivery;
+    private long totalSent;
+    private long totalAcked;
+    private long totalDuplicates;
+    private long totalDelivered;
+    private long totalExpected;
+    private final Map<String, Long> totalErrors = new TreeMap<>();
+    private double measuredSeconds;
+
+    // 기준 시각(생성 시점) 이후 경과 시간 (clientMessageId에 넣는 값, 항상 양수)
+    long now() {
+        return System.nanoTime() - originNanos;
+    }
+
+    void sent(int subscribers) {
+        sent.increment();
+        expectedDeliveries.add(subscribers);
+    }
+
+    void acked(long scheduledAt, boolean duplicate) {
+        acked.increment();
+        if (duplicate) {
+            duplicates.increment();
+        }
+        ackLatency.recordValue(micros(scheduledAt));
+    }
+
+    void delivered(long scheduledAt) {
+        delivered.increment();
+        deliveryLatency.recordValue(micros(scheduledAt));
+    }
+
+    void error(String type) {
+        errors.computeIfAbsent(type, t -> new LongAdder()).increment();
+    }
+
+    /**
+     * 지난 보고 이후 구간을 한 줄로 정리한다.
+     * @param measuring false면 warmup 구간 (출력만 하고 누적하지 않음)
+     */
+    synchronized String interval(double seconds, boolean measuring) {
+        long intervalSent = sent.sumThenReset();
+        long intervalAcked = acked.sumThenReset();
+        long intervalDuplicates = duplicates.sumThenReset();
+        long intervalDelivered = delivered.sumThenReset();
+        long intervalExpected = expectedDeliveries.sumThenReset();
+        long intervalErrors = 0L;
+        for (Map.Entry<String, LongAdder> entry : errors.entrySet()) {
+            long count = entry.getValue().sumThenReset();
+            intervalErrors += count;
+            if (measuring && count > 0) {
+                totalErrors.merge(entry.getKey(), count, Long::sum);
+            }
+        }
+        intervalAck = ackLatency.getIntervalHistogram(intervalAck);
+        intervalDelivery = deliveryLatency.getIntervalHistogram(intervalDelivery);
+        if (measuring) {
+            totalSent += intervalSent;
+            totalAcked += intervalAcked;
+            totalDuplicates += intervalDuplicates;
+            totalDelivered += intervalDelivered;
+            totalExpected += intervalExpected;
+            totalAckLatency.add(intervalAck);
+            totalDeliveryLatency.add(intervalDelivery);
+            measuredSeconds += seconds;
+        }
+        return String.format("%s sessions %d | sent %.1f/s acked %.1f/s delivered %.1f/s | errors %d | ack %s | delivery %s",
+                measuring ? "" : "[warmup]", connectedSessions.get(),
+                intervalSent / seconds, intervalAcked / seconds, intervalDelivered / seconds, intervalErrors,
+                percentiles(intervalAck), percentiles(intervalDelivery)).trim();
+    }
+
+    /**
+     * warmup 이후 전체 구간의 결과 (JSON 보고서용).
+     */
+    synchronized Map<String, Object> summary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("measuredSeconds", measuredSeconds);
+        summary.put("sent", totalSent);
+        summary.put("acked", totalAcked);
+        summary.put("duplicates", totalDuplicates);
+        summary.put("delivered", totalDelivered);
+        summary.put("expectedDeliveries", totalExpected);
+        summary.put("sentPerSecond", rate(totalSent));
+        summary.put("deliveredPerSecond", rate(totalDelivered));
+        // 연결이 끊긴 구독자나 유실된 메시지가 있으면 1보다 작음 (전송 종료 직전 메시지는 drain 시간 동안 기다림)
+        summary.put("deliveryRatio", totalExpected == 0 ? 1.0 : (double) totalDelivered / totalExpected);
+        long errorCount = totalErrors.values().stream().mapToLong(Long::longValue).sum();
+        summary.put("errors", new TreeMap<>(totalErrors));
+        summary.put("errorRate", totalSent == 0 ? 0.0 : (double) errorCount / totalSent);
+        summary.put("ackLatencyMs", latencyMillis(totalAckLatency));
+        summary.put("deliveryLatencyMs", latencyMillis(totalDeliveryLatency));
+        return summary;
+    }
+
+    private double rate(long count) {
+        return measuredSeconds == 0 ? 0.0 : count / measuredSeconds;
+    }
+
+    private long micros(long scheduledAt) {
+        return Math.max(0L, TimeUnit.NANOSECONDS.toMicros(now() - scheduledAt));
+    }
+
+    private static Map<String, Object> latencyMillis(Histogram histogram) {
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("count", histogram.getTotalCount());
+        latency.put("p50", histogram.getValueAtPercentile(50) / 1000.0);
+        latency.put("p90", histogram.getValueAtPercentile(90) / 1000.0);
+        latency.put("p99", histogram.getValueAtPercentile(99) / 1000.0);
+        latency.put("p999", histogram.getValueAtPercentile(99.9) / 1000.0);
+        latency.put("max", histogram.getMaxValue() / 1000.0);
+        return latency;
+    }
+
+    private static String percentiles(Histogram histogram) {
+        if (histogram.getTotalCount() == 0) {
+            return "-";
+        }
+        return String.format("p50 %.1f p99 %.1f max %.1f ms",
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getMaxValue() / 1000.0);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.chatserver.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+
+/**
+ * 부하 테스트 설정. 시스템 속성 load.<이름> 으로 지정한다 (gradle: -Pload.<이름>=값).
+ *
+ *  target               대상 서버 (예: http://localhost:8080). 비우면 같은 JVM에 LocalServer를 띄움
+ *  transport            sockjs (/connect) | websocket (/ws)
+ *  members              STOMP 세션(회원) 수
+ *  rooms                그룹 채팅방 수
+ *  rooms-per-member     회원 한 명이 참여/구독하는 채팅방 수
+ *  room-distribution    uniform | zipf (소수의 큰 채팅방과 다수의 작은 채팅방)
+ *  zipf-exponent        zipf 분포의 지수 (클수록 큰 채팅방에 몰림)
+ *  send-rate            전체 초당 전송 메시지 수 (정해진 시각에 보내는 open-loop, 응답을 기다리지 않음)
+ *  message-bytes        메시지 본문 길이
+ *  duration, warmup     측정 시간, 측정에서 제외할 시작 구간 (예: 60s, 30m, 2h)
+ *  report-interval      중간 보고 주기
+ *  drain                전송 종료 후 남은 메시지 수신을 기다리는 시간
+ *  concurrency          가입/로그인/참여/연결을 동시에 진행하는 수
+ *  sender-threads       전송 스레드 수 (세션은 항상 같은 스레드에서 전송)
+ *  seed                 채팅방 배정/전송 대상 선택용 난수 seed
+ *  report-file          최종 결과 JSON 파일
+ */
+final class LoadTestOptions {
+
+    final String target;
+    final String transport;
+    final int members;
+    final int rooms;
+    final int roomsPerMember;
+    final String roomDistribution;
+    final double zipfExponent;
+    final double sendRate;
+    final int messageBytes;
+    final Duration duration;
+    final Duration warmup;
+    final Duration reportInterval;
+    final Duration drain;
+    final int concurrency;
+    final int senderThreads;
+    final long seed;
+    final String password;
+    final String reportFile;
+
+    private LoadTestOptions() {
+        this.target = text("target", "");
+        this.transport = text("transport", "sockjs");
+        this.members = Integer.parseInt(text("members", "1000"));
+        this.rooms = Integer.parseInt(text("rooms", "100"));
+        this.roomsPerMember = Integer.parseInt(text("rooms-per-member", "3"));
+        this.roomDistribution = text("room-distribution", "zipf");
+        this.zipfExponent = Double.parseDouble(text("zipf-exponent", "1.0"));
+        this.sendRate = Double.parseDouble(text("send-rate", "200"));
+        this.messageBytes = Integer.parseInt(text("message-bytes", "100"));
+        this.duration = duration("duration", "60s");
+        this.warmup = duration("warmup", "10s");
+        this.reportInterval = duration("report-interval", "10s");
+        this.drain = duration("drain", "5s");
+        this.concurrency = Integer.parseInt(text("concurrency", "50"));
+        this.senderThreads = Integer.parseInt(text("sender-threads", "4"));
+        this.seed = Long.parseLong(text("seed", "42"));
+        this.password = text("password", "loadtest1234");
+        this.reportFile = text("report-file", "build/reports/loadtest/summary.json");
+    }
+
+    static LoadTestOptions fromSystemProperties() {
+        LoadTestOptions options = new LoadTestOptions();
+        if (!options.transport.equals("sockjs") && !options.transport.equals("websocket")) {
+            throw new IllegalArgumentException("load.transport는 sockjs 또는 websocket 이어야 합니다: " + options.transport);
+        }
+        if (!options.roomDistribution.equals("uniform") && !options.roomDistribution.equals("zipf")) {
+            throw new IllegalArgumentException("load.room-distribution은 uniform 또는 zipf 이어야 합니다: " + options.roomDistribution);
+        }
+        if (options.members <= 0 || options.rooms <= 0 || options.roomsPerMember <= 0 || options.roomsPerMember > options.rooms) {
+            throw new IllegalArgumentException("members, rooms는 0보다 크고 rooms-per-member는 1 ~ rooms 사이여야 합니다.");
+        }
+        if (options.sendRate <= 0 || options.concurrency <= 0 || options.senderThreads <= 0) {
+            throw new IllegalArgumentException("send-rate, concurrency, sender-threads는 0보다 커야 합니다.");
+        }
+        return options;
+    }
+
+    private static String text(String name, String defaultValue) {
+        String value = System.getProperty("load." + name);
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    private static Duration duration(String name, String defaultValue) {
+        return DurationStyle.detectAndParse(text(name, defaultValue));
+    }
+}
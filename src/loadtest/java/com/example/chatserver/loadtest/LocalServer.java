@@ -0,0 +1,83 @@
+package com.example.chatserver.loadtest;
+
+import com.example.chatserver.ChatserverApplication;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+
+/**
+ * 외부 인프라 없이 채팅 서버를 실행한다 (부하 테스트용).
+ *
+ * - Redis: 내장 Redis 프로세스 (embedded-redis에 포함된 바이너리, 127.0.0.1)
+ * - DB: loadtest 프로필의 H2 메모리 DB (MySQL 호환 모드)
+ *
+ * ./gradlew loadtestServer 로 단독 실행하거나, StompLoadGenerator가 대상 서버를 지정하지 않으면 같은 JVM에 띄운다.
+ * 같은 JVM에서 실행하면 서버와 부하 생성기가 CPU를 나눠 쓰므로 절대 수치보다는 변경 전후 비교용으로 사용한다.
+ */
+@Log4j2
+public final class LocalServer implements AutoCloseable {
+
+    private final RedisServer redisServer;
+
+    private final ConfigurableApplicationContext context;
+
+    private LocalServer(RedisServer redisServer, ConfigurableApplicationContext context) {
+        this.redisServer = redisServer;
+        this.context = context;
+    }
+
+    public static void main(String[] args) throws IOException {
+        LocalServer server = start(Integer.getInteger("load.redis-port", 6379), Integer.getInteger("load.server-port", 8080));
+        Runtime.getRuntime().addShutdownHook(new Thread(server::closeQuietly, "local-server-shutdown"));
+        log.warn("로컬 채팅 서버 실행 중 - http://localhost:{} (Ctrl+C로 종료)", server.port());
+    }
+
+    /**
+     * @param serverPort 0이면 빈 포트를 사용 (실제 포트는 port())
+     */
+    public static LocalServer start(int redisPort, int serverPort) throws IOException {
+        RedisServer redisServer = new RedisServer(redisPort);
+        redisServer.start();
+        try {
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(ChatserverApplication.class)
+                    .profiles("loadtest")
+                    .run("--spring.data.redis.port=" + redisPort, "--server.port=" + serverPort);
+            return new LocalServer(redisServer, context);
+        } catch (RuntimeException e) {
+            redisServer.stop();
+            throw e;
+        }
+    }
+
+    public int port() {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    public static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            context.close();
+        } finally {
+            redisServer.stop();
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            close();
+        } catch (IOException e) {
+            log.warn("내장 Redis 종료 실패", e);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.chatserver.loadtest;
+
+import com.example.chatserver.chat.dto.ChatMessageDto;
+import com.example.chatserver.chat.dto.MessageAckDto;
+import org.springframework.http.HttpHeaders;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회원 한 명의 STOMP 세션.
+ * 연결되면 참여한 채팅방(/topic/{roomId})과 전송 확인 큐(/user/queue/ack)를 구독하고,
+ * 연결이 끊기면 오류로 기록한 뒤 다시 연결한다 (장시간 실행 중 끊긴 세션이 그대로 빠지지 않도록).
+ */
+final class MemberSession extends StompSessionHandlerAdapter {
+
+    private static final long RECONNECT_DELAY_MS = 1000L;
+
+    final int index;
+
+    final List<Long> roomIds;
+
+    private final String email;
+
+    private final String token;
+
+    private final String url;
+
+    private final String runId;
+
+    private final WebSocketStompClient stompClient;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final LoadStats stats;
+
+    private volatile StompSession session;
+
+    private volatile boolean closed;
+
+    MemberSession(int index, String email, String token, List<Long> roomIds, String url, String runId,
+                  WebSocketStompClient stompClient, ScheduledExecutorService scheduler, LoadStats stats) {
+        this.index = index;
+        this.email = email;
+        this.token = token;
+        this.roomIds = roomIds;
+        this.url = url;
+        this.runId = runId;
+        this.stompClient = stompClient;
+        this.scheduler = scheduler;
+        this.stats = stats;
+    }
+
+    CompletableFuture<StompSession> connect() {
+        WebSocketHttpHeaders handshakeHeaders = new WebSocketHttpHeaders();
+        // 엔드포인트에 허용된 origin
+        handshakeHeaders.set(HttpHeaders.ORIGIN, "http://localhost:3000");
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.set("Authorization", "Bearer " + token);
+        CompletableFuture<StompSession> connected = stompClient.connectAsync(url, handshakeHeaders, connectHeaders, this);
+        connected.whenComplete((s, e) -> {
+            if (e != null) {
+                stats.error("connect");
+                scheduleReconnect();
+            }
+        });
+        return connected;
+    }
+
+    boolean isConnected() {
+        StompSession current = session;
+        return current != null && current.isConnected();
+    }
+
+    // 전송 스레드에서만 호출 (세션마다 항상 같은 스레드)
+    boolean send(Long roomId, String clientMessageId, String message) {
+        StompSession current = session;
+        if (current == null || !current.isConnected()) {
+            return false;
+        }
+        ChatMessageDto chatMessageDto = ChatMessageDto.builder()
+                .roomId(roomId)
+                .message(message)
+                .senderEmail(email)
+                .clientMessageId(clientMessageId)
+                .build();
+        current.send("/publish/" + roomId, chatMessageDto);
+        return true;
+    }
+
+    void close() {
+        closed = true;
+        StompSession current = session;
+        if (current != null && current.isConnected()) {
+            current.disconnect();
+        }
+    }
+
+    @Override
+    public void afterConnected(StompSession session, StompHeaders connectedHeaders) {
+        session.subscribe(subscribeHeaders("/user/queue/ack"), new FrameHandler(MessageAckDto.class) {
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                MessageAckDto ack = (MessageAckDto) payload;
+                Long scheduledAt = scheduledAt(ack.getClientMessageId());
+                if (scheduledAt != null) {
+                    stats.acked(scheduledAt, ack.isDuplicate());
+                }
+            }
+        });
+        for (Long roomId : roomIds) {
+            session.subscribe(subscribeHeaders("/topic/" + roomId), new FrameHandler(ChatMessageDto.class) {
+                @Override
+                public void handleFrame(StompHeaders headers, Object payload) {
+                    Long scheduledAt = scheduledAt(((ChatMessageDto) payload).getClientMessageId());
+                    if (scheduledAt != null) {
+                        stats.delivered(scheduledAt);
+                    }
+                }
+            });
+        }
+        this.session = session;
+        stats.connectedSessions.incrementAndGet();
+    }
+
+    // 서버가 보낸 ERROR 프레임 (권한, 전송 제한 등). 서버는 이후 연결을 닫음
+    @Override
+    public Type getPayloadType(StompHeaders headers) {
+        return byte[].class;
+    }
+
+    @Override
+    public void handleFrame(StompHeaders headers, Object payload) {
+        stats.error("stomp-error");
+    }
+
+    @Override
+    public void handleException(StompSession session, StompCommand command, StompHeaders headers, byte[] payload, Throwable exception) {
+        stats.error("stomp-exception");
+    }
+
+    @Override
+    public void handleTransportError(StompSession session, Throwable exception) {
+        // 연결 단계의 실패는 connect()에서 기록
+        if (this.session != session) {
+            return;
+        }
+        this.session = null;
+        stats.connectedSessions.decrementAndGet();
+        if (!closed) {
+            stats.error("transport");
+            scheduleReconnect();
+        }
+    }
+
+    private void scheduleReconnect() {
+        if (!closed) {
+            scheduler.schedule(this::connect, RECONNECT_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private StompHeaders subscribeHeaders(String destination) {
+        StompHeaders headers = new StompHeaders();
+        headers.setDestination(destination);
+        headers.set("Authorization", "Bearer " + token);
+        return headers;
+    }
+
+    // clientMessageId = {runId}-{순번}-{예정 시각 ns}, 다른 실행의 메시지는 무시
+    private Long scheduledAt(String clientMessageId) {
+        if (clientMessageId == null || !clientMessageId.startsWith(runId + "-")) {
+            return null;
+        }
+        return Long.parseLong(clientMessageId.substring(clientMessageId.lastIndexOf('-') + 1));
+    }
+
+    private abstract static class FrameHandler implements StompFrameHandler {
+
+        private final Class<?> payloadType;
+
+        FrameHandler(Class<?> payloadType) {
+            this.payloadType = payloadType;
+        }
+
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return payloadType;
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.example.chatserver.loadtest;
+
+import com.example.chatserver.chat.dto.ChatRoomListResDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.web.socket.client.WebSocketClient;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 로컬 부하/장시간(soak) 테스트 도구.
+ *
+ * 1. 준비: 회원 가입/로그인(/member/doLogin), 채팅방 생성, 회원별 채팅방 참여 (room-distribution 에 따라 채팅방 크기 결정)
+ * 2. 연결: 회원마다 SockJS(/connect) 또는 WebSocket(/ws) STOMP 세션 + 참여한 채팅방 구독
+ * 3. 전송: send-rate 로 정한 시각마다 임의의 세션이 자기 채팅방에 메시지 전송 (응답을 기다리지 않는 open-loop)
+ * 4. 보고: report-interval 마다 처리량, ack/delivery 지연 백분위, 오류 수. 종료시 warmup 이후 전체 결과를 report-file(JSON)로 저장
+ *
+ * 실행 방법과 설정은 build.gradle의 loadtest 태스크와 LoadTestOptions 참고.
+ */
+public final class StompLoadGenerator {
+
+    // 전송 예약을 확인하는 주기
+    private static final long TICK_MS = 5L;
+
+    private StompLoadGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.fromSystemProperties();
+        LocalServer localServer = null;
+        String baseUrl = options.target;
+        if (baseUrl.isEmpty()) {
+            localServer = LocalServer.start(LocalServer.freePort(), 0);
+            baseUrl = "http://localhost:" + localServer.port();
+        }
+        int exitCode = 0;
+        try {
+            run(options, baseUrl);
+        } catch (Exception e) {
+            e.printStackTrace();
+            exitCode = 1;
+        } finally {
+            if (localServer != null) {
+                localServer.close();
+            }
+        }
+        // WebSocket 클라이언트 스레드가 남아 있어도 종료
+        System.exit(exitCode);
+    }
+
+    private static void run(LoadTestOptions options, String baseUrl) throws Exception {
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        Random random = new Random(options.seed);
+        ChatApiClient api = new ChatApiClient(baseUrl);
+        LoadStats stats = new LoadStats();
+        ExecutorService setupPool = Executors.newFixedThreadPool(options.concurrency);
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+        ExecutorService[] senders = new ExecutorService[options.senderThreads];
+        for (int i = 0; i < senders.length; i++) {
+            senders[i] = Executors.newSingleThreadExecutor();
+        }
+        WebSocketStompClient stompClient = stompClient(options);
+        List<MemberSession> sessions = new ArrayList<>();
+        try {
+            // 1. 준비
+            System.out.printf("[%s] 준비: 회원 %d명, 채팅방 %d개 (%s), 회원당 %d개 → %s%n", runId, options.members, options.rooms,
+                    options.roomDistribution, options.roomsPerMember, baseUrl);
+            ChatApiClient.Login owner = api.loginOrCreate("load-owner", "load-owner@loadtest.local", options.password);
+            String prefix = "load-" + runId + "-";
+            List<Long> roomIds = createRooms(api, owner.token(), prefix, options.rooms);
+
+            List<ChatApiClient.Login> logins = parallel(setupPool, options.members, i ->
+                    api.loginOrCreate("load-" + i, "load-" + i + "@loadtest.local", options.password));
+            List<List<Long>> memberRooms = assignRooms(options, roomIds, random);
+            Map<Long, Integer> roomSizes = new HashMap<>();
+            List<Runnable> joins = new ArrayList<>();
+            for (int i = 0; i < options.members; i++) {
+                String token = logins.get(i).token();
+                for (Long roomId : memberRooms.get(i)) {
+                    roomSizes.merge(roomId, 1, Integer::sum);
+                    joins.add(() -> joinQuietly(api, token, roomId));
+                }
+            }
+            parallel(setupPool, joins.size(), i -> {
+                joins.get(i).run();
+                return null;
+            });
+            printRoomSizes(roomSizes, options.rooms);
+
+            // 2. 연결 (동시에 진행하는 연결 수 제한)
+            String url = options.transport.equals("sockjs") ? baseUrl + "/connect" : baseUrl.replaceFirst("^http", "ws") + "/ws";
+            Semaphore connecting = new Semaphore(options.concurrency);
+            List<CompletableFuture<?>> connections = new ArrayList<>();
+            for (int i = 0; i < options.members; i++) {
+                MemberSession session = new MemberSession(i, "load-" + i + "@loadtest.local", logins.get(i).token(), memberRooms.get(i),
+                        url, runId, stompClient, scheduler, stats);
+                sessions.add(session);
+                connecting.acquire();
+                connections.add(session.connect().whenComplete((s, e) -> connecting.release()));
+            }
+            try {
+                CompletableFuture.allOf(connections.toArray(new CompletableFuture[0])).get(2, TimeUnit.MINUTES);
+            } catch (TimeoutException | ExecutionException e) {
+                System.out.printf("일부 세션 연결 실패 (다시 연결 시도 중): %s%n", e.getMessage());
+            }
+            // SUBSCRIBE 처리 대기 (서버가 구독을 등록하기 전에 보낸 메시지는 delivery 누락으로 보임)
+            Thread.sleep(2000L);
+            System.out.printf("연결된 세션 %d/%d (%s)%n", stats.connectedSessions.get(), options.members, url);
+
+            // 3. 전송 + 4. 중간 보고
+            String body = "x".repeat(Math.max(1, options.messageBytes));
+            long sendStart = stats.now();
+            long warmupEnd = sendStart + options.warmup.toNanos();
+            long sendEnd = warmupEnd + options.duration.toNanos();
+            double nanosPerMessage = 1_000_000_000.0 / options.sendRate;
+            long[] sequence = {0L};
+            scheduler.scheduleAtFixedRate(() -> {
+                long now = Math.min(stats.now(), sendEnd);
+                long due = (long) ((now - sendStart) / nanosPerMessage);
+                for (; sequence[0] < due; sequence[0]++) {
+                    long scheduledAt = sendStart + (long) (sequence[0] * nanosPerMessage);
+                    MemberSession session = sessions.get(ThreadLocalRandom.current().nextInt(sessions.size()));
+                    Long roomId = session.roomIds.get(ThreadLocalRandom.current().nextInt(session.roomIds.size()));
+                    String clientMessageId = runId + "-" + sequence[0] + "-" + scheduledAt;
+                    int subscribers = roomSizes.get(roomId);
+                    senders[session.index % senders.length].execute(() -> send(stats, session, roomId, clientMessageId, body, subscribers));
+                }
+            }, 0L, TICK_MS, TimeUnit.MILLISECONDS);
+
+            long reportNanos = options.reportInterval.toNanos();
+            long lastReport = sendStart;
+            long finish = sendEnd + options.drain.toNanos();
+            while (lastReport < finish) {
+                long next = Math.min(lastReport + reportNanos, finish);
+                // warmup 경계에서 한번 끊어서 warmup 구간이 측정에 섞이지 않도록
+                if (lastReport < warmupEnd && next > warmupEnd) {
+                    next = warmupEnd;
+                }
+                TimeUnit.NANOSECONDS.sleep(Math.max(0L, next - stats.now()));
+                double seconds = (stats.now() - lastReport) / 1_000_000_000.0;
+                boolean measuring = lastReport >= warmupEnd;
+                System.out.printf("[%6.0fs] %s%n", (stats.now() - sendStart) / 1_000_000_000.0, stats.interval(seconds, measuring));
+                lastReport = stats.now();
+            }
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("runId", runId);
+            report.put("target", baseUrl);
+            report.put("transport", options.transport);
+            report.put("members", options.members);
+            report.put("rooms", options.rooms);
+            report.put("roomsPerMember", options.roomsPerMember);
+            report.put("roomDistribution", options.roomDistribution);
+            report.put("sendRate", options.sendRate);
+            report.put("messageBytes", options.messageBytes);
+            report.putAll(stats.summary());
+            writeReport(options.reportFile, report);
+        } finally {
+            // 세션을 먼저 닫아야 재연결 예약이 생기지 않음
+            sessions.forEach(MemberSession::close);
+            scheduler.shutdownNow();
+            for (ExecutorService sender : senders) {
+                sender.shutdownNow();
+            }
+            setupPool.shutdownNow();
+            stompClient.stop();
+        }
+    }
+
+    private static void send(LoadStats stats, MemberSession session, Long roomId, String clientMessageId, String body, int subscribers) {
+        try {
+            if (session.send(roomId, clientMessageId, body)) {
+                stats.sent(subscribers);
+            } else {
+                stats.error("not-connected");
+            }
+        } catch (RuntimeException e) {
+            stats.error("send");
+        }
+    }
+
+    private static WebSocketStompClient stompClient(LoadTestOptions options) {
+        WebSocketClient webSocketClient = new StandardWebSocketClient();
+        if (options.transport.equals("sockjs")) {
+            webSocketClient = new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient())));
+        }
+        WebSocketStompClient stompClient = new WebSocketStompClient(webSocketClient);
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        // heartbeat 없음: 세션마다 전송 스레드가 하나라서 heartbeat 전송과 겹치지 않도록
+        stompClient.setDefaultHeartbeat(new long[]{0L, 0L});
+        return stompClient;
+    }
+
+    private static List<Long> createRooms(ChatApiClient api, String token, String prefix, int rooms) throws Exception {
+        for (int i = 0; i < rooms; i++) {
+            api.createGroupRoom(token, prefix + i);
+        }
+        List<Long> roomIds = new ArrayList<>();
+        Long cursor = null;
+        while (true) {
+            List<ChatRoomListResDto> page = api.listGroupRooms(token, prefix, cursor);
+            if (page.isEmpty()) {
+                break;
+            }
+            page.forEach(room -> roomIds.add(room.getRoomId()));
+            cursor = page.get(page.size() - 1).getRoomId();
+        }
+        if (roomIds.size() != rooms) {
+            throw new IllegalStateException("생성한 채팅방 수가 다릅니다: " + roomIds.size() + " / " + rooms);
+        }
+        return roomIds;
+    }
+
+    /**
+     * 회원마다 서로 다른 채팅방 rooms-per-member 개를 고른다.
+     * zipf: k번째 채팅방이 선택될 확률 ∝ 1 / (k+1)^s → 앞쪽 채팅방은 크고 뒤쪽 채팅방은 작음
+     */
+    private static List<List<Long>> assignRooms(LoadTestOptions options, List<Long> roomIds, Random random) {
+        double[] cumulative = new double[roomIds.size()];
+        double sum = 0.0;
+        for (int k = 0; k < cumulative.length; k++) {
+            sum += options.roomDistribution.equals("zipf") ? 1.0 / Math.pow(k + 1, options.zipfExponent) : 1.0;
+            cumulative[k] = sum;
+        }
+        List<List<Long>> assignments = new ArrayList<>(options.members);
+        for (int i = 0; i < options.members; i++) {
+            Set<Long> chosen = new LinkedHashSet<>();
+            while (chosen.size() < options.roomsPerMember) {
+                int k = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+                chosen.add(roomIds.get(k >= 0 ? k : Math.min(-k - 1, cumulative.length - 1)));
+            }
+            assignments.add(new ArrayList<>(chosen));
+        }
+        return assignments;
+    }
+
+    private static void joinQuietly(ChatApiClient api, String token, Long roomId) {
+        try {
+            api.joinGroupRoom(token, roomId);
+        } catch (Exception e) {
+            throw new IllegalStateException("채팅방 참여 실패: " + roomId, e);
+        }
+    }
+
+    private static void printRoomSizes(Map<Long, Integer> roomSizes, int rooms) {
+        int[] sizes = roomSizes.values().stream().mapToInt(Integer::intValue).sorted().toArray();
+        System.out.printf("채팅방 크기: 최소 %d, 중앙값 %d, 최대 %d (구독자가 있는 채팅방 %d/%d)%n",
+                sizes[0], sizes[sizes.length / 2], sizes[sizes.length - 1], sizes.length, rooms);
+    }
+
+    private static void writeReport(String reportFile, Map<String, Object> report) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        File file = new File(reportFile);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        objectMapper.writeValue(file, report);
+        System.out.println(objectMapper.writeValueAsString(report));
+        System.out.printf("결과 저장: %s%n", file.getAbsolutePath());
+    }
+
+    @FunctionalInterface
+    private interface SetupTask<T> {
+        T run(int index) throws Exception;
+    }
+
+    // 준비 단계 요청을 concurrency 개씩 동시에 실행 (하나라도 실패하면 중단)
+    private static <T> List<T> parallel(ExecutorService pool, int count, SetupTask<T> task) throws Exception {
+        List<Future<T>> futures = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            futures.add(pool.submit(() -> task.run(index)));
+        }
+        List<T> results = new ArrayList<>(count);
+        for (Future<T> future : futures) {
+            results.add(future.get());
+        }
+        return results;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.chatserver.chat.archive;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 아카이브 세그먼트에 저장되는 메시지 한 건.
+ * JPQL 생성자 프로젝션으로 chat_message에서 바로 조회한다.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedMessage {
+
+    private Long id;
+    private Long roomId;
+    private String senderEmail;
+    private String content;
+    private Long createdTime;
+}
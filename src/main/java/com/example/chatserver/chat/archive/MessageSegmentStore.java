@@ -0,0 +1,193 @@
+package com.example.chatserver.chat.archive;
+
+import com.example.chatserver.chat.domain.ArchiveSegment;
+import com.example.chatserver.chat.repository.ArchiveSegmentRepository;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 오래된(cold) 메시지를 저장하는 아카이브 계층.
+ *
+ * 세그먼트는 archive_segment 테이블에 저장한다 (ArchiveSegment).
+ *  - 채팅방 + 월 단위로 page-size 건씩 묶으므로 한 달치가 하나의 파티션 역할을 한다.
+ *  - 모든 서버가 같은 DB를 보므로 아카이브를 실행한 서버와 관계없이 조회된다.
+ *  - 세그먼트 저장과 원본 메시지 삭제는 호출하는 쪽에서 한 트랜잭션으로 묶는다 (MessageArchiveService).
+ *
+ * 세그먼트 형식 (gzip 압축, 컬럼 단위 저장):
+ *  magic "CSEG", version, roomId, rowCount
+ *  id 컬럼       : 첫 값 + 이전 값과의 차이(delta)
+ *  createdTime 컬럼 : 첫 값 + delta
+ *  sender 컬럼   : 사전(dictionary) + 행별 사전 index
+ *  content 컬럼  : UTF 문자열
+ * 같은 종류의 값이 연속으로 놓이므로 행 단위 JSON보다 압축률이 훨씬 좋다.
+ */
+@Component
+@Log4j2
+public class MessageSegmentStore {
+
+    private static final int MAGIC = 0x4353_4547; // "CSEG"
+
+    private static final int VERSION = 1;
+
+    private final ArchiveSegmentRepository archiveSegmentRepository;
+
+    public MessageSegmentStore(ArchiveSegmentRepository archiveSegmentRepository) {
+        this.archiveSegmentRepository = archiveSegmentRepository;
+    }
+
+    /**
+     * 한 채팅방의 특정 월 메시지 묶음을 세그먼트로 저장한다. rows는 id 오름차순이어야 한다.
+     * 트랜잭션 안에서 호출해야 하며, 같은 묶음(같은 첫 id)을 다시 쓰면 unique 인덱스 위반으로 실패한다.
+     */
+    public void write(Long roomId, YearMonth month, List<ArchivedMessage> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        archiveSegmentRepository.save(ArchiveSegment.builder()
+                .roomId(roomId)
+                .archiveMonth(month.getYear() * 100 + month.getMonthValue())
+                .firstId(rows.get(0).getId())
+                .lastId(rows.get(rows.size() - 1).getId())
+                .rowCount(rows.size())
+                .data(encode(roomId, rows))
+                .build());
+    }
+
+    /**
+     * id가 beforeId보다 작은 아카이브 메시지 중 최신 limit 건을 오래된 순서(id 오름차순)로 반환한다.
+     * 세그먼트를 최신 것부터 하나씩 읽어서 limit을 채우면 멈추므로, 한 페이지에 보통 세그먼트 하나만 압축을 푼다.
+     * 세그먼트끼리 id 범위가 겹쳐도 이미 담은 id 이상은 건너뛰므로 중복되지 않는다.
+     */
+    public List<ArchivedMessage> readBefore(Long roomId, long beforeId, int limit) {
+        List<ArchivedMessage> page = new ArrayList<>(limit);
+        long cursor = beforeId;
+        long segmentCursor = beforeId;
+        while (page.size() < limit) {
+            List<SegmentData> segment = archiveSegmentRepository.findBefore(roomId, segmentCursor, PageRequest.of(0, 1));
+            if (segment.isEmpty()) {
+                break;
+            }
+            List<ArchivedMessage> rows = decode(segment.get(0).getData());
+            for (int i = rows.size() - 1; i >= 0 && page.size() < limit; i--) {
+                ArchivedMessage row = rows.get(i);
+                if (row.getId() < cursor) {
+                    page.add(row);
+                    cursor = row.getId();
+                }
+            }
+            segmentCursor = segment.get(0).getFirstId();
+        }
+        Collections.reverse(page);
+        return page;
+    }
+
+    /**
+     * 채팅방의 아카이브 메시지를 id 순서로 한 건씩 consumer에 넘긴다. 한번에 세그먼트 하나만 메모리에 올린다.
+     * 재시도로 겹친 메시지는 이미 넘긴 id 이하를 건너뛰어 제거한다.
+     */
+    public void forEach(Long roomId, Consumer<ArchivedMessage> consumer) {
+        long lastId = Long.MIN_VALUE;
+        long segmentCursor = Long.MIN_VALUE;
+        while (true) {
+            List<SegmentData> segment = archiveSegmentRepository.findAfter(roomId, segmentCursor, PageRequest.of(0, 1));
+            if (segment.isEmpty()) {
+                return;
+            }
+            for (ArchivedMessage row : decode(segment.get(0).getData())) {
+                if (row.getId() > lastId) {
+                    consumer.accept(row);
+                    lastId = row.getId();
+                }
+            }
+            segmentCursor = segment.get(0).getFirstId();
+        }
+    }
+
+    private static byte[] encode(Long roomId, List<ArchivedMessage> rows) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(buffer)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(roomId);
+            out.writeInt(rows.size());
+
+            long prev = 0;
+            for (ArchivedMessage row : rows) {
+                out.writeLong(row.getId() - prev);
+                prev = row.getId();
+            }
+            prev = 0;
+            for (ArchivedMessage row : rows) {
+                out.writeLong(row.getCreatedTime() - prev);
+                prev = row.getCreatedTime();
+            }
+
+            Map<String, Integer> dictionary = new LinkedHashMap<>();
+            for (ArchivedMessage row : rows) {
+                dictionary.putIfAbsent(row.getSenderEmail(), dictionary.size());
+            }
+            out.writeInt(dictionary.size());
+            for (String sender : dictionary.keySet()) {
+                out.writeUTF(sender);
+            }
+            for (ArchivedMessage row : rows) {
+                out.writeInt(dictionary.get(row.getSenderEmail()));
+            }
+
+            for (ArchivedMessage row : rows) {
+                out.writeUTF(row.getContent());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("세그먼트 인코딩 실패 roomId=" + roomId, e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static List<ArchivedMessage> decode(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new ByteArrayInputStream(data))))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                log.warn("알 수 없는 세그먼트 형식");
+                return new ArrayList<>();
+            }
+            long roomId = in.readLong();
+            int count = in.readInt();
+
+            long[] ids = new long[count];
+            long prev = 0;
+            for (int i = 0; i < count; i++) {
+                prev += in.readLong();
+                ids[i] = prev;
+            }
+            long[] times = new long[count];
+            prev = 0;
+            for (int i = 0; i < count; i++) {
+                prev += in.readLong();
+                times[i] = prev;
+            }
+            String[] dictionary = new String[in.readInt()];
+            for (int i = 0; i < dictionary.length; i++) {
+                dictionary[i] = in.readUTF();
+            }
+            int[] senders = new int[count];
+            for (int i = 0; i < count; i++) {
+                senders[i] = in.readInt();
+            }
+
+            List<ArchivedMessage> rows = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                rows.add(new ArchivedMessage(ids[i], roomId, dictionary[senders[i]], in.readUTF(), times[i]));
+            }
+            return rows;
+        } catch (IOException e) {
+            throw new UncheckedIOException("세그먼트 디코딩 실패", e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.chatserver.chat.archive;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 이력 조회용 세그먼트 프로젝션: 조회한 세그먼트를 영속성 컨텍스트에 쌓지 않음
+ * (내보내기처럼 채팅방 전체 세그먼트를 차례로 읽어도 메모리에는 하나씩만 남음)
+ */
+@Getter
+@AllArgsConstructor
+public class SegmentData {
+
+    private Long firstId;
+    private byte[] data;
+}
@@ -0,0 +1,69 @@
+package com.example.chatserver.chat.codec;
+
+import com.example.chatserver.chat.dto.ChatMessageDto;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+/**
+ * 브로커가 구독자에게 보내는 채팅 메시지(/topic/{roomId})를
+ * CBOR를 협상한 세션에 한해 JSON → CBOR로 바꿔서 내보내는 clientOutbound 인터셉터.
+ *
+ * SimpleBroker는 같은 payload(byte[])를 구독자 수만큼 보내므로
+ * 마지막으로 변환한 payload를 기억해 같은 메시지를 여러 세션에 보낼 때 한번만 변환한다.
+ */
+@Component
+public class CborOutboundInterceptor implements ChannelInterceptor {
+
+    private static final Pattern CHAT_TOPIC = Pattern.compile("^/topic/\\d+$");
+
+    private final ChatMessageCodec chatMessageCodec;
+
+    private final AtomicReference<Transcoded> lastTranscoded = new AtomicReference<>();
+
+    private record Transcoded(byte[] json, byte[] cbor) {
+    }
+
+    public CborOutboundInterceptor(ChatMessageCodec chatMessageCodec) {
+        this.chatMessageCodec = chatMessageCodec;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, SimpMessageHeaderAccessor.class);
+        if (accessor == null
+                || accessor.getMessageType() != SimpMessageType.MESSAGE
+                || !chatMessageCodec.isCborSession(accessor.getSessionId())
+                || accessor.getDestination() == null
+                || !CHAT_TOPIC.matcher(accessor.getDestination()).matches()
+                || !(message.getPayload() instanceof byte[] json)) {
+            return message;
+        }
+
+        SimpMessageHeaderAccessor cborAccessor = SimpMessageHeaderAccessor.wrap(message);
+        // SockJS가 아닌 연결에서 바이너리 WebSocket 프레임으로 보내려면 application/octet-stream 이어야 함
+        cborAccessor.setContentType(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+        cborAccessor.setNativeHeader(ChatMessageCodec.ENCODING_HEADER, "cbor");
+        return MessageBuilder.createMessage(transcode(json), cborAccessor.getMessageHeaders());
+    }
+
+    private byte[] transcode(byte[] json) {
+        Transcoded last = lastTranscoded.get();
+        if (last != null && last.json() == json) {
+            return last.cbor();
+        }
+        ChatMessageDto chatMessageDto = chatMessageCodec.fromJson(json);
+        byte[] cbor = chatMessageCodec.toClientCbor(chatMessageDto);
+        lastTranscoded.set(new Transcoded(json, cbor));
+        return cbor;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.chatserver.chat.codec;
+
+import com.example.chatserver.chat.dto.ChatMessageDto;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.AbstractMessageConverter;
+
+/**
+ * content-type이 application/cbor 인 STOMP SEND 프레임을 ChatMessageDto로 변환하는 MessageConverter.
+ *
+ * content-type이 없는 프레임까지 가로채지 않도록 strict 매칭을 사용하므로
+ * 기존 JSON 클라이언트는 Spring 기본 Jackson 컨버터가 그대로 처리한다.
+ */
+public class ChatMessageCborConverter extends AbstractMessageConverter {
+
+    private final ChatMessageCodec chatMessageCodec;
+
+    public ChatMessageCborConverter(ChatMessageCodec chatMessageCodec) {
+        super(ChatMessageCodec.APPLICATION_CBOR);
+        this.chatMessageCodec = chatMessageCodec;
+        setStrictContentTypeMatch(true);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ChatMessageDto.class.equals(clazz);
+    }
+
+    @Override
+    protected Object convertFromInternal(Message<?> message, Class<?> targetClass, Object conversionHint) {
+        if (!(message.getPayload() instanceof byte[] payload)) {
+            return null;
+        }
+        return chatMessageCodec.fromCbor(payload);
+    }
+
+    @Override
+    protected Object convertToInternal(Object payload, MessageHeaders headers, Object conversionHint) {
+        return chatMessageCodec.toClientCbor((ChatMessageDto) payload);
+    }
+}
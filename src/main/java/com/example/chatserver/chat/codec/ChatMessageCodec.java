@@ -0,0 +1,112 @@
+package com.example.chatserver.chat.codec;
+
+import com.example.chatserver.chat.dto.ChatMessageDto;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ChatMessageDto의 JSON / CBOR 인코딩을 한 곳에서 처리하는 컴포넌트.
+ *
+ * - JSON: 기존 클라이언트의 기본값 (필드 이름 + senderEmail 포함)
+ * - CBOR(클라이언트용): STOMP CONNECT의 content-type이 application/cbor인 연결에만 사용.
+ *   발신자는 숫자 senderId로만 보내고 senderEmail은 생략, null 필드도 생략
+ * - CBOR(Redis용): 서버 간 전달용이라 senderEmail까지 모두 포함 (JSON 구독자에게도 다시 보내야 하므로)
+ *
+ * CBOR를 협상한 STOMP 세션 id를 기억해두고, 브로커가 구독자에게 보내는 메시지를 세션별로 변환할 때 사용한다.
+ */
+@Component
+public class ChatMessageCodec {
+
+    public static final MimeType APPLICATION_CBOR = new MimeType("application", "cbor");
+
+    // WebSocket 세션 속성: SockJS가 아닌(바이너리 프레임을 보낼 수 있는) 연결인지
+    public static final String BINARY_TRANSPORT_ATTRIBUTE = "chat.binaryTransport";
+
+    // CBOR 메시지임을 표시하는 STOMP 헤더 (바이너리 프레임은 content-type이 application/octet-stream 이어야 하므로)
+    public static final String ENCODING_HEADER = "chat-encoding";
+
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+
+    private final ObjectMapper clientCborMapper = new CBORMapper()
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+            .addMixIn(ChatMessageDto.class, CompactSenderMixin.class);
+
+    private final ObjectMapper redisCborMapper = new CBORMapper();
+
+    private final Set<String> cborSessions = ConcurrentHashMap.newKeySet();
+
+    // 클라이언트 CBOR에서는 senderEmail을 쓰지 않음 (수신은 허용)
+    @JsonIgnoreProperties(value = "senderEmail", allowSetters = true)
+    private abstract static class CompactSenderMixin {
+    }
+
+    public byte[] toJson(ChatMessageDto chatMessageDto) {
+        return write(jsonMapper, chatMessageDto);
+    }
+
+    public byte[] toClientCbor(ChatMessageDto chatMessageDto) {
+        return write(clientCborMapper, chatMessageDto);
+    }
+
+    public byte[] toRedisCbor(ChatMessageDto chatMessageDto) {
+        return write(redisCborMapper, chatMessageDto);
+    }
+
+    public ChatMessageDto fromJson(byte[] payload) {
+        return read(jsonMapper, payload);
+    }
+
+    public ChatMessageDto fromCbor(byte[] payload) {
+        return read(redisCborMapper, payload);
+    }
+
+    // Redis 메시지처럼 형식을 모르는 경우: JSON 객체는 '{'(공백 제외)로 시작하고 CBOR map은 그렇지 않음
+    public ChatMessageDto decode(byte[] payload) {
+        for (byte b : payload) {
+            if (b == ' ' || b == '\t' || b == '\r' || b == '\n') {
+                continue;
+            }
+            return b == '{' ? fromJson(payload) : fromCbor(payload);
+        }
+        throw new IllegalArgumentException("empty chat message payload");
+    }
+
+    public void useCbor(String sessionId) {
+        cborSessions.add(sessionId);
+    }
+
+    public boolean isCborSession(String sessionId) {
+        return sessionId != null && cborSessions.contains(sessionId);
+    }
+
+    public void release(String sessionId) {
+        if (sessionId != null) {
+            cborSessions.remove(sessionId);
+        }
+    }
+
+    private static byte[] write(ObjectMapper mapper, ChatMessageDto chatMessageDto) {
+        try {
+            return mapper.writeValueAsBytes(chatMessageDto);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ChatMessageDto read(ObjectMapper mapper, byte[] payload) {
+        try {
+            return mapper.readValue(payload, ChatMessageDto.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
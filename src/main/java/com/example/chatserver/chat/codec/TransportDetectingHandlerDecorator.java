@@ -0,0 +1,36 @@
+package com.example.chatserver.chat.codec;
+
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.sockjs.transport.SockJsSession;
+
+/**
+ * WebSocket 연결이 SockJS 세션인지 기록하는 데코레이터.
+ *
+ * SockJS는 텍스트 프레임만 보낼 수 있어서 CBOR(바이너리)를 쓸 수 없다.
+ * 세션 속성은 STOMP 메시지의 simpSessionAttributes와 같은 Map이므로
+ * CONNECT를 처리하는 StompHandler에서 이 값을 보고 CBOR 협상 여부를 결정한다.
+ */
+public class TransportDetectingHandlerDecorator extends WebSocketHandlerDecorator {
+
+    private final ChatMessageCodec chatMessageCodec;
+
+    public TransportDetectingHandlerDecorator(WebSocketHandler delegate, ChatMessageCodec chatMessageCodec) {
+        super(delegate);
+        this.chatMessageCodec = chatMessageCodec;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        session.getAttributes().put(ChatMessageCodec.BINARY_TRANSPORT_ATTRIBUTE, !(session instanceof SockJsSession));
+        super.afterConnectionEstablished(session);
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+        chatMessageCodec.release(session.getId());
+        super.afterConnectionClosed(session, closeStatus);
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.chatserver.chat.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.server.HandshakeFailureException;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
+
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * WebSocket 핸드셰이크에서 permessage-deflate(RFC 7692) 확장 협상을 조정하는 핸들러.
+ *
+ * 압축 자체는 서블릿 컨테이너(Tomcat)의 permessage-deflate 구현이 처리하는데,
+ * Tomcat은 요청의 Sec-WebSocket-Extensions 헤더를 직접 읽어 협상하므로
+ * 업그레이드 전에 헤더의 확장 제안을 설정값에 맞게 바꿔서 넘긴다.
+ * - enabled=false: 확장 제안을 제거하여 압축하지 않음
+ * - server-context-takeover=false: 메시지마다 서버 쪽 압축 사전을 초기화 (연결당 메모리 절약, 압축률 감소)
+ * - client-context-takeover=false: 클라이언트에게도 메시지마다 사전을 초기화하도록 요청
+ */
+@Component
+public class DeflateNegotiatingHandshakeHandler extends DefaultHandshakeHandler {
+
+    private static final String PERMESSAGE_DEFLATE = "permessage-deflate";
+
+    private final boolean enabled;
+
+    private final boolean serverContextTakeover;
+
+    private final boolean clientContextTakeover;
+
+    public DeflateNegotiatingHandshakeHandler(@Value("${chat.websocket.deflate.enabled:true}") boolean enabled,
+                                              @Value("${chat.websocket.deflate.server-context-takeover:true}") boolean serverContextTakeover,
+                                              @Value("${chat.websocket.deflate.client-context-takeover:true}") boolean clientContextTakeover) {
+        this.enabled = enabled;
+        this.serverContextTakeover = serverContextTakeover;
+        this.clientContextTakeover = clientContextTakeover;
+    }
+
+    @Override
+    public boolean doHandshake(ServerHttpRequest request, ServerHttpResponse response, WebSocketHandler wsHandler,
+                               Map<String, Object> attributes) throws HandshakeFailureException {
+        List<String> offered = request.getHeaders().get(WebSocketHttpHeaders.SEC_WEBSOCKET_EXTENSIONS);
+        if (offered != null && !offered.isEmpty() && request instanceof ServletServerHttpRequest servletRequest) {
+            String rewritten = rewrite(offered);
+            request = new ServletServerHttpRequest(new ExtensionHeaderRequest(servletRequest.getServletRequest(), rewritten));
+        }
+        return super.doHandshake(request, response, wsHandler, attributes);
+    }
+
+    private String rewrite(List<String> offered) {
+        StringJoiner header = new StringJoiner(", ");
+        for (String value : offered) {
+            for (WebSocketExtension extension : WebSocketExtension.parseExtensions(value)) {
+                if (!PERMESSAGE_DEFLATE.equalsIgnoreCase(extension.getName())) {
+                    header.add(render(extension.getName(), extension.getParameters()));
+                } else if (enabled) {
+                    StringBuilder deflate = new StringBuilder(render(extension.getName(), extension.getParameters()));
+                    if (!serverContextTakeover && !extension.getParameters().containsKey("server_no_context_takeover")) {
+                        deflate.append("; server_no_context_takeover");
+                    }
+                    if (!clientContextTakeover && !extension.getParameters().containsKey("client_no_context_takeover")) {
+                        deflate.append("; client_no_context_takeover");
+                    }
+                    header.add(deflate);
+                }
+            }
+        }
+        return header.toString();
+    }
+
+    // 값이 없는 파라미터(client_max_window_bits 등)는 이름만 씀
+    private static String render(String name, Map<String, String> parameters) {
+        StringBuilder sb = new StringBuilder(name);
+        parameters.forEach((key, value) -> {
+            sb.append("; ").append(key);
+            if (value != null && !value.isEmpty()) {
+                sb.append('=').append(value);
+            }
+        });
+        return sb.toString();
+    }
+
+    // Sec-WebSocket-Extensions 헤더만 바꿔서 보여주는 요청 래퍼
+    private static class ExtensionHeaderRequest extends HttpServletRequestWrapper {
+
+        private final String extensions;
+
+        ExtensionHeaderRequest(HttpServletRequest request, String extensions) {
+            super(request);
+            this.extensions = extensions;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            if (WebSocketHttpHeaders.SEC_WEBSOCKET_EXTENSIONS.equalsIgnoreCase(name)) {
+                return extensions.isEmpty() ? null : extensions;
+            }
+            return super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            if (WebSocketHttpHeaders.SEC_WEBSOCKET_EXTENSIONS.equalsIgnoreCase(name)) {
+                return extensions.isEmpty() ? Collections.emptyEnumeration() : Collections.enumeration(List.of(extensions));
+            }
+            return super.getHeaders(name);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.chatserver.chat.config;
+
+import com.example.chatserver.chat.service.HotRoomTracker;
+import com.example.chatserver.common.metrics.ChatMetrics;
+import com.example.chatserver.common.tracing.MessageTracer;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 아웃바운드 채널 스레드에서 구독자 세션에 메시지를 쓰는 시간과,
+ * 채팅 메시지의 경우 서버가 SEND를 받은 시각(sentAt)부터 여기까지의 end-to-end 지연을 기록한다.
+ *
+ * 채팅방 topic(/topic/{roomId})으로 나가는 메시지는 HotRoomTracker에 전달 수/바이트로 기록한다.
+ * 샘플링된 메시지(TRACE_ID_HEADER)는 구독자 세션마다 stomp.outbound span을 남긴다.
+ *
+ * beforeHandle / afterMessageHandled는 같은 실행 스레드에서 호출되므로 시작 시각을 ThreadLocal에 둔다.
+ */
+@Component
+public class OutboundMetricsInterceptor implements ExecutorChannelInterceptor {
+
+    private static final String TOPIC_PREFIX = "/topic/";
+
+    private final ChatMetrics chatMetrics;
+
+    private final HotRoomTracker hotRoomTracker;
+
+    private final MessageTracer messageTracer;
+
+    private final ThreadLocal<Long> startedAt = new ThreadLocal<>();
+
+    public OutboundMetricsInterceptor(ChatMetrics chatMetrics, HotRoomTracker hotRoomTracker, MessageTracer messageTracer) {
+        this.chatMetrics = chatMetrics;
+        this.hotRoomTracker = hotRoomTracker;
+        this.messageTracer = messageTracer;
+    }
+
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) == SimpMessageType.MESSAGE) {
+            startedAt.set(System.nanoTime());
+        }
+        return message;
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        Long start = startedAt.get();
+        if (start == null) {
+            return;
+        }
+        startedAt.remove();
+        chatMetrics.recordOutbound(start, message.getHeaders().get(ChatMetrics.SENT_AT_HEADER, Long.class));
+
+        Long roomId = chatTopicRoomId(SimpMessageHeaderAccessor.getDestination(message.getHeaders()));
+        if (roomId != null && message.getPayload() instanceof byte[] payload) {
+            hotRoomTracker.recordDelivery(roomId, payload.length);
+        }
+        messageTracer.span(message.getHeaders().get(MessageTracer.TRACE_ID_HEADER, String.class), "stomp.outbound", roomId, start);
+    }
+
+    // /topic/{roomId} 이면 roomId, 아니면(/topic/{roomId}/presence, /user/... 등) null (정규식 없이 숫자만 확인)
+    private static Long chatTopicRoomId(String destination) {
+        if (destination == null || !destination.startsWith(TOPIC_PREFIX) || destination.length() == TOPIC_PREFIX.length()
+                || destination.length() - TOPIC_PREFIX.length() > 18) {
+            return null;
+        }
+        long roomId = 0L;
+        for (int i = TOPIC_PREFIX.length(); i < destination.length(); i++) {
+            char c = destination.charAt(i);
+            if (c < '0' || c > '9') {
+                return null;
+            }
+            roomId = roomId * 10 + (c - '0');
+        }
+        return roomId;
+    }
+}
@@ -1,37 +1,59 @@
 package com.example.chatserver.chat.config;
 
-import lombok.extern.java.Log;
-import lombok.extern.log4j.Log4j;
+import com.example.chatserver.chat.service.PresenceService;
+import com.example.chatserver.common.ratelimit.SendRateLimiter;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.context.event.EventListener;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
 import org.springframework.web.socket.messaging.SessionConnectEvent;
-import org.springframework.web.socket.messaging.SessionConnectedEvent;
 import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
 
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Map;
 
 //스프링과 stomp는 기본적으로 세션관리를 자동(내부적)으로 처리
-//연결/해제 이벤트를 기록, 연결된 세션수를 실시간으로 확인할 목적으로 이벤트 리스너를 생성 => 로그, 디버깅 목적
+//연결/구독/해제 이벤트를 받아 PresenceService에 전달하여 클러스터 전체의 접속 상태를 관리
+//(이벤트는 StompHandler 검증을 통과한 프레임에 대해서만 발생)
+@Component
 @Log4j2
 public class StompEventListner {
 
-    private final Set<String> sessions = ConcurrentHashMap.newKeySet();
+    private final PresenceService presenceService;
+
+    private final SendRateLimiter sendRateLimiter;
+
+    public StompEventListner(PresenceService presenceService, SendRateLimiter sendRateLimiter) {
+        this.presenceService = presenceService;
+        this.sendRateLimiter = sendRateLimiter;
+    }
 
     @EventListener
     public void connectHandle(SessionConnectEvent event) {
         StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
-        sessions.add(accessor.getSessionId());
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        String email = attributes == null ? null : (String) attributes.get(PresenceService.EMAIL_ATTRIBUTE);
+        presenceService.connected(accessor.getSessionId(), email);
         log.info("Connected sessiond ID :  " + accessor.getSessionId());
-        log.info("Connected sessiond count :  " + sessions.size());
     }
 
     @EventListener
-    public void disconnectHandle(SessionDisconnectEvent event) {
+    public void subscribeHandle(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        presenceService.subscribed(accessor.getSessionId(), accessor.getSubscriptionId(), accessor.getDestination());
+    }
+
+    @EventListener
+    public void unsubscribeHandle(SessionUnsubscribeEvent event) {
         StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
-        sessions.remove(accessor.getSessionId());
-        log.info("disconnected sessiond ID :  " + accessor.getSessionId());
-        log.info("disconnected sessiond count :  " + sessions.size());
+        presenceService.unsubscribed(accessor.getSessionId(), accessor.getSubscriptionId());
+    }
+
+    @EventListener
+    public void disconnectHandle(SessionDisconnectEvent event) {
+        presenceService.disconnected(event.getSessionId());
+        sendRateLimiter.release(event.getSessionId());
+        log.info("disconnected sessiond ID :  " + event.getSessionId());
     }
 }
@@ -1,12 +1,17 @@
 package com.example.chatserver.chat.config;
 
+import com.example.chatserver.chat.codec.ChatMessageCodec;
 import com.example.chatserver.chat.service.ChatService;
+import com.example.chatserver.chat.service.PresenceService;
+import com.example.chatserver.common.metrics.ChatMetrics;
+import com.example.chatserver.common.ratelimit.SendRateLimiter;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
 import org.springframework.messaging.simp.stomp.StompCommand;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.messaging.support.ChannelInterceptor;
@@ -35,12 +40,21 @@ public class StompHandler implements ChannelInterceptor {
 
     private final ChatService chatService;
 
+    private final ChatMessageCodec chatMessageCodec;
+
+    private final SendRateLimiter sendRateLimiter;
+
+    private final ChatMetrics chatMetrics;
+
     /**
      * ChatService를 주입받음.
      * → 사용자가 특정 채팅방에 속해 있는지 확인하는 로직에 활용.
      */
-    public StompHandler(ChatService chatService) {
+    public StompHandler(ChatService chatService, ChatMessageCodec chatMessageCodec, SendRateLimiter sendRateLimiter, ChatMetrics chatMetrics) {
         this.chatService = chatService;
+        this.chatMessageCodec = chatMessageCodec;
+        this.sendRateLimiter = sendRateLimiter;
+        this.chatMetrics = chatMetrics;
     }
 
     /**
@@ -59,6 +73,19 @@ public class StompHandler implements ChannelInterceptor {
         // STOMP 메시지 헤더에 접근하기 위한 래퍼 객체 생성
         final StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
 
+        // 명령별 인터셉터 처리 시간 (chat.stomp.inbound{command}), 거부된 요청도 포함
+        long startedAt = System.nanoTime();
+        try {
+            return verify(message, accessor);
+        } finally {
+            if (accessor.getCommand() != null) {
+                chatMetrics.recordInbound(accessor.getCommand().name(), startedAt);
+            }
+        }
+    }
+
+    private Message<?> verify(Message<?> message, StompHeaderAccessor accessor) {
+
         /**
          * STOMP 명령어 종류 (accessor.getCommand()):
          * - CONNECT: 클라이언트가 최초로 WebSocket 연결을 시도할 때
@@ -90,6 +117,23 @@ public class StompHandler implements ChannelInterceptor {
             String email = claims.getSubject();
 
             log.info("[CONNECT] JWT 검증 완료 - 사용자: {}", email);
+
+            // 접속 상태(presence) 관리를 위해 검증된 이메일을 세션 속성에 저장
+            if (accessor.getSessionAttributes() != null) {
+                accessor.getSessionAttributes().put(PresenceService.EMAIL_ATTRIBUTE, email);
+            }
+
+            // CONNECT의 content-type이 application/cbor 이면 이 연결의 채팅 메시지를 CBOR로 주고받음
+            // (SockJS는 텍스트 프레임만 가능하므로 JSON 유지)
+            if (accessor.getContentType() != null
+                    && ChatMessageCodec.APPLICATION_CBOR.equalsTypeAndSubtype(accessor.getContentType())) {
+                Object binaryTransport = accessor.getSessionAttributes() == null ? null
+                        : accessor.getSessionAttributes().get(ChatMessageCodec.BINARY_TRANSPORT_ATTRIBUTE);
+                if (Boolean.TRUE.equals(binaryTransport)) {
+                    chatMessageCodec.useCbor(accessor.getSessionId());
+                    log.info("[CONNECT] CBOR 인코딩 사용 - 사용자: {}", email);
+                }
+            }
         }
 
         /**
@@ -119,22 +163,58 @@ public class StompHandler implements ChannelInterceptor {
             // JWT 안의 subject 값(사용자 이메일)
             String email = claims.getSubject();
 
-            // 구독 대상 채팅방 ID 추출
-            // 예: /sub/chat/3 → split("/")[2] = "3"
             String destination = accessor.getDestination();
-            String roomId = destination.split("/")[2];
-
-            log.info("[SUBSCRIBE] 사용자: {} → 채팅방: {}", email, roomId);
-
-            // 해당 사용자가 실제로 이 채팅방의 참가자인지 확인
-            if (!chatService.isRoomPaticipant(email, Long.parseLong(roomId))) {
-                throw new AuthenticationServiceException("해당 채팅방에 접근 권한이 없습니다.");
+            if (destination != null && destination.startsWith("/user/")) {
+                // 본인 세션 전용 큐(/user/queue/ack 등)는 다른 사람의 메시지가 오지 않으므로 채팅방 권한 검증 대상이 아님
+                log.info("[SUBSCRIBE] 개인 큐 구독 - 사용자: {} → {}", email, destination);
+            } else {
+                // 구독 대상 채팅방 ID 추출
+                // 예: /sub/chat/3 → split("/")[2] = "3"
+                String roomId = destination.split("/")[2];
+
+                log.info("[SUBSCRIBE] 사용자: {} → 채팅방: {}", email, roomId);
+
+                // 해당 사용자가 실제로 이 채팅방의 참가자인지 확인
+                if (!chatService.isRoomPaticipant(email, Long.parseLong(roomId))) {
+                    throw new AuthenticationServiceException("해당 채팅방에 접근 권한이 없습니다.");
+                }
+
+                log.info("[SUBSCRIBE] 구독 권한 검증 완료 - 사용자: {} (roomId: {})", email, roomId);
             }
+        }
 
-            log.info("[SUBSCRIBE] 구독 권한 검증 완료 - 사용자: {} (roomId: {})", email, roomId);
+        /**
+         * 클라이언트가 메시지를 보낼 때 실행됨. (예: /publish/3, /publish/3/ephemeral)
+         * 메시지마다 DB 저장 + Redis 발행이 일어나므로 세션/회원/채팅방 단위로 전송 수를 제한한다.
+         * 제한에 걸리면 예외를 던져 클라이언트에게 STOMP ERROR 프레임으로 응답한다.
+         */
+        if (StompCommand.SEND.equals(accessor.getCommand())) {
+            String email = accessor.getSessionAttributes() == null ? null
+                    : (String) accessor.getSessionAttributes().get(PresenceService.EMAIL_ATTRIBUTE);
+            String rejectedBy = sendRateLimiter.check(accessor.getSessionId(), email, publishRoomId(accessor.getDestination()));
+            if (rejectedBy != null) {
+                log.warn("[SEND] 전송 제한 초과({}) - 사용자: {}, destination: {}", rejectedBy, email, accessor.getDestination());
+                throw new MessageDeliveryException(message, "rate limit exceeded: " + rejectedBy);
+            }
         }
 
         // 검증 완료 후 메시지를 그대로 다음 단계(Broker)로 전달
         return message;
     }
+
+    // /publish/{roomId}[/...] 에서 roomId 추출 (형식이 다르면 null)
+    private static Long publishRoomId(String destination) {
+        if (destination == null) {
+            return null;
+        }
+        String[] parts = destination.split("/");
+        if (parts.length < 3) {
+            return null;
+        }
+        try {
+            return Long.parseLong(parts[2]);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
 }
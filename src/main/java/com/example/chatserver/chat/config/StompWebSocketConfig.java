@@ -1,11 +1,19 @@
 package com.example.chatserver.chat.config;
 
+import com.example.chatserver.chat.codec.CborOutboundInterceptor;
+import com.example.chatserver.chat.codec.ChatMessageCborConverter;
+import com.example.chatserver.chat.codec.ChatMessageCodec;
+import com.example.chatserver.chat.codec.TransportDetectingHandlerDecorator;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.converter.MessageConverter;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+import java.util.List;
 
 @Configuration
 @EnableWebSocketMessageBroker
@@ -13,17 +21,38 @@ public class StompWebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final StompHandler stompHandler;
 
-    public StompWebSocketConfig(StompHandler stompHandler) {
+    private final ChatMessageCodec chatMessageCodec;
+
+    private final CborOutboundInterceptor cborOutboundInterceptor;
+
+    private final DeflateNegotiatingHandshakeHandler deflateNegotiatingHandshakeHandler;
+
+    private final OutboundMetricsInterceptor outboundMetricsInterceptor;
+
+    public StompWebSocketConfig(StompHandler stompHandler, ChatMessageCodec chatMessageCodec, CborOutboundInterceptor cborOutboundInterceptor,
+                                DeflateNegotiatingHandshakeHandler deflateNegotiatingHandshakeHandler, OutboundMetricsInterceptor outboundMetricsInterceptor) {
         this.stompHandler = stompHandler;
+        this.chatMessageCodec = chatMessageCodec;
+        this.cborOutboundInterceptor = cborOutboundInterceptor;
+        this.deflateNegotiatingHandshakeHandler = deflateNegotiatingHandshakeHandler;
+        this.outboundMetricsInterceptor = outboundMetricsInterceptor;
     }
 
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/connect")
                 .setAllowedOrigins("http://localhost:3000")
+                //WebSocket permessage-deflate 압축 협상 (SockJS의 HTTP 전송은 server.compression 설정으로 gzip)
+                .setHandshakeHandler(deflateNegotiatingHandshakeHandler)
                 //ws://가 아닌 http:// 엔드포인트를 사용할 수 있게 해주는 sockJs 라이브러리를 통한 요청을 허용하는 설정
                 .withSockJS();
-                
+
+        //SockJS 프레이밍(JSON 배열 감싸기, 이스케이프) 없이 STOMP 프레임을 그대로 주고받는 네이티브 WebSocket 엔드포인트
+        //WebSocket을 지원하는 클라이언트는 ws://.../ws 로 바로 연결하고, 구형 브라우저는 /connect(SockJS)로 대체
+        //바이너리 프레임을 쓸 수 있으므로 CBOR 협상도 이 엔드포인트에서 가능
+        registry.addEndpoint("/ws")
+                .setAllowedOrigins("http://localhost:3000")
+                .setHandshakeHandler(deflateNegotiatingHandshakeHandler);
     }
 
     @Override
@@ -34,7 +63,8 @@ public class StompWebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.setApplicationDestinationPrefixes("/publish");
         
         // /topic/1 형태로 메시지를 수신(subscribe)해야 함을 설정
-        registry.enableSimpleBroker("/topic");
+        // /queue는 세션 한 곳에만 보내는 메시지(전송 확인 등)용: 클라이언트는 /user/queue/ack 를 구독
+        registry.enableSimpleBroker("/topic", "/queue");
     }
 
     //웹소켓 요청(connect, subscribe, disconnect)등의 요청시에는 http header등 http 메시지를 넣어올 수 있고
@@ -43,4 +73,24 @@ public class StompWebSocketConfig implements WebSocketMessageBrokerConfigurer {
     public void configureClientInboundChannel(ChannelRegistration registration) {
         registration.interceptors(stompHandler);
     }
+
+    //CONNECT에서 CBOR를 협상한 세션에는 채팅 메시지를 CBOR로 변환해서 내보냄
+    //세션에 쓰는 시간과 end-to-end 지연 기록
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.interceptors(cborOutboundInterceptor, outboundMetricsInterceptor);
+    }
+
+    //content-type: application/cbor 인 SEND 프레임 변환기 추가 (false가 아닌 true를 반환하여 기본 JSON 컨버터도 유지)
+    @Override
+    public boolean configureMessageConverters(List<MessageConverter> messageConverters) {
+        messageConverters.add(new ChatMessageCborConverter(chatMessageCodec));
+        return true;
+    }
+
+    //SockJS 연결인지(바이너리 프레임 불가) 세션 속성에 기록
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registry) {
+        registry.addDecoratorFactory(handler -> new TransportDetectingHandlerDecorator(handler, chatMessageCodec));
+    }
 }
@@ -0,0 +1,53 @@
+package com.example.chatserver.chat.controller;
+
+import com.example.chatserver.chat.dto.HotRoomDto;
+import com.example.chatserver.chat.search.MessageSearchIndex;
+import com.example.chatserver.chat.service.HotRoomTracker;
+import com.example.chatserver.chat.service.PresenceService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+// 운영용 API (Securityconfigs에서 /admin/** 는 ADMIN 권한만 허용)
+@RestController
+@RequestMapping("/admin")
+public class ChatAdminController {
+
+    private final MessageSearchIndex messageSearchIndex;
+
+    private final HotRoomTracker hotRoomTracker;
+
+    private final PresenceService presenceService;
+
+    public ChatAdminController(MessageSearchIndex messageSearchIndex, HotRoomTracker hotRoomTracker, PresenceService presenceService) {
+        this.messageSearchIndex = messageSearchIndex;
+        this.hotRoomTracker = hotRoomTracker;
+        this.presenceService = presenceService;
+    }
+
+    //이 서버의 메시지 검색 인덱스를 DB에서 다시 생성 (백그라운드 실행, 이미 진행중이면 409)
+    //인덱스는 서버마다 따로 있으므로 서버별로 호출해야 함
+    @PostMapping("/search/rebuild")
+    public ResponseEntity<?> rebuildSearchIndex(){
+        if(!messageSearchIndex.rebuild()){
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        }
+        return new ResponseEntity<>(HttpStatus.ACCEPTED);
+    }
+
+    //지금 메시지가 가장 많은 채팅방 (최근 슬라이딩 윈도우 기준, 초당 메시지/전달/바이트 + 접속자 수)
+    //메시지 수는 클러스터 전체, 전달/바이트는 이 서버 기준
+    @GetMapping("/rooms/hot")
+    public ResponseEntity<?> getHotRooms(){
+        List<HotRoomDto> hotRooms = hotRoomTracker.getHotRooms();
+        for(HotRoomDto hotRoom : hotRooms){
+            hotRoom.setSubscribers(presenceService.getOnlineCount(hotRoom.getRoomId()));
+        }
+        return new ResponseEntity<>(hotRooms, HttpStatus.OK);
+    }
+}
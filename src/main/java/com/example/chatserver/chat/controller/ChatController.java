@@ -3,10 +3,22 @@ package com.example.chatserver.chat.controller;
 import com.example.chatserver.chat.dto.ChatMessageDto;
 import com.example.chatserver.chat.dto.ChatRoomListResDto;
 import com.example.chatserver.chat.dto.MyChatListResDto;
+import com.example.chatserver.chat.dto.SyncResDto;
 import com.example.chatserver.chat.service.ChatService;
+import com.example.chatserver.chat.service.HistoryExportService;
+import com.example.chatserver.chat.service.PresenceService;
+import com.example.chatserver.common.configs.WebMvcConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -16,9 +28,19 @@ public class ChatController {
 
     private final ChatService chatService;
 
+    private final PresenceService presenceService;
 
-    public ChatController(ChatService chatService) {
+    private final HistoryExportService historyExportService;
+
+    // 이력 내보내기 한 건의 비동기 제한 시간 (다른 비동기 요청은 기본값 사용)
+    private final long exportTimeoutMillis;
+
+    public ChatController(ChatService chatService, PresenceService presenceService, HistoryExportService historyExportService,
+                          @Value("${chat.history-export.timeout-ms:1800000}") long exportTimeoutMillis) {
         this.chatService = chatService;
+        this.presenceService = presenceService;
+        this.historyExportService = historyExportService;
+        this.exportTimeoutMillis = exportTimeoutMillis;
     }
 
     @PostMapping("/room/group/create")
@@ -27,12 +49,24 @@ public class ChatController {
         return ResponseEntity.ok().build();
     }
 
-    //그룹 채팅 목록 조회
+    //그룹 채팅 목록 조회 (roomId 커서 페이지네이션 + 이름 접두어 검색)
+    //목록 버전이 If-None-Match와 같으면 DB 조회 없이 304 응답
     @GetMapping("/room/group/list")
-    public ResponseEntity<?> getGroupChatRooms(){
-
-        List<ChatRoomListResDto> chatRooms =  chatService.getGroupchatRooms();
-
+    public ResponseEntity<?> getGroupChatRooms(@RequestParam(required = false) Long cursor,
+                                               @RequestParam(defaultValue = "50") int size,
+                                               @RequestParam(required = false) String prefix,
+                                               WebRequest webRequest){
+        String eTag = chatService.getGroupRoomDirectoryETag();
+        if(eTag != null && webRequest.checkNotModified(eTag)){
+            return null;
+        }
+
+        //ETag를 붙이는 응답은 버전을 읽은 뒤 primary에서 조회 (replica의 이전 목록이 새 ETag로 캐싱되지 않도록)
+        List<ChatRoomListResDto> chatRooms = eTag != null
+                ? chatService.getGroupchatRoomsFromPrimary(cursor, size, prefix)
+                : chatService.getGroupchatRooms(cursor, size, prefix);
+
+        //ETag 헤더는 checkNotModified가 응답에 이미 설정함
         return new ResponseEntity<>(chatRooms, HttpStatus.OK);
     }
 
@@ -43,13 +77,41 @@ public class ChatController {
         return ResponseEntity.ok().build();
     }
 
-    //이전 메시지 조회
+    //이전 메시지 조회 (messageId 커서 페이지네이션: 다음 페이지는 받은 첫 메시지의 messageId를 cursor로)
     @GetMapping("/history/{roomId}")
-    public ResponseEntity<?> getChatHistory(@PathVariable Long roomId) {
-        List<ChatMessageDto> chatMessageDtos = chatService.getChatHistory(roomId);
+    public ResponseEntity<?> getChatHistory(@PathVariable Long roomId,
+                                            @RequestParam(required = false) Long cursor,
+                                            @RequestParam(defaultValue = "50") int size) {
+        List<ChatMessageDto> chatMessageDtos = chatService.getChatHistory(roomId, cursor, size);
         return new ResponseEntity<>(chatMessageDtos, HttpStatus.OK);
     }
 
+    //채팅방 전체 이력 내보내기 (NDJSON: 한 줄에 메시지 하나, gzip=true면 .ndjson.gz 파일)
+    //권한은 여기서 먼저 확인하고, 본문은 별도 스레드에서 DB 커서로 읽으면서 바로 응답에 씀
+    //큰 채팅방도 끝까지 보낼 수 있도록 이 요청에만 긴 비동기 제한 시간 적용
+    @GetMapping("/history/{roomId}/export")
+    public ResponseEntity<StreamingResponseBody> exportChatHistory(@PathVariable Long roomId,
+                                                                   @RequestParam(defaultValue = "false") boolean gzip,
+                                                                   WebRequest webRequest) {
+        chatService.checkHistoryAccess(roomId);
+        webRequest.setAttribute(WebMvcConfig.ASYNC_TIMEOUT_ATTRIBUTE, exportTimeoutMillis, RequestAttributes.SCOPE_REQUEST);
+        StreamingResponseBody body = outputStream -> historyExportService.export(roomId, outputStream, gzip);
+        String fileName = "room-" + roomId + (gzip ? ".ndjson.gz" : ".ndjson");
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
+    }
+
+    //채팅방 접속자 수 (클러스터 전체 기준)
+    @GetMapping("/room/{roomId}/presence")
+    public ResponseEntity<?> getRoomPresence(@PathVariable Long roomId){
+        if(!chatService.isRoomPaticipant(SecurityContextHolder.getContext().getAuthentication().getName(), roomId)){
+            throw new IllegalArgumentException("본인이 속하지 않은 채팅방입니다.");
+        }
+        return new ResponseEntity<>(presenceService.getOnlineCount(roomId), HttpStatus.OK);
+    }
+
     //채팅메시지 읽음 처리
     @PostMapping("/room/{roomId}/read")
     public ResponseEntity<?> messageRead(@PathVariable Long roomId){
@@ -64,6 +126,24 @@ public class ChatController {
         return new ResponseEntity<>(myChatListResDtos, HttpStatus.OK);
     }
 
+    //메시지 본문 검색 (참여중인 채팅방만, 최신순 + messageId 커서 페이지네이션)
+    @GetMapping("/search")
+    public ResponseEntity<?> searchMessages(@RequestParam("q") String query,
+                                            @RequestParam(required = false) Long roomId,
+                                            @RequestParam(required = false) String senderEmail,
+                                            @RequestParam(required = false) Long cursor,
+                                            @RequestParam(defaultValue = "30") int size){
+        List<ChatMessageDto> chatMessageDtos = chatService.searchMessages(query, roomId, senderEmail, cursor, size);
+        return new ResponseEntity<>(chatMessageDtos, HttpStatus.OK);
+    }
+
+    //앱 재시작시 델타 동기화: since(이전 응답의 watermark) 이후 바뀐 채팅방과 새 메시지만 조회
+    @GetMapping("/sync")
+    public ResponseEntity<?> sync(@RequestParam(required = false) Long since){
+        SyncResDto syncResDto = chatService.sync(since);
+        return new ResponseEntity<>(syncResDto, HttpStatus.OK);
+    }
+
     //채팅방 나가기
     @DeleteMapping("/room/group/{roomId}/leave")
     public ResponseEntity<?> leaveGroupChatRoom(@PathVariable Long roomId){
@@ -1,14 +1,21 @@
 package com.example.chatserver.chat.controller;
 
 import com.example.chatserver.chat.dto.ChatMessageDto;
+import com.example.chatserver.chat.dto.EphemeralEventDto;
+import com.example.chatserver.chat.dto.MessageAckDto;
 import com.example.chatserver.chat.service.ChatService;
+import com.example.chatserver.chat.service.EphemeralEventService;
+import com.example.chatserver.chat.service.MessageDeduplicator;
+import com.example.chatserver.chat.service.PresenceService;
 import com.example.chatserver.chat.service.RedisPubSubService;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.chatserver.common.metrics.ChatMetrics;
+import com.example.chatserver.common.tracing.MessageTracer;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.stereotype.Controller;
 
 @Controller
@@ -21,10 +28,30 @@ public class StompController {
 
     private final RedisPubSubService pubSubService;
 
-    public StompController(SimpMessageSendingOperations messageTemplate, ChatService chatService, RedisPubSubService pubSubService) {
+    private final EphemeralEventService ephemeralEventService;
+
+    private final PresenceService presenceService;
+
+    private final MessageDeduplicator messageDeduplicator;
+
+    private final ChatMetrics chatMetrics;
+
+    private final MessageTracer messageTracer;
+
+    // clientMessageId 최대 길이 (Redis 키/블룸 필터에 들어가므로 제한)
+    private static final int MAX_CLIENT_MESSAGE_ID_LENGTH = 64;
+
+    public StompController(SimpMessageSendingOperations messageTemplate, ChatService chatService, RedisPubSubService pubSubService,
+                           EphemeralEventService ephemeralEventService, PresenceService presenceService, MessageDeduplicator messageDeduplicator,
+                           ChatMetrics chatMetrics, MessageTracer messageTracer) {
         this.messageTemplate = messageTemplate;
         this.chatService = chatService;
         this.pubSubService = pubSubService;
+        this.ephemeralEventService = ephemeralEventService;
+        this.presenceService = presenceService;
+        this.messageDeduplicator = messageDeduplicator;
+        this.chatMetrics = chatMetrics;
+        this.messageTracer = messageTracer;
     }
 
 //방법 1. MessageMapping(수신)과 sendTo(topic에 메시지 전달) 한꺼번에 처리
@@ -38,14 +65,84 @@ public class StompController {
 
     // 방법 2. MessageMapping 어노테이션만 활용
     @MessageMapping("/{roomId}")
-    public void sendMessage(@DestinationVariable Long roomId, ChatMessageDto chatMessageReqDto) throws JsonProcessingException {
+    public void sendMessage(@DestinationVariable Long roomId, ChatMessageDto chatMessageReqDto, SimpMessageHeaderAccessor headerAccessor) {
+        long receivedAt = System.nanoTime();
         log.info("Received message: " + chatMessageReqDto.getMessage());
-        chatService.saveMessage(roomId, chatMessageReqDto);
+        //클라이언트 시계와 차이가 없도록 서버 수신 시각으로 덮어씀
+        chatMessageReqDto.setSentAt(System.currentTimeMillis());
+        //샘플링된 메시지에만 trace id를 붙임 (클라이언트가 보낸 값은 무시)
+        String traceId = messageTracer.startTrace();
+        chatMessageReqDto.setTraceId(traceId);
+        //보낸 사람은 CONNECT에서 검증한 세션의 이메일 (메시지의 senderId/senderEmail은 저장하면서 덮어씀)
+        String email = sessionEmail(headerAccessor);
+        if (email == null) {
+            throw new IllegalArgumentException("인증되지 않은 세션입니다.");
+        }
+        String clientMessageId = chatMessageReqDto.getClientMessageId();
+        String dedupOwner = null;
+        if (clientMessageId != null) {
+            if (clientMessageId.length() > MAX_CLIENT_MESSAGE_ID_LENGTH) {
+                throw new IllegalArgumentException("clientMessageId가 너무 깁니다.");
+            }
+            //재전송/재시도로 이미 처리된 메시지면 저장, 전파 없이 확인만 보냄
+            dedupOwner = email;
+            if (!messageDeduplicator.claim(dedupOwner, clientMessageId)) {
+                sendAck(headerAccessor.getSessionId(), roomId, clientMessageId, true);
+                return;
+            }
+        }
+        long saveStartedAt = System.nanoTime();
+        try {
+            //저장하면서 senderId/senderEmail을 모두 채움 (CBOR 클라이언트는 senderId만 보냄)
+            //트랜잭션 커밋까지 포함한 시간을 기록
+            chatService.saveMessage(roomId, email, chatMessageReqDto);
+            chatMetrics.recordSave(saveStartedAt);
+            messageTracer.span(traceId, "message.save", roomId, saveStartedAt);
+        } catch (RuntimeException e) {
+            //저장에 실패한 메시지는 클라이언트가 다시 보낼 수 있도록 선점 해제
+            if (dedupOwner != null) {
+                messageDeduplicator.release(dedupOwner, clientMessageId);
+            }
+            throw e;
+        }
+        if (dedupOwner != null) {
+            messageDeduplicator.confirm(dedupOwner, clientMessageId);
+        }
         chatMessageReqDto.setRoomId(roomId);
        // messageTemplate.convertAndSend("/topic/" + roomId, chatMessageReqDto);
-        ObjectMapper objectMapper = new ObjectMapper();
-        String message = objectMapper.writeValueAsString(chatMessageReqDto);
-        pubSubService.publish("chat", message);
+        pubSubService.publish("chat", chatMessageReqDto);
+        if (clientMessageId != null) {
+            sendAck(headerAccessor.getSessionId(), roomId, clientMessageId, false);
+        }
+        messageTracer.rootSpan(traceId, "chat.send", roomId, receivedAt);
     }
 
+    // 입력 중 표시 등 저장하지 않는 일회성 이벤트 (/publish/{roomId}/ephemeral → /topic/{roomId}/ephemeral)
+    // DB를 거치지 않도록 참여자 검증 대신 이 세션이 해당 채팅방을 구독 중인지(구독시 검증됨)로 확인
+    @MessageMapping("/{roomId}/ephemeral")
+    public void sendEphemeral(@DestinationVariable Long roomId, EphemeralEventDto ephemeralEventDto, SimpMessageHeaderAccessor headerAccessor) {
+        if (!presenceService.isSubscribed(headerAccessor.getSessionId(), roomId)) {
+            throw new IllegalArgumentException("구독하지 않은 채팅방입니다.");
+        }
+        ephemeralEventService.send(roomId, sessionEmail(headerAccessor), ephemeralEventDto.getType());
+    }
+
+
+    // 보낸 세션에만 전송 확인 (/user/queue/ack): 사용자 이름 자리에 세션 id를 넣고 헤더에 같은 세션 id를 지정
+    private void sendAck(String sessionId, Long roomId, String clientMessageId, boolean duplicate) {
+        SimpMessageHeaderAccessor ackHeaders = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        ackHeaders.setSessionId(sessionId);
+        ackHeaders.setLeaveMutable(true);
+        MessageAckDto ack = MessageAckDto.builder()
+                .roomId(roomId)
+                .clientMessageId(clientMessageId)
+                .duplicate(duplicate)
+                .build();
+        messageTemplate.convertAndSendToUser(sessionId, "/queue/ack", ack, ackHeaders.getMessageHeaders());
+    }
+
+    private static String sessionEmail(SimpMessageHeaderAccessor headerAccessor) {
+        return headerAccessor.getSessionAttributes() == null ? null
+                : (String) headerAccessor.getSessionAttributes().get(PresenceService.EMAIL_ATTRIBUTE);
+    }
 }
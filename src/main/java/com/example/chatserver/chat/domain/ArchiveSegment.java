@@ -0,0 +1,46 @@
+package com.example.chatserver.chat.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 아카이브 세그먼트: 한 채팅방의 한 달치 메시지 page-size 건을 압축한 묶음 (형식은 MessageSegmentStore 참고)
+ * - 모든 서버가 같은 DB에서 읽으므로 어느 서버로 요청이 가도 아카이브된 메시지가 보인다.
+ * - (room_id, first_id) 순서로 이력 페이지를 찾아가므로 unique 인덱스로 둔다.
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_archive_segment_room_first_id", columnNames = {"room_id", "first_id"}))
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Getter
+public class ArchiveSegment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "room_id", nullable = false)
+    private Long roomId;
+
+    // yyyyMM
+    @Column(name = "archive_month", nullable = false)
+    private Integer archiveMonth;
+
+    @Column(name = "first_id", nullable = false)
+    private Long firstId;
+
+    @Column(name = "last_id", nullable = false)
+    private Long lastId;
+
+    @Column(nullable = false)
+    private Integer rowCount;
+
+    // gzip 컬럼 형식 (MySQL MEDIUMBLOB, 최대 16MB)
+    @Lob
+    @Column(nullable = false, length = 16_777_215)
+    private byte[] data;
+}
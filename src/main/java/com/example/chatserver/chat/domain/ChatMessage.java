@@ -12,6 +12,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+// 이력 조회(채팅방별 시간순)와 월 단위 아카이브 조회에 사용
+@Table(indexes = @Index(name = "idx_chat_message_room_created", columnList = "chat_room_id, created_time"))
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
@@ -6,11 +6,18 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_chat_room_private_pair_key", columnNames = "private_pair_key"),
+        indexes = @Index(name = "idx_chat_room_name", columnList = "name"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
@@ -26,13 +33,42 @@ public class ChatRoom extends BaseTimeEntity {
     @Builder.Default
     private String isGroupChat="N";
 
+    /**
+     * 삭제 표시 ("Y"/"N")
+     * - 마지막 참가자가 나가면 즉시 "Y"로 표시만 하고,
+     *   메시지/읽음상태의 실제 삭제는 RoomPurgeService가 백그라운드에서 배치로 처리한다.
+     */
+    @Builder.Default
+    @ColumnDefault("'N'")
+    @Column(nullable = false, length = 1)
+    private String isDeleted="N";
+
+    /**
+     * 1:1 채팅방의 두 참가자 키: "{작은 memberId}:{큰 memberId}"
+     * - unique 인덱스로 같은 두 사람의 1:1 채팅방이 중복 생성되지 않도록 보장
+     * - 그룹 채팅방은 null
+     */
+    @Column(name = "private_pair_key", length = 41)
+    private String privatePairKey;
+
+    /**
+     * 참가자 수
+     * - 채팅방 목록에서 참가자 테이블 join/count 없이 보여주기 위해 참여/나가기 시점에 증감
+     */
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long participantCount=0L;
+
     /**
      * 채팅방에 속한 참가자 목록 (1:N)
      * - ChatParticipant 엔티티의 chatRoom 필드에 의해 매핑됨
      * - 채팅방 삭제 시 관련 참가자도 자동 삭제 (CascadeType.REMOVE)
      * - orphanRemoval을 안하는 이유는 ChatParticipant를 참조하고 있는 곳이 없어서
      * mappedBy = "chatRoom" => private ChatRoom chatRoom;
+     * - 참가자 목록은 자주 바뀌지 않으므로 컬렉션 단위로 2차 캐시에 저장
      */
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @OneToMany(mappedBy = "chatRoom", cascade = CascadeType.REMOVE)
     private List<ChatParticipant> chatParticipants = new ArrayList<>();
 
@@ -42,7 +78,17 @@ public class ChatRoom extends BaseTimeEntity {
      * - orphanRemoval = true → 메시지 목록에서 제거된 엔티티는 DB에서도 삭제됨
      * - orphanRemoval을 넣으면 ReadStatus 도 같이 매핑되어있어서 삭제됨
      * - 채팅방 삭제 시 메시지도 함께 삭제됨
+     * - 단, 큰 채팅방을 엔티티 단위로 지우면 전부 메모리에 올라가므로
+     *   실제 삭제는 RoomPurgeService의 벌크 삭제(id 범위 배치)로 처리한다.
      */
     @OneToMany(mappedBy = "chatRoom", cascade = CascadeType.REMOVE, orphanRemoval = true)
     private List<ChatMessage> chatMessages = new ArrayList<>();
+
+    public void assignPrivatePairKey(String privatePairKey){
+        this.privatePairKey = privatePairKey; // JPA 변경 감지 대상
+    }
+
+    public void markDeleted(){
+        this.isDeleted = "Y"; // JPA 변경 감지 대상
+    }
 }
@@ -13,4 +13,22 @@ public class ChatMessageDto {
     private Long roomId;
     private String message;
     private String senderEmail;
+    private Long senderId;
+    // 클라이언트가 붙이는 메시지 id (선택). 재전송/재시도시 같은 값을 보내면 한번만 저장됨
+    private String clientMessageId;
+    // 저장소가 부여한 메시지 id (sync 응답에서 겹치는 구간의 중복 제거용)
+    private Long messageId;
+    // 서버가 SEND 프레임을 받은 시각(ms). 구독자에게 쓰는 시점에 end-to-end 지연 지표 계산에 사용
+    private Long sentAt;
+    // 샘플링된 메시지의 trace id (MessageTracer). 서버가 정하며 샘플링되지 않은 메시지는 null
+    private String traceId;
+
+    // 이력/sync 조회 JPQL 생성자 프로젝션용
+    public ChatMessageDto(Long roomId, String message, String senderEmail, Long senderId, Long messageId) {
+        this.roomId = roomId;
+        this.message = message;
+        this.senderEmail = senderEmail;
+        this.senderId = senderId;
+        this.messageId = messageId;
+    }
 }
@@ -13,5 +13,6 @@ public class ChatRoomListResDto {
 
     private Long roomId;
     private String roomName;
+    private Long participantCount;
 
 }
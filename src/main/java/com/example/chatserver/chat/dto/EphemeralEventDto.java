@@ -0,0 +1,21 @@
+package com.example.chatserver.chat.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EphemeralEventDto {
+
+    private Long roomId;
+    // 이벤트 종류 (typing, stop-typing 등)
+    private String type;
+    private String senderEmail;
+    // 이 시각(ms)이 지나면 전달하지 않고 버림
+    private Long expiresAt;
+
+}
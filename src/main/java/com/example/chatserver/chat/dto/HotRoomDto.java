@@ -0,0 +1,23 @@
+package com.example.chatserver.chat.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HotRoomDto {
+
+    private Long roomId;
+    // 최근 구간 기준 초당 채팅 메시지 수 (클러스터 전체)
+    private Double messagesPerSecond;
+    // 이 서버가 구독자 세션에 보낸 초당 메시지 수 / 바이트 수
+    private Double deliveriesPerSecond;
+    private Double bytesPerSecond;
+    // 클러스터 전체 기준 현재 접속 중인 회원 수
+    private Long subscribers;
+
+}
@@ -0,0 +1,19 @@
+package com.example.chatserver.chat.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MessageAckDto {
+
+    private Long roomId;
+    private String clientMessageId;
+    // 이미 처리된 메시지의 재전송이었으면 true (저장/전파하지 않음)
+    private boolean duplicate;
+
+}
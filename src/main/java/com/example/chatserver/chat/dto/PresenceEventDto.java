@@ -0,0 +1,23 @@
+package com.example.chatserver.chat.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PresenceEventDto {
+
+    private Long roomId;
+    // 클러스터 전체 기준 현재 접속 중인 회원 수
+    private Long onlineCount;
+    // 디바운스 구간 동안 새로 접속한 / 접속이 끊긴 회원 이메일
+    private List<String> online;
+    private List<String> offline;
+
+}
@@ -0,0 +1,26 @@
+package com.example.chatserver.chat.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SyncResDto {
+
+    // 다음 sync 요청의 since 로 보낼 값
+    private Long watermark;
+    // 변경 피드로 since 이후를 알 수 없어 전체 채팅방 목록만 보낸 경우 true (메시지는 이력 조회로)
+    private Boolean full;
+    private List<SyncRoomDto> rooms;
+    // 나간(더 이상 참여하지 않는) 채팅방
+    private List<Long> removedRoomIds;
+
+}
@@ -0,0 +1,27 @@
+package com.example.chatserver.chat.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SyncRoomDto {
+
+    private Long roomId;
+    private String roomName;
+    private String isGroupChat;
+    private Long unReadCount;
+    // since 이후의 새 메시지 (오래된 순)
+    private List<ChatMessageDto> messages;
+    // 메시지가 한도보다 많아서 잘린 경우 true → 클라이언트는 이력 조회로 채움
+    private Boolean hasMore;
+
+}
@@ -0,0 +1,25 @@
+package com.example.chatserver.chat.repository;
+
+import com.example.chatserver.chat.archive.SegmentData;
+import com.example.chatserver.chat.domain.ArchiveSegment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ArchiveSegmentRepository extends JpaRepository<ArchiveSegment, Long> {
+
+    // 이력 페이지: firstId가 beforeFirstId보다 작은 세그먼트를 최신 것부터 (uk_archive_segment_room_first_id range scan)
+    @Query("SELECT new com.example.chatserver.chat.archive.SegmentData(s.firstId, s.data) FROM ArchiveSegment s " +
+            "WHERE s.roomId = :roomId AND s.firstId < :beforeFirstId ORDER BY s.firstId DESC")
+    List<SegmentData> findBefore(@Param("roomId") Long roomId, @Param("beforeFirstId") Long beforeFirstId, Pageable pageable);
+
+    // 전체 순회(내보내기): firstId가 afterFirstId보다 큰 세그먼트를 오래된 것부터
+    @Query("SELECT new com.example.chatserver.chat.archive.SegmentData(s.firstId, s.data) FROM ArchiveSegment s " +
+            "WHERE s.roomId = :roomId AND s.firstId > :afterFirstId ORDER BY s.firstId ASC")
+    List<SegmentData> findAfter(@Param("roomId") Long roomId, @Param("afterFirstId") Long afterFirstId, Pageable pageable);
+}
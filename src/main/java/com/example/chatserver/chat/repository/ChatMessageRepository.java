@@ -1,15 +1,73 @@
 package com.example.chatserver.chat.repository;
 
+import com.example.chatserver.chat.archive.ArchivedMessage;
 import com.example.chatserver.chat.domain.ChatMessage;
-import com.example.chatserver.chat.domain.ChatRoom;
+import com.example.chatserver.chat.dto.ChatMessageDto;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long> {
 
-    List<ChatMessage> findByChatRoomOrderByCreatedTimeAsc(ChatRoom chatRoom);
+    // 이력 페이지 조회용 DTO 프로젝션: 엔티티를 영속성 컨텍스트에 올리지 않음 (스냅샷, 변경감지 없음)
+    // beforeId 보다 작은 id를 최신 것부터 (chat_room_id 인덱스 = (chat_room_id, id) range scan)
+    @Query("SELECT new com.example.chatserver.chat.dto.ChatMessageDto(m.chatRoom.id, m.content, m.member.email, m.member.id, m.id) FROM ChatMessage m " +
+            "WHERE m.chatRoom.id = :roomId AND m.id < :beforeId ORDER BY m.id DESC")
+    List<ChatMessageDto> findHistoryBefore(@Param("roomId") Long roomId, @Param("beforeId") Long beforeId, Pageable pageable);
 
+    // 내보내기용: 결과 전체를 한번에 받지 않고 fetch size 만큼씩 커서로 읽음 (DTO 프로젝션이라 영속성 컨텍스트도 늘어나지 않음)
+    // MySQL은 useCursorFetch=true 드라이버 속성이 있어야 fetch size를 지킴 (DataSourceConfig에서 두 풀 모두 설정)
+    // 반환된 Stream은 트랜잭션 안에서 사용하고 반드시 닫아야 함
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.example.chatserver.chat.dto.ChatMessageDto(m.chatRoom.id, m.content, m.member.email, m.member.id, m.id) FROM ChatMessage m " +
+            "WHERE m.chatRoom.id = :roomId ORDER BY m.createdTime ASC, m.id ASC")
+    Stream<ChatMessageDto> streamHistoryByRoomId(@Param("roomId") Long roomId);
+
+    // sync용: since 이후 생성된 메시지 (chat_room_id, created_time 인덱스 range scan)
+    @Query("SELECT new com.example.chatserver.chat.dto.ChatMessageDto(m.chatRoom.id, m.content, m.member.email, m.member.id, m.id) FROM ChatMessage m " +
+            "WHERE m.chatRoom.id = :roomId AND m.createdTime > :since ORDER BY m.createdTime ASC, m.id ASC")
+    List<ChatMessageDto> findSince(@Param("roomId") Long roomId, @Param("since") Long since, Pageable pageable);
+
+    // 삭제된 채팅방 정리용: 다음 배치의 id 범위를 구하기 위한 id 조회
+    @Query("SELECT m.id FROM ChatMessage m WHERE m.chatRoom.id = :roomId ORDER BY m.id")
+    List<Long> findIdsByRoomId(@Param("roomId") Long roomId, Pageable pageable);
+
+    // 읽음상태(FK)를 먼저 지운 뒤 호출해야 함
+    @Modifying
+    @Query("DELETE FROM ChatMessage m WHERE m.chatRoom.id = :roomId AND m.id BETWEEN :fromId AND :toId")
+    int deleteByRoomIdAndIdRange(@Param("roomId") Long roomId, @Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    // 아카이브 대상(보관 기간이 지난 메시지가 있는) 채팅방
+    @Query("SELECT DISTINCT m.chatRoom.id FROM ChatMessage m WHERE m.createdTime < :cutoff")
+    List<Long> findRoomIdsWithMessagesBefore(@Param("cutoff") Long cutoff);
+
+    @Query("SELECT MIN(m.createdTime) FROM ChatMessage m WHERE m.chatRoom.id = :roomId")
+    Long findOldestCreatedTime(@Param("roomId") Long roomId);
+
+    // 한 채팅방의 [from, to) 기간 메시지를 id 순서로 페이지 조회 (afterId 이후부터)
+    @Query("SELECT new com.example.chatserver.chat.archive.ArchivedMessage(m.id, m.chatRoom.id, m.member.email, m.content, m.createdTime) " +
+            "FROM ChatMessage m WHERE m.chatRoom.id = :roomId AND m.createdTime >= :from AND m.createdTime < :to AND m.id > :afterId ORDER BY m.id")
+    List<ArchivedMessage> findArchiveRows(@Param("roomId") Long roomId, @Param("from") Long from, @Param("to") Long to,
+                                          @Param("afterId") Long afterId, Pageable pageable);
+
+    // 검색 인덱스 catch-up/재구축용: afterId 이후 메시지를 id 순서로 페이지 조회 (아카이브와 같은 행 형태)
+    @Query("SELECT new com.example.chatserver.chat.archive.ArchivedMessage(m.id, m.chatRoom.id, m.member.email, m.content, m.createdTime) " +
+            "FROM ChatMessage m WHERE m.id > :afterId ORDER BY m.id")
+    List<ArchivedMessage> findIndexRows(@Param("afterId") Long afterId, Pageable pageable);
+
+    // 아카이브로 옮긴 메시지 삭제 (읽음상태를 먼저 지운 뒤 호출해야 함)
+    @Modifying
+    @Query("DELETE FROM ChatMessage m WHERE m.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 }
@@ -2,23 +2,48 @@ package com.example.chatserver.chat.repository;
 
 import com.example.chatserver.chat.domain.ChatParticipant;
 import com.example.chatserver.chat.domain.ChatRoom;
+import com.example.chatserver.chat.dto.MyChatListResDto;
 import com.example.chatserver.member.domain.Member;
-import io.lettuce.core.dynamic.annotation.Param;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ChatParticipantRepository extends JpaRepository<ChatParticipant, Long> {
 
+    // 메시지 저장, 권한 확인마다 호출되므로 쿼리 캐시 사용 (참가자 엔티티, 멤버는 2차 캐시에서 조회)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<ChatParticipant> findByChatRoom(ChatRoom chatRoom);
 
     Optional<ChatParticipant> findByChatRoomAndMember(ChatRoom chatRoom, Member member);
 
-    List<ChatParticipant> findAllByMember(Member member);
+    // 채팅방 참여 여부 확인 (구독 권한 검증, 이력 조회마다 호출)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    boolean existsByChatRoomIdAndMemberEmail(Long chatRoomId, String email);
+
+    // 내 채팅방 목록 + 안읽은 메시지 수를 한번의 쿼리로 DTO 조회 (엔티티 로딩, 변경감지 없음)
+    @Query("SELECT new com.example.chatserver.chat.dto.MyChatListResDto(r.id, r.name, r.isGroupChat, " +
+            "(SELECT COUNT(rs) FROM ReadStatus rs WHERE rs.chatRoom = r AND rs.member = cp.member AND rs.isRead = false)) " +
+            "FROM ChatParticipant cp JOIN cp.chatRoom r WHERE cp.member.email = :email")
+    List<MyChatListResDto> findMyChatRooms(@Param("email") String email);
+
+    // sync용: 변경 피드에 나온 채팅방만 조회
+    @Query("SELECT new com.example.chatserver.chat.dto.MyChatListResDto(r.id, r.name, r.isGroupChat, " +
+            "(SELECT COUNT(rs) FROM ReadStatus rs WHERE rs.chatRoom = r AND rs.member = cp.member AND rs.isRead = false)) " +
+            "FROM ChatParticipant cp JOIN cp.chatRoom r WHERE cp.member.email = :email AND r.id IN :roomIds")
+    List<MyChatListResDto> findMyChatRoomsIn(@Param("email") String email, @Param("roomIds") Collection<Long> roomIds);
+
+    // 메시지 검색 범위: 내가 참여한 채팅방 id
+    @Query("SELECT cp.chatRoom.id FROM ChatParticipant cp WHERE cp.member.email = :email")
+    List<Long> findRoomIdsByMemberEmail(@Param("email") String email);
 
     @Query("SELECT cp1.chatRoom FROM ChatParticipant cp1 JOIN ChatParticipant cp2 ON cp1.chatRoom.id = cp2.chatRoom.id WHERE cp1.member.id = :myId AND cp2.member.id = :otherMemberId AND cp1.chatRoom.isGroupChat = 'N'")
     Optional<ChatRoom> findExistingPrivateRoom(@Param("myId") Long myId, @Param("otherMemberId") Long otherMemberId);
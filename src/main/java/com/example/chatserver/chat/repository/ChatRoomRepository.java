@@ -1,13 +1,66 @@
 package com.example.chatserver.chat.repository;
 
 import com.example.chatserver.chat.domain.ChatRoom;
+import com.example.chatserver.chat.dto.ChatRoomListResDto;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ChatRoomRepository extends JpaRepository<ChatRoom, Long> {
 
-    List<ChatRoom> findByIsGroupChat(String isGroupChat);
+    // 그룹 채팅 목록은 조회가 훨씬 많으므로 쿼리 캐시 사용 (chat_room 변경시 Hibernate가 자동 무효화)
+    // 엔티티 대신 DTO로 바로 조회하여 스냅샷/변경감지 비용 제거
+    // id 커서 기반 페이지네이션 (cursor 이후의 id부터 size건) + 이름 접두어 필터
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new com.example.chatserver.chat.dto.ChatRoomListResDto(r.id, r.name, r.participantCount) FROM ChatRoom r " +
+            "WHERE r.isGroupChat = 'Y' AND r.isDeleted = 'N' AND r.id > :cursor AND r.name LIKE :namePattern ESCAPE '\\' ORDER BY r.id")
+    List<ChatRoomListResDto> findGroupRoomPage(@Param("cursor") Long cursor, @Param("namePattern") String namePattern, Pageable pageable);
+
+    // 참가자 수 증감 (동시 참여/나가기에도 값이 틀어지지 않도록 DB에서 원자적으로 계산)
+    @Modifying
+    @Query("UPDATE ChatRoom r SET r.participantCount = r.participantCount + :delta WHERE r.id = :roomId")
+    int addParticipantCount(@Param("roomId") Long roomId, @Param("delta") Long delta);
+
+    // 1:1 채팅방 조회: unique 인덱스 point read + 쿼리 캐시
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Optional<ChatRoom> findByPrivatePairKey(String privatePairKey);
+
+    // insert 직후 재조회용: 다른 트랜잭션이 방금 커밋한 row도 보이도록 공유 잠금 읽기(최신 데이터)를 사용
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT r FROM ChatRoom r WHERE r.privatePairKey = :pairKey")
+    Optional<ChatRoom> findByPrivatePairKeyForShare(@Param("pairKey") String pairKey);
+
+    /**
+     * 1:1 채팅방이 없을 때만 생성 (동시에 호출되어도 unique 키 때문에 한 건만 insert 됨)
+     * INSERT IGNORE는 키 중복 외의 오류(NOT NULL, 길이 초과 등)까지 경고로 바꿔 넘기므로
+     * 키 중복일 때만 아무것도 바꾸지 않는 ON DUPLICATE KEY UPDATE를 사용한다.
+     * 반환값(영향받은 row 수)은 드라이버 설정(useAffectedRows)에 따라 이미 있던 row도 1이 될 수 있어 생성 여부 판단에 쓰지 않는다.
+     * native 쿼리는 기본적으로 2차 캐시 전체를 무효화하므로 chat_room 영역만 무효화하도록 지정
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "chat_room"))
+    @Query(value = "INSERT INTO chat_room (name, is_group_chat, is_deleted, private_pair_key, participant_count, created_time, updated_time) " +
+            "VALUES (:name, 'N', 'N', :pairKey, 0, :now, :now) ON DUPLICATE KEY UPDATE id = id", nativeQuery = true)
+    void insertPrivateRoomIfAbsent(@Param("name") String name, @Param("pairKey") String pairKey, @Param("now") Long now);
+
+    // 삭제 표시되어 백그라운드 정리를 기다리는 채팅방
+    @Query("SELECT r.id FROM ChatRoom r WHERE r.isDeleted = 'Y' ORDER BY r.id")
+    List<Long> findDeletedRoomIds();
+
+    // 메시지/읽음상태 정리가 끝난 채팅방 삭제 (엔티티를 로딩하지 않는 벌크 삭제 → cascade 미적용)
+    @Modifying
+    @Query("DELETE FROM ChatRoom r WHERE r.id = :roomId")
+    int deleteRoomById(@Param("roomId") Long roomId);
 }
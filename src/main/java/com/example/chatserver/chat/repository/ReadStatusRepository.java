@@ -3,9 +3,14 @@ package com.example.chatserver.chat.repository;
 import com.example.chatserver.chat.domain.ChatRoom;
 import com.example.chatserver.chat.domain.ReadStatus;
 import com.example.chatserver.member.domain.Member;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -13,6 +18,16 @@ public interface ReadStatusRepository extends JpaRepository<ReadStatus, Long> {
 
     List<ReadStatus> findByChatRoomAndMember(ChatRoom chatRoom, Member member);
 
-    Long countByChatRoomAndMemberAndIsReadFalse(ChatRoom chatRoom, Member member);
-}
+    // 삭제된 채팅방 정리용: 다음 배치의 id 범위를 구하기 위한 id 조회
+    @Query("SELECT rs.id FROM ReadStatus rs WHERE rs.chatRoom.id = :roomId ORDER BY rs.id")
+    List<Long> findIdsByRoomId(@Param("roomId") Long roomId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM ReadStatus rs WHERE rs.chatRoom.id = :roomId AND rs.id BETWEEN :fromId AND :toId")
+    int deleteByRoomIdAndIdRange(@Param("roomId") Long roomId, @Param("fromId") Long fromId, @Param("toId") Long toId);
 
+    // 아카이브로 옮긴 메시지의 읽음상태 삭제
+    @Modifying
+    @Query("DELETE FROM ReadStatus rs WHERE rs.chatMessage.id IN :messageIds")
+    int deleteByChatMessageIds(@Param("messageIds") Collection<Long> messageIds);
+}
@@ -0,0 +1,348 @@
+package com.example.chatserver.chat.search;
+
+import com.example.chatserver.chat.archive.ArchivedMessage;
+import com.example.chatserver.chat.dto.ChatMessageDto;
+import com.example.chatserver.chat.repository.ChatMessageRepository;
+import com.example.chatserver.common.transaction.AfterCommit;
+import lombok.extern.log4j.Log4j2;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.cjk.CJKAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.QueryBuilder;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 채팅 메시지 본문 전문 검색용 로컬 Lucene 인덱스 (서버마다 {index-dir}에 하나).
+ *
+ * - 분석기: CJKAnalyzer → 한글/한자는 2글자 bigram, 영문/숫자는 단어 단위 (조사가 붙은 어절도 부분 일치)
+ * - 이 서버에서 저장한 메시지는 커밋 직후 바로 인덱스에 추가하고, 다른 서버에서 저장한 메시지는
+ *   catch-up-ms 마다 마지막으로 읽은 메시지 id 이후의 row를 페이지 단위로 읽어서 추가 (빈 인덱스면 첫 실행이 전체 빌드)
+ * - id는 insert 시점에 정해지고 커밋은 그 뒤라, 작은 id가 큰 id보다 늦게 보일 수 있다.
+ *   그래서 catch-up은 마지막 id보다 rescan-ids 만큼 앞에서부터 다시 읽고, 그 구간에서는 인덱스에 없는 메시지만 추가한다.
+ * - 문서 키는 메시지 id → 같은 메시지를 두 번 넣어도 덮어쓰기
+ * - near-real-time: refresh-ms 마다 검색용 reader를 다시 열고 (디스크 commit 없이 새 문서가 검색됨),
+ *   commit-ms 마다 마지막 id와 함께 commit → 재시작시 그 id부터 이어서 catch-up
+ * - 백그라운드 작업(catch-up, refresh, commit, 재구축)은 전용 스레드 하나에서 순서대로 실행
+ *   → 재구축 중에는 refresh가 멈추므로 검색은 재구축 전 인덱스를 그대로 봄
+ *
+ * 주의
+ * - catch-up과 재구축의 원본은 chat_message 테이블이다. log 저장소에서는 이 서버에서 저장한 메시지만 인덱싱되고
+ *   재구축은 지원하지 않으며, 아카이브로 옮겨진 달의 메시지는 재구축 후 검색되지 않는다.
+ * - 참여 채팅방 필터는 호출하는 쪽(ChatService)이 roomIds로 넘긴다.
+ */
+@Component
+@Log4j2
+public class MessageSearchIndex implements DisposableBean {
+
+    private static final String ID = "id";
+
+    private static final String MESSAGE_ID = "messageId";
+
+    private static final String ROOM_ID = "roomId";
+
+    private static final String SENDER_EMAIL = "senderEmail";
+
+    private static final String CONTENT = "content";
+
+    private static final String CREATED_TIME = "createdTime";
+
+    // commit user data에 저장하는 catch-up 위치
+    private static final String LAST_INDEXED_ID = "lastIndexedId";
+
+    private final ChatMessageRepository chatMessageRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Analyzer analyzer = new CJKAnalyzer();
+
+    private final Directory directory;
+
+    private final IndexWriter indexWriter;
+
+    private final SearcherManager searcherManager;
+
+    private final ScheduledExecutorService indexer;
+
+    private final boolean databaseBacked;
+
+    private final int pageSize;
+
+    private final long rescanIds;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+
+    // catch-up으로 읽어온 마지막 메시지 id (add로 바로 넣은 메시지는 반영하지 않음 → 다른 서버의 더 작은 id를 놓치지 않도록)
+    private volatile long lastIndexedId;
+
+    public MessageSearchIndex(ChatMessageRepository chatMessageRepository, PlatformTransactionManager transactionManager,
+                              @Value("${chat.message-store.type:jpa}") String messageStoreType,
+                              @Value("${chat.search.index-dir:./search-index}") String indexDir,
+                              @Value("${chat.search.ram-buffer-mb:64}") double ramBufferMb,
+                              @Value("${chat.search.page-size:2000}") int pageSize,
+                              @Value("${chat.search.rescan-ids:1000}") long rescanIds,
+                              @Value("${chat.search.refresh-ms:1000}") long refreshMillis,
+                              @Value("${chat.search.catch-up-ms:5000}") long catchUpMillis,
+                              @Value("${chat.search.commit-ms:60000}") long commitMillis) throws IOException {
+        this.chatMessageRepository = chatMessageRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.databaseBacked = "jpa".equals(messageStoreType);
+        this.pageSize = pageSize;
+        this.rescanIds = rescanIds;
+
+        this.directory = FSDirectory.open(Paths.get(indexDir));
+        IndexWriterConfig config = new IndexWriterConfig(analyzer);
+        config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        // 이 크기까지는 메모리에 모았다가 세그먼트로 flush (재구축시 세그먼트 수와 merge 비용 감소)
+        config.setRAMBufferSizeMB(ramBufferMb);
+        this.indexWriter = new IndexWriter(directory, config);
+        this.searcherManager = new SearcherManager(indexWriter, null);
+        this.lastIndexedId = readLastIndexedId();
+
+        this.indexer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "message-search-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+        indexer.scheduleWithFixedDelay(guarded("refresh", searcherManager::maybeRefresh), refreshMillis, refreshMillis, TimeUnit.MILLISECONDS);
+        indexer.scheduleWithFixedDelay(guarded("commit", this::commit), commitMillis, commitMillis, TimeUnit.MILLISECONDS);
+        if (databaseBacked) {
+            indexer.scheduleWithFixedDelay(guarded("catch-up", this::catchUp), 0L, catchUpMillis, TimeUnit.MILLISECONDS);
+        }
+        log.info("[SEARCH] 메시지 검색 인덱스 시작 - dir: {}, docs: {}, lastIndexedId: {}", indexDir, indexWriter.getDocStats().numDocs, lastIndexedId);
+    }
+
+    // 메시지 저장 트랜잭션이 커밋된 후 인덱스에 추가 (롤백된 메시지가 검색되지 않도록)
+    public void add(Long messageId, Long roomId, String senderEmail, String content, long createdTime) {
+        AfterCommit.run(guarded("add", () -> put(new ArchivedMessage(messageId, roomId, senderEmail, content, createdTime))));
+    }
+
+    // 정리(purge)된 채팅방의 메시지를 인덱스에서 제거
+    public void deleteRoom(Long roomId) {
+        guarded("delete-room", () -> indexWriter.deleteDocuments(LongPoint.newExactQuery(ROOM_ID, roomId))).run();
+    }
+
+    /**
+     * roomIds 채팅방에서 text의 모든 단어를 포함하는 메시지를 최신순으로 최대 size건 반환한다.
+     * senderEmail이 있으면 그 회원이 보낸 메시지만, cursor가 있으면 그보다 작은 메시지 id만 조회한다.
+     */
+    public List<ChatMessageDto> search(String text, Collection<Long> roomIds, String senderEmail, Long cursor, int size) {
+        Query textQuery = new QueryBuilder(analyzer).createBooleanQuery(CONTENT, text, BooleanClause.Occur.MUST);
+        if (textQuery == null || roomIds.isEmpty()) {
+            // 분석 후 남는 단어가 없는 검색어 (공백, 불용어만 있는 경우)
+            return List.of();
+        }
+        BooleanQuery.Builder query = new BooleanQuery.Builder()
+                .add(textQuery, BooleanClause.Occur.MUST)
+                .add(LongPoint.newSetQuery(ROOM_ID, roomIds), BooleanClause.Occur.FILTER);
+        if (senderEmail != null) {
+            query.add(new TermQuery(new Term(SENDER_EMAIL, senderEmail)), BooleanClause.Occur.FILTER);
+        }
+        if (cursor != null) {
+            query.add(LongPoint.newRangeQuery(MESSAGE_ID, Long.MIN_VALUE, cursor - 1), BooleanClause.Occur.FILTER);
+        }
+
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs topDocs = searcher.search(query.build(), size, new Sort(new SortField(MESSAGE_ID, SortField.Type.LONG, true)));
+                StoredFields storedFields = searcher.storedFields();
+                List<ChatMessageDto> chatMessageDtos = new ArrayList<>(topDocs.scoreDocs.length);
+                for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    Document document = storedFields.document(scoreDoc.doc);
+                    chatMessageDtos.add(ChatMessageDto.builder()
+                            .roomId(document.getField(ROOM_ID).numericValue().longValue())
+                            .message(document.get(CONTENT))
+                            .senderEmail(document.get(SENDER_EMAIL))
+                            .messageId(Long.parseLong(document.get(ID)))
+                            .build());
+                }
+                return chatMessageDtos;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("메시지 검색 실패", e);
+        }
+    }
+
+    /**
+     * chat_message 테이블에서 인덱스를 처음부터 다시 만든다 (백그라운드 실행).
+     * 이미 재구축 중이면 false를 반환한다.
+     */
+    public boolean rebuild() {
+        if (!databaseBacked) {
+            throw new IllegalStateException("log 저장소는 DB에서 검색 인덱스를 재구축할 수 없습니다.");
+        }
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        indexer.execute(guarded("rebuild", () -> {
+            try {
+                long startedAt = System.currentTimeMillis();
+                indexWriter.deleteAll();
+                lastIndexedId = 0L;
+                catchUp();
+                commit();
+                searcherManager.maybeRefresh();
+                log.info("[SEARCH] 검색 인덱스 재구축 완료 - docs: {}, {}ms",
+                        indexWriter.getDocStats().numDocs, System.currentTimeMillis() - startedAt);
+            } finally {
+                rebuilding.set(false);
+            }
+        }));
+        return true;
+    }
+
+    public boolean isRebuilding() {
+        return rebuilding.get();
+    }
+
+    private void catchUp() throws IOException {
+        // 이미 읽은 구간 중 마지막 rescanIds 만큼은 늦게 커밋된 메시지가 있을 수 있으므로 다시 읽음
+        long indexedUpTo = lastIndexedId;
+        long after = Math.max(0L, indexedUpTo - rescanIds);
+        while (true) {
+            long from = after;
+            List<ArchivedMessage> rows = transactionTemplate.execute(
+                    status -> chatMessageRepository.findIndexRows(from, PageRequest.of(0, pageSize)));
+            if (rows == null || rows.isEmpty()) {
+                return;
+            }
+            Set<Long> alreadyIndexed = rows.get(0).getId() <= indexedUpTo ? indexedIds(from, indexedUpTo) : Set.of();
+            for (ArchivedMessage row : rows) {
+                if (!alreadyIndexed.contains(row.getId())) {
+                    put(row);
+                }
+            }
+            after = rows.get(rows.size() - 1).getId();
+            lastIndexedId = Math.max(lastIndexedId, after);
+            if (rows.size() < pageSize) {
+                return;
+            }
+        }
+    }
+
+    // (after, upTo] 구간에서 인덱스에 이미 있는 메시지 id (다시 읽은 구간을 덮어쓰지 않도록)
+    private Set<Long> indexedIds(long after, long upTo) throws IOException {
+        // 직전 catch-up/add로 넣은 문서도 보이도록 reader를 먼저 갱신 (인덱서 스레드에서만 호출)
+        searcherManager.maybeRefreshBlocking();
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            Query range = LongPoint.newRangeQuery(MESSAGE_ID, after + 1, upTo);
+            TopDocs topDocs = searcher.search(range, (int) Math.min(Integer.MAX_VALUE - 1, Math.max(1L, upTo - after)));
+            StoredFields storedFields = searcher.storedFields();
+            Set<Long> ids = new HashSet<>(topDocs.scoreDocs.length * 2);
+            for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                ids.add(Long.parseLong(storedFields.document(scoreDoc.doc, Set.of(ID)).get(ID)));
+            }
+            return ids;
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    private void put(ArchivedMessage message) throws IOException {
+        Document document = new Document();
+        document.add(new StringField(ID, String.valueOf(message.getId()), Field.Store.YES));
+        document.add(new LongPoint(MESSAGE_ID, message.getId()));
+        document.add(new NumericDocValuesField(MESSAGE_ID, message.getId()));
+        document.add(new LongPoint(ROOM_ID, message.getRoomId()));
+        document.add(new StoredField(ROOM_ID, message.getRoomId()));
+        document.add(new StringField(SENDER_EMAIL, message.getSenderEmail(), Field.Store.YES));
+        document.add(new TextField(CONTENT, message.getContent(), Field.Store.YES));
+        document.add(new StoredField(CREATED_TIME, message.getCreatedTime()));
+        indexWriter.updateDocument(new Term(ID, String.valueOf(message.getId())), document);
+    }
+
+    private void commit() throws IOException {
+        if (!indexWriter.hasUncommittedChanges()) {
+            return;
+        }
+        indexWriter.setLiveCommitData(Map.of(LAST_INDEXED_ID, String.valueOf(lastIndexedId)).entrySet());
+        indexWriter.commit();
+    }
+
+    private long readLastIndexedId() {
+        Iterable<Map.Entry<String, String>> commitData = indexWriter.getLiveCommitData();
+        if (commitData != null) {
+            for (Map.Entry<String, String> entry : commitData) {
+                if (LAST_INDEXED_ID.equals(entry.getKey())) {
+                    return Long.parseLong(entry.getValue());
+                }
+            }
+        }
+        return 0L;
+    }
+
+    // 예외가 나도 주기 작업이 멈추지 않도록 (ScheduledExecutorService는 예외가 난 작업을 다시 실행하지 않음)
+    private static Runnable guarded(String name, IndexTask task) {
+        return () -> {
+            try {
+                task.run();
+            } catch (Exception e) {
+                log.error("[SEARCH] 검색 인덱스 {} 실패", name, e);
+            }
+        };
+    }
+
+    @FunctionalInterface
+    private interface IndexTask {
+        void run() throws IOException;
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        indexer.shutdown();
+        try {
+            indexer.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        commit();
+        searcherManager.close();
+        indexWriter.close();
+        directory.close();
+    }
+}
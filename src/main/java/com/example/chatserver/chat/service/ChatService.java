@@ -1,26 +1,35 @@
 package com.example.chatserver.chat.service;
 
-import com.example.chatserver.chat.domain.ChatMessage;
 import com.example.chatserver.chat.domain.ChatParticipant;
 import com.example.chatserver.chat.domain.ChatRoom;
 import com.example.chatserver.chat.domain.ReadStatus;
 import com.example.chatserver.chat.dto.ChatMessageDto;
 import com.example.chatserver.chat.dto.ChatRoomListResDto;
 import com.example.chatserver.chat.dto.MyChatListResDto;
-import com.example.chatserver.chat.repository.ChatMessageRepository;
+import com.example.chatserver.chat.dto.SyncResDto;
+import com.example.chatserver.chat.dto.SyncRoomDto;
 import com.example.chatserver.chat.repository.ChatParticipantRepository;
 import com.example.chatserver.chat.repository.ChatRoomRepository;
 import com.example.chatserver.chat.repository.ReadStatusRepository;
+import com.example.chatserver.chat.search.MessageSearchIndex;
+import com.example.chatserver.chat.store.MessageStore;
+import com.example.chatserver.common.cache.SecondLevelCacheEvictor;
+import com.example.chatserver.common.datasource.ReadYourWritesTracker;
+import com.example.chatserver.common.metrics.ChatMetrics;
 import com.example.chatserver.member.domain.Member;
 import com.example.chatserver.member.repository.MemberRepository;
 import jakarta.persistence.EntityNotFoundException;
-import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Transactional
@@ -30,48 +39,94 @@ public class ChatService {
 
     private final ChatParticipantRepository chatParticipantRepository;
 
-    private final ChatMessageRepository chatMessageRepository;
-
     private final ReadStatusRepository readStatusRepository;
 
     private final MemberRepository memberRepository;
 
-    public ChatService(ChatRoomRepository chatRoomRepository, ChatParticipantRepository chatParticipantRepository, ChatMessageRepository chatMessageRepository, ReadStatusRepository readStatusRepository, MemberRepository memberRepository) {
+    private final SecondLevelCacheEvictor secondLevelCacheEvictor;
+
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    private final MessageStore messageStore;
+
+    private final RoomDirectoryVersion roomDirectoryVersion;
+
+    private final SyncChangeFeed syncChangeFeed;
+
+    private final MessageSearchIndex messageSearchIndex;
+
+    private final ChatMetrics chatMetrics;
+
+    // 그룹 채팅 목록 한 페이지의 최대 크기
+    private static final int MAX_ROOM_PAGE_SIZE = 100;
+
+    // 메시지 검색 한 페이지의 최대 크기
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+
+    // 이전 메시지 조회 한 페이지의 최대 크기
+    private static final int MAX_HISTORY_PAGE_SIZE = 200;
+
+    // sync 응답에서 채팅방 하나당 보내는 최대 메시지 수
+    private final int syncMessageLimit;
+
+    // sync watermark를 현재 시각보다 이만큼 앞당김: 커밋 지연/replica 지연으로 늦게 보이는 메시지를 다음 sync에서 다시 포함
+    // (겹치는 구간의 메시지는 클라이언트가 messageId로 중복 제거)
+    private final long syncOverlapMillis;
+
+    public ChatService(ChatRoomRepository chatRoomRepository, ChatParticipantRepository chatParticipantRepository, ReadStatusRepository readStatusRepository, MemberRepository memberRepository, SecondLevelCacheEvictor secondLevelCacheEvictor, ReadYourWritesTracker readYourWritesTracker, MessageStore messageStore, RoomDirectoryVersion roomDirectoryVersion,
+                       SyncChangeFeed syncChangeFeed, MessageSearchIndex messageSearchIndex, ChatMetrics chatMetrics,
+                       @Value("${chat.sync.message-limit:200}") int syncMessageLimit,
+                       @Value("${chat.sync.overlap-ms:5000}") long syncOverlapMillis) {
         this.chatRoomRepository = chatRoomRepository;
         this.chatParticipantRepository = chatParticipantRepository;
-        this.chatMessageRepository = chatMessageRepository;
         this.readStatusRepository = readStatusRepository;
         this.memberRepository = memberRepository;
+        this.secondLevelCacheEvictor = secondLevelCacheEvictor;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.messageStore = messageStore;
+        this.roomDirectoryVersion = roomDirectoryVersion;
+        this.syncChangeFeed = syncChangeFeed;
+        this.messageSearchIndex = messageSearchIndex;
+        this.chatMetrics = chatMetrics;
+        this.syncMessageLimit = syncMessageLimit;
+        this.syncOverlapMillis = syncOverlapMillis;
     }
 
-    public void saveMessage(Long roomId, ChatMessageDto chatMessageReqDto){
+    // 단계별 소요 시간은 chat.message.save.query{query} 지표로 기록
+    // senderEmail: CONNECT에서 JWT로 검증한 세션의 이메일 (메시지에 들어 있는 senderId/senderEmail은 사용하지 않음)
+    public void saveMessage(Long roomId, String senderEmail, ChatMessageDto chatMessageReqDto){
+        if(senderEmail == null){
+            throw new IllegalArgumentException("인증되지 않은 세션입니다.");
+        }
 
         //채팅방 조회
-        ChatRoom chatRoom = chatRoomRepository.findById(roomId).orElseThrow(()-> new EntityNotFoundException("room cannot be found"));
-
-        //보낸 사람 조회
-        Member sender = memberRepository.findByEmail(chatMessageReqDto.getSenderEmail()).orElseThrow(()-> new EntityNotFoundException("member cannot be found"));
+        ChatRoom chatRoom = chatMetrics.timeQuery("room", () -> chatRoomRepository.findById(roomId)).orElseThrow(()-> new EntityNotFoundException("room cannot be found"));
+        if(chatRoom.getIsDeleted().equals("Y")){
+            throw new EntityNotFoundException("room cannot be found");
+        }
 
-        //메시지 저장
-        ChatMessage chatMessage = ChatMessage.builder()
-                .chatRoom(chatRoom)
-                .member(sender)
-                .content(chatMessageReqDto.getMessage())
-                .build();
-        chatMessageRepository.save(chatMessage);
+        //보낸 사람 조회: 클라이언트가 보낸 값 대신 세션의 검증된 이메일로 (다른 회원 이름으로 보내지 못하도록)
+        Member sender = chatMetrics.timeQuery("sender", () -> memberRepository.findByEmail(senderEmail))
+                .orElseThrow(()-> new EntityNotFoundException("member cannot be found"));
+        chatMessageReqDto.setSenderId(sender.getId());
+        chatMessageReqDto.setSenderEmail(sender.getEmail());
 
-        //사용자별로 읽음 여부 저장
-        List<ChatParticipant> chatParticipants = chatParticipantRepository.findByChatRoom(chatRoom);
-        for(ChatParticipant c : chatParticipants){
-            ReadStatus readStatus = ReadStatus.builder()
-                    .chatRoom(chatRoom)
-                    .member(c.getMember()) //채팅방에 참여하고 있는 멤버들
-                    .chatMessage(chatMessage)
-                    .isRead(c.getMember().equals(sender)) // 메시지를 보낸 사람이면 메세지 읽음 처리
-                    .build();
-            readStatusRepository.save(readStatus);
+        //메시지 저장 (저장소 구현에 따라 MySQL 또는 메모리 맵 로그)
+        Long messageId = chatMetrics.timeQuery("append", () -> messageStore.append(chatRoom, sender, chatMessageReqDto.getMessage()));
+        chatMessageReqDto.setMessageId(messageId);
 
+        //참여자 전원의 변경 피드에 기록 (다음 sync에서 이 채팅방을 가져가도록)
+        List<String> participantEmails = new ArrayList<>();
+        for(ChatParticipant c : chatMetrics.timeQuery("participants", () -> chatParticipantRepository.findByChatRoom(chatRoom))){
+            participantEmails.add(c.getMember().getEmail());
         }
+        syncChangeFeed.roomChanged(roomId, participantEmails);
+
+        //전문 검색 인덱스에 추가 (커밋 후)
+        messageSearchIndex.add(messageId, roomId, sender.getEmail(), chatMessageReqDto.getMessage(), System.currentTimeMillis());
+
+        //방금 보낸 메시지가 이력 조회에 바로 보이도록 잠시 동안 primary에서 읽게 함
+        readYourWritesTracker.markWrite(sender.getEmail());
     }
 
     public void createGroupRoom(String chatRoomName) {
@@ -82,6 +137,7 @@ public class ChatService {
         ChatRoom chatRoom = ChatRoom.builder()
                 .isGroupChat("Y")
                 .name(chatRoomName)
+                .participantCount(1L)
                 .build();
         chatRoomRepository.save(chatRoom);
 
@@ -91,19 +147,45 @@ public class ChatService {
                 .member(member)
                 .build();
         chatParticipantRepository.save(chatParticipant);
+        readYourWritesTracker.markWrite(member.getEmail());
+        syncChangeFeed.roomChanged(chatRoom.getId(), member.getEmail());
+
+        //다른 서버의 그룹 채팅 목록 캐시 무효화
+        secondLevelCacheEvictor.evictRoom(chatRoom.getId());
+        roomDirectoryVersion.bump();
+    }
+
+    /**
+     * 그룹 채팅 목록 한 페이지 조회
+     * - cursor: 이전 페이지의 마지막 roomId (첫 페이지는 null)
+     * - prefix: 채팅방 이름 접두어 (name 인덱스 range scan)
+     */
+    @Transactional(readOnly = true)
+    public List<ChatRoomListResDto> getGroupchatRooms(Long cursor, int size, String prefix){
+        return findGroupRoomPage(cursor, size, prefix);
+    }
+
+    /**
+     * getGroupchatRooms와 같지만 primary에서 조회 (ETag와 함께 응답할 때 사용)
+     * 버전은 변경이 커밋된 뒤에 올라가므로 primary는 버전을 읽은 시점의 목록을 항상 포함한다.
+     * replica는 지연 중이면 이전 목록을 줄 수 있고, 그 목록이 새 ETag로 캐싱되면 다음 변경 전까지 304로 남는다.
+     */
+    @Transactional
+    public List<ChatRoomListResDto> getGroupchatRoomsFromPrimary(Long cursor, int size, String prefix){
+        return findGroupRoomPage(cursor, size, prefix);
+    }
+
+    private List<ChatRoomListResDto> findGroupRoomPage(Long cursor, int size, String prefix){
+        int pageSize = Math.max(1, Math.min(size, MAX_ROOM_PAGE_SIZE));
+        String namePattern = (prefix == null ? "" : escapeLike(prefix)) + "%";
+        return chatRoomRepository.findGroupRoomPage(cursor == null ? 0L : cursor, namePattern, PageRequest.of(0, pageSize));
     }
 
-    public List<ChatRoomListResDto> getGroupchatRooms(){
-       List<ChatRoom> chatRooms =  chatRoomRepository.findByIsGroupChat("Y");
-       List<ChatRoomListResDto> dtos = new ArrayList<>();
-       for(ChatRoom c : chatRooms) {
-           ChatRoomListResDto dto = ChatRoomListResDto.builder()
-                   .roomId(c.getId())
-                   .roomName(c.getName())
-                   .build();
-           dtos.add(dto);
-       }
-       return dtos;
+    // 그룹 채팅 목록의 ETag. 목록이 바뀔 때마다 버전이 올라가므로 버전이 같으면 내용도 같다.
+    // (Redis를 사용할 수 없으면 null → ETag 없이 매번 조회)
+    public String getGroupRoomDirectoryETag(){
+        String version = roomDirectoryVersion.current();
+        return version == null ? null : "\"room-dir-" + version + "\"";
     }
 
     public void addParticipantToGroupChat(Long roomId){
@@ -115,11 +197,16 @@ public class ChatService {
         if(chatRoom.getIsGroupChat().equals("N")){
             throw new IllegalArgumentException("그룹채팅이 아닙니다.");
         }
+        if(chatRoom.getIsDeleted().equals("Y")){
+            throw new EntityNotFoundException("room cannot be found");
+        }
         //이미 참여자인지 검증
         Optional<ChatParticipant> participant = chatParticipantRepository.findByChatRoomAndMember(chatRoom, member);
 
         if(!participant.isPresent()){
             addParticipantToRoom(chatRoom, member);
+            readYourWritesTracker.markWrite(member.getEmail());
+            roomDirectoryVersion.bump();
         }
 
 
@@ -132,52 +219,65 @@ public class ChatService {
                 .member(member)
                 .build();
         chatParticipantRepository.save(chatParticipant);
+        chatRoomRepository.addParticipantCount(chatRoom.getId(), 1L);
+        syncChangeFeed.roomChanged(chatRoom.getId(), member.getEmail());
+        secondLevelCacheEvictor.evictParticipants(chatRoom.getId());
+        secondLevelCacheEvictor.evictRoom(chatRoom.getId());
     }
 
-    public List<ChatMessageDto> getChatHistory(Long roomId){
+    /**
+     * readOnly 트랜잭션: Hibernate 세션이 read-only 모드가 되어 로딩된 엔티티의 스냅샷을 만들지 않고
+     * flush도 하지 않는다. 메시지는 DTO 프로젝션으로 바로 조회하므로 엔티티를 아예 만들지 않는다.
+     */
+    @Transactional(readOnly = true)
+    public List<ChatMessageDto> getChatHistory(Long roomId, Long cursor, int size){
+        checkHistoryAccess(roomId);
+        // 특정 room에 대한 message 조회 (cursor 이전 size 건, 아카이브 계층 포함)
+        return messageStore.readHistory(roomId, cursor, Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE)));
+    }
+
+    // 이력 조회/내보내기 권한 확인: 채팅방이 있고 본인이 참여자인지
+    @Transactional(readOnly = true)
+    public void checkHistoryAccess(Long roomId){
         //채팅방 조회
-        ChatRoom chatRoom = chatRoomRepository.findById(roomId).orElseThrow(()-> new EntityNotFoundException("room cannot be found"));
-        //member 조회
-        Member member = memberRepository.findByEmail(SecurityContextHolder.getContext().getAuthentication().getName())
-                .orElseThrow(()-> new EntityNotFoundException("member cannot be found"));
-        List<ChatParticipant> chatParticipants = chatParticipantRepository.findByChatRoom(chatRoom);
-        boolean check = false;
-        for(ChatParticipant c : chatParticipants){
-            if(c.getMember().equals(member)){
-                check = true;
-            }
+        if(!chatRoomRepository.existsById(roomId)){
+            throw new EntityNotFoundException("room cannot be found");
         }
-        if(!check){
+        //참여자 검증
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        if(!chatParticipantRepository.existsByChatRoomIdAndMemberEmail(roomId, email)){
             throw new IllegalArgumentException("본인이 속하지 않은 채팅방입니다.");
         }
-        // 특정 room에 대한 message 조회
-        List<ChatMessage> chatMessages = chatMessageRepository.findByChatRoomOrderByCreatedTimeAsc(chatRoom);
-        List<ChatMessageDto> chatMessageDtos = new ArrayList<>();
-        for(ChatMessage c : chatMessages) {
-            ChatMessageDto chatMessageDto = ChatMessageDto.builder()
-                    .message(c.getContent())
-                    .senderEmail(c.getMember().getEmail())
-                    .build();
-            chatMessageDtos.add(chatMessageDto);
-        }
-        return chatMessageDtos;
     }
 
-    public boolean isRoomPaticipant(String email, Long roomId){
-
-        //채팅방 조회
-        ChatRoom chatRoom = chatRoomRepository.findById(roomId).orElseThrow(()-> new EntityNotFoundException("room cannot be found"));
-        //member 조회
-        Member member = memberRepository.findByEmail(email)
-                .orElseThrow(()-> new EntityNotFoundException("member cannot be found"));
-
-        List<ChatParticipant> chatParticipants = chatParticipantRepository.findByChatRoom(chatRoom);
-        for(ChatParticipant c : chatParticipants){
-            if(c.getMember().equals(member)){
-                return true;
+    /**
+     * 메시지 본문 전문 검색 (최신순, messageId 커서 페이지네이션).
+     * 내가 참여한 채팅방만 검색하며, roomId/senderEmail로 범위를 더 좁힐 수 있다.
+     */
+    @Transactional(readOnly = true)
+    public List<ChatMessageDto> searchMessages(String query, Long roomId, String senderEmail, Long cursor, int size){
+        if(query == null || query.isBlank()){
+            throw new IllegalArgumentException("검색어를 입력해주세요.");
+        }
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        List<Long> roomIds;
+        if(roomId != null){
+            if(!chatParticipantRepository.existsByChatRoomIdAndMemberEmail(roomId, email)){
+                throw new IllegalArgumentException("본인이 속하지 않은 채팅방입니다.");
             }
+            roomIds = List.of(roomId);
+        } else {
+            roomIds = chatParticipantRepository.findRoomIdsByMemberEmail(email);
         }
-        return false;
+        return messageSearchIndex.search(query, roomIds, senderEmail, cursor, Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE)));
+    }
+
+    @Transactional(readOnly = true)
+    public boolean isRoomPaticipant(String email, Long roomId){
+        // STOMP 스레드에는 SecurityContext가 없으므로 email 기준으로 read-your-writes 라우팅
+        // (방금 채팅방에 참여한 사용자의 구독이 replica 지연으로 거부되지 않도록)
+        return readYourWritesTracker.readingAs(email,
+                () -> chatParticipantRepository.existsByChatRoomIdAndMemberEmail(roomId, email));
     }
 
     public void messageRead(Long roomId){
@@ -195,27 +295,69 @@ public class ChatService {
         for(ReadStatus r : readStatuses){
             r.updateIsRead(true);
         }
+        readYourWritesTracker.markWrite(member.getEmail());
+        //다른 기기의 sync에서 안읽은 수가 갱신되도록
+        syncChangeFeed.roomChanged(roomId, member.getEmail());
 
     }
 
+    @Transactional(readOnly = true)
     public List<MyChatListResDto> getMyChatRooms(){
-        //member 조회
-        Member member = memberRepository.findByEmail(SecurityContextHolder.getContext().getAuthentication().getName())
-                .orElseThrow(()-> new EntityNotFoundException("member cannot be found"));
+        // 채팅방 정보와 안읽은 메시지 수를 한번의 DTO 프로젝션 쿼리로 조회 (채팅방마다 count 쿼리 X)
+        return chatParticipantRepository.findMyChatRooms(SecurityContextHolder.getContext().getAuthentication().getName());
+    }
 
-        List<ChatParticipant> chatParticipants = chatParticipantRepository.findAllByMember(member);
-        List<MyChatListResDto> chatListResDtos = new ArrayList<>();
-        for(ChatParticipant c : chatParticipants) {
-            Long count = readStatusRepository.countByChatRoomAndMemberAndIsReadFalse(c.getChatRoom(), member);
-            MyChatListResDto dto = MyChatListResDto.builder()
-                    .roomId(c.getChatRoom().getId())
-                    .roomName(c.getChatRoom().getName())
-                    .isGroupChat(c.getChatRoom().getIsGroupChat())
-                    .unReadCount(count)
-                    .build();
-            chatListResDtos.add(dto);
+    /**
+     * 앱 재시작시 델타 동기화: since(이전 응답의 watermark) 이후 변경된 채팅방만
+     * 채팅방 정보 + 안읽은 수 + 새 메시지로 반환한다.
+     * since가 없거나 변경 피드로 알 수 없는 과거면 full=true 와 전체 채팅방 목록만 반환한다.
+     */
+    @Transactional(readOnly = true)
+    public SyncResDto sync(Long since){
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        long watermark = System.currentTimeMillis() - syncOverlapMillis;
+
+        Set<Long> changedRoomIds = since == null ? null : syncChangeFeed.changedSince(email, since);
+        if(changedRoomIds == null){
+            List<SyncRoomDto> rooms = new ArrayList<>();
+            for(MyChatListResDto r : chatParticipantRepository.findMyChatRooms(email)){
+                rooms.add(toSyncRoom(r));
+            }
+            return SyncResDto.builder().watermark(watermark).full(true).rooms(rooms).build();
         }
-        return chatListResDtos;
+        if(changedRoomIds.isEmpty()){
+            return SyncResDto.builder().watermark(watermark).rooms(List.of()).build();
+        }
+
+        List<SyncRoomDto> rooms = new ArrayList<>();
+        Set<Long> removedRoomIds = new HashSet<>(changedRoomIds);
+        for(MyChatListResDto r : chatParticipantRepository.findMyChatRoomsIn(email, changedRoomIds)){
+            removedRoomIds.remove(r.getRoomId());
+            SyncRoomDto room = toSyncRoom(r);
+            // 한도보다 하나 더 읽어서 잘렸는지 판단
+            List<ChatMessageDto> messages = messageStore.readSince(r.getRoomId(), since, syncMessageLimit + 1);
+            if(messages.size() > syncMessageLimit){
+                room.setMessages(new ArrayList<>(messages.subList(0, syncMessageLimit)));
+                room.setHasMore(true);
+            } else if(!messages.isEmpty()){
+                room.setMessages(messages);
+            }
+            rooms.add(room);
+        }
+        return SyncResDto.builder()
+                .watermark(watermark)
+                .rooms(rooms)
+                .removedRoomIds(removedRoomIds.isEmpty() ? null : new ArrayList<>(removedRoomIds))
+                .build();
+    }
+
+    private static SyncRoomDto toSyncRoom(MyChatListResDto r){
+        return SyncRoomDto.builder()
+                .roomId(r.getRoomId())
+                .roomName(r.getRoomName())
+                .isGroupChat(r.getIsGroupChat())
+                .unReadCount(r.getUnReadCount())
+                .build();
     }
 
     public void leaveGroupChatRoom(Long roomId){
@@ -229,10 +371,20 @@ public class ChatService {
         }
         ChatParticipant c = chatParticipantRepository.findByChatRoomAndMember(chatRoom, member).orElseThrow(()-> new EntityNotFoundException("member cannot be found"));
         chatParticipantRepository.delete(c);
+        chatRoomRepository.addParticipantCount(chatRoom.getId(), -1L);
+        syncChangeFeed.roomChanged(chatRoom.getId(), member.getEmail());
+        secondLevelCacheEvictor.evictParticipants(chatRoom.getId());
+        secondLevelCacheEvictor.evictRoom(chatRoom.getId());
+        readYourWritesTracker.markWrite(member.getEmail());
+        roomDirectoryVersion.bump();
 
         List<ChatParticipant> chatParticipants = chatParticipantRepository.findByChatRoom(chatRoom);
         if(chatParticipants.isEmpty()){
-            chatRoomRepository.delete(chatRoom);
+            // 메시지가 많은 방을 cascade로 지우면 전부 메모리에 올라가므로 삭제 표시만 하고
+            // 실제 삭제는 RoomPurgeService가 백그라운드에서 배치로 처리
+            chatRoom.markDeleted();
+            messageStore.deleteRoom(chatRoom.getId());
+            secondLevelCacheEvictor.evictRoom(chatRoom.getId());
         }
     }
 
@@ -242,22 +394,41 @@ public class ChatService {
                 .orElseThrow(()-> new EntityNotFoundException("member cannot be found"));
         Member otherMember = memberRepository.findById(otherMemberId).orElseThrow(()-> new EntityNotFoundException("member cannot be found"));
 
-        //나와 상대방이 1:1채팅에 이미 참석하고 있다면 해당 roomId return
-        Optional<ChatRoom> chatRoom = chatParticipantRepository.findExistingPrivateRoom(member.getId(), otherMember.getId());
+        //나와 상대방이 1:1채팅에 이미 참석하고 있다면 해당 roomId return (unique 키 point read)
+        String pairKey = privatePairKey(member.getId(), otherMember.getId());
+        Optional<ChatRoom> chatRoom = chatRoomRepository.findByPrivatePairKey(pairKey);
         if(chatRoom.isPresent()){
             return chatRoom.get().getId();
         }
-        //만약에 1:1 채팅방에 없을 경우 기존 채팅방 개설
-        ChatRoom newRoom = ChatRoom.builder()
-                .isGroupChat("N")
-                .name(member.getName() + "-" + otherMember.getName())
-                .build();
-        chatRoomRepository.save(newRoom);
-        //두사람 모두 참여자로 새롭개 추가
-        addParticipantToRoom(newRoom, member);
-        addParticipantToRoom(newRoom, otherMember);
+        //키가 도입되기 전에 만들어진 1:1 채팅방이면 키를 채워넣고 반환 (다음부터는 위의 point read로 조회됨)
+        Optional<ChatRoom> legacyRoom = chatParticipantRepository.findExistingPrivateRoom(member.getId(), otherMember.getId());
+        if(legacyRoom.isPresent()){
+            legacyRoom.get().assignPrivatePairKey(pairKey);
+            return legacyRoom.get().getId();
+        }
+        //만약에 1:1 채팅방에 없을 경우 채팅방 개설
+        //동시에 두 요청이 들어와도 unique 키 때문에 한쪽만 insert 되고, insert 한 쪽만 참여자를 추가
+        //공유 잠금 읽기는 다른 쪽 트랜잭션이 끝날 때까지 기다리므로, 참가자 수가 0이면 이번 호출에서 만든 채팅방
+        chatRoomRepository.insertPrivateRoomIfAbsent(member.getName() + "-" + otherMember.getName(), pairKey, System.currentTimeMillis());
+        ChatRoom newRoom = chatRoomRepository.findByPrivatePairKeyForShare(pairKey).orElseThrow(()-> new EntityNotFoundException("room cannot be found"));
+        if(newRoom.getParticipantCount() == 0L){
+            //두사람 모두 참여자로 새롭개 추가
+            addParticipantToRoom(newRoom, member);
+            addParticipantToRoom(newRoom, otherMember);
+            readYourWritesTracker.markWrite(member.getEmail());
+        }
 
         return newRoom.getId();
     }
 
+    // LIKE 패턴의 특수문자(\\, %, _)를 이스케이프하여 접두어가 문자 그대로 비교되도록
+    private static String escapeLike(String value){
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    // 두 참가자 순서와 상관없이 같은 값이 나오도록 (작은 id, 큰 id) 순서로 만든 키
+    private static String privatePairKey(Long memberId, Long otherMemberId){
+        return Math.min(memberId, otherMemberId) + ":" + Math.max(memberId, otherMemberId);
+    }
+
 }
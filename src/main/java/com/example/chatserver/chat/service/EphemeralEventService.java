@@ -0,0 +1,126 @@
+package com.example.chatserver.chat.service;
+
+import com.example.chatserver.chat.dto.EphemeralEventDto;
+import com.example.chatserver.common.ratelimit.TokenBucket;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 입력 중 표시(typing)처럼 저장할 필요 없는 일회성 이벤트를 전달하는 서비스.
+ *
+ * - DB에 저장하지 않고 Redis "ephemeral" 채널로만 서버 간 전달 → 모든 서버가 /topic/{roomId}/ephemeral 로 전송
+ * - 같은 회원이 같은 방에 같은 종류의 이벤트를 coalesce-ms 안에 다시 보내면 합쳐서 버림 (키 입력마다 오는 typing)
+ * - 회원별 토큰 버킷으로 초당 전송 수 제한
+ * - 이벤트에 만료 시각(ttl-ms)을 넣어 Redis 지연 등으로 늦게 도착한 이벤트는 버림
+ */
+@Service
+@Log4j2
+public class EphemeralEventService implements MessageListener {
+
+    public static final String CHANNEL = "ephemeral";
+
+    private static final Pattern EVENT_TYPE = Pattern.compile("^[a-z][a-z-]{0,31}$");
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final SimpMessageSendingOperations messageTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final long coalesceMillis;
+
+    private final long ttlMillis;
+
+    private final double ratePerSecond;
+
+    private final double burst;
+
+    // "roomId:email:type" → 마지막으로 전달한 시각(ms)
+    private final Map<String, Long> lastSent = new ConcurrentHashMap<>();
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    public EphemeralEventService(@Qualifier("chatPubSub") StringRedisTemplate stringRedisTemplate, SimpMessageSendingOperations messageTemplate,
+                                 @Value("${chat.ephemeral.coalesce-ms:1000}") long coalesceMillis,
+                                 @Value("${chat.ephemeral.ttl-ms:5000}") long ttlMillis,
+                                 @Value("${chat.ephemeral.rate-per-second:5}") double ratePerSecond,
+                                 @Value("${chat.ephemeral.burst:10}") double burst) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.messageTemplate = messageTemplate;
+        this.coalesceMillis = coalesceMillis;
+        this.ttlMillis = ttlMillis;
+        this.ratePerSecond = ratePerSecond;
+        this.burst = burst;
+    }
+
+    /**
+     * @return 전달했으면 true, 합쳐지거나 제한에 걸려 버렸으면 false
+     */
+    public boolean send(Long roomId, String senderEmail, String type) {
+        if (type == null || !EVENT_TYPE.matcher(type).matches()) {
+            throw new IllegalArgumentException("잘못된 이벤트 종류입니다.");
+        }
+        long now = System.currentTimeMillis();
+        String key = roomId + ":" + senderEmail + ":" + type;
+        Long previous = lastSent.get(key);
+        if (previous != null && now - previous < coalesceMillis) {
+            return false;
+        }
+        TokenBucket bucket = buckets.computeIfAbsent(senderEmail, k -> new TokenBucket(burst, ratePerSecond));
+        if (!bucket.tryConsume()) {
+            log.debug("[EPHEMERAL] 전송 제한 - 사용자: {}", senderEmail);
+            return false;
+        }
+        lastSent.put(key, now);
+
+        EphemeralEventDto event = EphemeralEventDto.builder()
+                .roomId(roomId)
+                .type(type)
+                .senderEmail(senderEmail)
+                .expiresAt(now + ttlMillis)
+                .build();
+        try {
+            stringRedisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        return true;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            EphemeralEventDto event = objectMapper.readValue(message.getBody(), EphemeralEventDto.class);
+            if (event.getExpiresAt() != null && event.getExpiresAt() < System.currentTimeMillis()) {
+                return;
+            }
+            messageTemplate.convertAndSend("/topic/" + event.getRoomId() + "/ephemeral", event);
+        } catch (IOException e) {
+            log.warn("[EPHEMERAL] 잘못된 이벤트: {}", e.getMessage());
+        }
+    }
+
+    // 오래된 coalesce 기록과 사용하지 않는 버킷 정리
+    @Scheduled(fixedDelayString = "${chat.ephemeral.cleanup-ms:60000}")
+    public void cleanup() {
+        long cutoff = System.currentTimeMillis() - coalesceMillis;
+        lastSent.values().removeIf(sentAt -> sentAt < cutoff);
+        long idleNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(coalesceMillis, ttlMillis)) + TimeUnit.SECONDS.toNanos((long) Math.ceil(burst / ratePerSecond));
+        buckets.values().removeIf(bucket -> bucket.isIdle(idleNanos));
+    }
+}
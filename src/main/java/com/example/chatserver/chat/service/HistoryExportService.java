@@ -0,0 +1,75 @@
+package com.example.chatserver.chat.service;
+
+import com.example.chatserver.chat.dto.ChatMessageDto;
+import com.example.chatserver.chat.store.MessageStore;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 채팅방 전체 이력을 NDJSON(한 줄에 메시지 JSON 하나)으로 응답 스트림에 바로 쓰는 내보내기.
+ *
+ * - MessageStore.forEachHistory로 한 건씩 받아서 바로 쓰므로 채팅방 크기와 관계없이 메모리 사용량이 일정
+ *   (jpa 저장소는 DB 커서를 fetch size 단위로 읽음)
+ * - 버퍼가 찰 때만 응답으로 내보냄 (메시지마다 flush 하지 않음)
+ * - 클라이언트가 연결을 끊으면 다음 쓰기에서 IOException → 조회를 중단하고 커서/트랜잭션을 닫음
+ *
+ * 요청 스레드가 아닌 MVC 비동기 스레드에서 실행되므로 SecurityContext가 없다 → 권한 확인은 호출 전에 끝내야 함.
+ */
+@Service
+@Log4j2
+public class HistoryExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // 메시지마다 flush 하지 않도록
+    private final ObjectWriter writer = objectMapper.writerFor(ChatMessageDto.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+    private final MessageStore messageStore;
+
+    public HistoryExportService(MessageStore messageStore) {
+        this.messageStore = messageStore;
+    }
+
+    public void export(Long roomId, OutputStream outputStream, boolean gzip) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(outputStream, BUFFER_SIZE) : new BufferedOutputStream(outputStream, BUFFER_SIZE);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(target);
+        // 값 사이 구분자는 직접 쓰는 줄바꿈만 사용
+        generator.setRootValueSeparator(null);
+
+        long startedAt = System.currentTimeMillis();
+        long[] count = {0L};
+        try {
+            messageStore.forEachHistory(roomId, message -> {
+                try {
+                    writer.writeValue(generator, message);
+                    generator.writeRaw('\n');
+                    count[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.flush();
+            if (target instanceof GZIPOutputStream gzipOutputStream) {
+                gzipOutputStream.finish();
+            }
+        } catch (UncheckedIOException e) {
+            // 클라이언트 연결 끊김 등 IO 실패: forEachHistory가 중단되면서 커서를 닫음
+            log.info("[EXPORT] 내보내기 중단 - roomId: {}, {}건 전송 후: {}", roomId, count[0], e.getCause().getMessage());
+            throw e.getCause();
+        }
+        log.info("[EXPORT] 내보내기 완료 - roomId: {}, {}건, {}ms", roomId, count[0], System.currentTimeMillis() - startedAt);
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.chatserver.chat.service;
+
+import com.example.chatserver.chat.dto.HotRoomDto;
+import com.example.chatserver.common.sketch.CountMinSketch;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 지금 메시지가 가장 많은 채팅방(heavy hitters)을 고정된 메모리로 추적한다.
+ *
+ * - 슬라이딩 윈도우: bucket-ms 길이의 구간 buckets 개를 링으로 돌리며, 구간마다 count-min sketch 하나
+ *   → 윈도우 추정치 = 구간별 추정치의 합. 가장 오래된 구간은 비우고 새 구간으로 재사용 (메모리 일정)
+ * - 상위 top-k: 메시지 수 기준 최소 힙. 이미 후보인 채팅방은 sketch에 더하기만 하고 (락 없음),
+ *   후보가 아닌 채팅방은 추정치가 힙의 최솟값(admissionThreshold)을 넘을 때만 락을 잡고 교체
+ *   → 후보의 개수는 구간 교체 때 sketch에서 다시 계산 (그 사이 최솟값이 낮게 보여 밀려난 채팅방은 다음 메시지에서 다시 들어옴)
+ * - 메시지 수: Redis 수신(onMessage) 기준 → 모든 서버가 클러스터 전체 메시지를 한 번씩 셈
+ *   전달 수/바이트: 이 서버의 아웃바운드 채널에서 구독자 세션에 쓴 메시지 기준
+ *
+ * 아웃바운드 인터셉터가 이 컴포넌트를 쓰므로 브로커 설정에 의존하는 빈(PresenceService 등)을 주입받지 않는다 (순환 참조).
+ * 상위 채팅방은 /admin/rooms/hot 과 chat.room.messages.rate{roomId} 게이지로 내보낸다.
+ */
+@Component
+public class HotRoomTracker {
+
+    private final CountMinSketch[] messages;
+
+    private final CountMinSketch[] deliveries;
+
+    private final CountMinSketch[] bytes;
+
+    private final int topK;
+
+    private final double windowSeconds;
+
+    // 현재 구간 index (링)
+    private volatile int current = 0;
+
+    // 상위 후보: roomId → 윈도우 메시지 수 추정치 (heap과 함께 heapLock 안에서만 수정)
+    private final Map<Long, Candidate> candidates = new ConcurrentHashMap<>();
+
+    private final PriorityQueue<Candidate> heap = new PriorityQueue<>(Comparator.comparingLong(Candidate::count));
+
+    private final Object heapLock = new Object();
+
+    // 힙이 가득 찼을 때 새 채팅방이 들어오기 위한 최소 추정치 (락 없이 먼저 비교)
+    private volatile long admissionThreshold = 0L;
+
+    private final MultiGauge hotRoomGauge;
+
+    private record Candidate(long roomId, long count) {
+    }
+
+    public HotRoomTracker(MeterRegistry meterRegistry,
+                          @Value("${chat.hot-rooms.top-k:20}") int topK,
+                          @Value("${chat.hot-rooms.buckets:6}") int buckets,
+                          @Value("${chat.hot-rooms.bucket-ms:10000}") long bucketMillis,
+                          @Value("${chat.hot-rooms.sketch-depth:4}") int sketchDepth,
+                          @Value("${chat.hot-rooms.sketch-width:2048}") int sketchWidth) {
+        this.topK = topK;
+        this.windowSeconds = buckets * bucketMillis / 1000.0;
+        this.messages = ring(buckets, sketchDepth, sketchWidth);
+        this.deliveries = ring(buckets, sketchDepth, sketchWidth);
+        this.bytes = ring(buckets, sketchDepth, sketchWidth);
+        this.hotRoomGauge = MultiGauge.builder("chat.room.messages.rate")
+                .description("messages per second of the busiest rooms in the sliding window")
+                .register(meterRegistry);
+        Gauge.builder("chat.room.hot.sketch.bytes", this, t -> 3.0 * buckets * t.messages[0].sizeInBytes()).register(meterRegistry);
+    }
+
+    // 채팅 메시지 한 건 (Redis 수신 경로)
+    public void recordMessage(Long roomId) {
+        messages[current].add(roomId, 1L);
+        if (candidates.containsKey(roomId)) {
+            return;
+        }
+        long estimate = windowEstimate(messages, roomId);
+        if (estimate > admissionThreshold) {
+            offer(roomId, estimate);
+        }
+    }
+
+    // 구독자 세션 하나에 메시지를 쓴 것 (아웃바운드 경로)
+    public void recordDelivery(Long roomId, int payloadBytes) {
+        int index = current;
+        deliveries[index].add(roomId, 1L);
+        bytes[index].add(roomId, payloadBytes);
+    }
+
+    /**
+     * 메시지 수 기준 상위 채팅방을 많은 순서로 반환한다.
+     */
+    public List<HotRoomDto> getHotRooms() {
+        List<Candidate> top;
+        synchronized (heapLock) {
+            top = new ArrayList<>(heap);
+        }
+        List<HotRoomDto> hotRooms = new ArrayList<>(top.size());
+        for (Candidate candidate : top) {
+            long roomId = candidate.roomId();
+            hotRooms.add(HotRoomDto.builder()
+                    .roomId(roomId)
+                    .messagesPerSecond(windowEstimate(messages, roomId) / windowSeconds)
+                    .deliveriesPerSecond(windowEstimate(deliveries, roomId) / windowSeconds)
+                    .bytesPerSecond(windowEstimate(bytes, roomId) / windowSeconds)
+                    .build());
+        }
+        hotRooms.sort(Comparator.comparing(HotRoomDto::getMessagesPerSecond).reversed());
+        return hotRooms;
+    }
+
+    // 구간 교체: 가장 오래된 구간을 비워 새 구간으로 쓰고, 후보 개수를 sketch에서 다시 계산
+    @Scheduled(fixedRateString = "${chat.hot-rooms.bucket-ms:10000}")
+    public void rotate() {
+        int next = (current + 1) % messages.length;
+        messages[next].clear();
+        deliveries[next].clear();
+        bytes[next].clear();
+        current = next;
+
+        List<MultiGauge.Row<?>> rows = new ArrayList<>();
+        synchronized (heapLock) {
+            List<Candidate> previous = new ArrayList<>(heap);
+            heap.clear();
+            candidates.clear();
+            for (Candidate candidate : previous) {
+                long count = windowEstimate(messages, candidate.roomId());
+                if (count > 0) {
+                    Candidate refreshed = new Candidate(candidate.roomId(), count);
+                    heap.add(refreshed);
+                    candidates.put(refreshed.roomId(), refreshed);
+                    rows.add(MultiGauge.Row.of(Tags.of("roomId", String.valueOf(refreshed.roomId())), count / windowSeconds));
+                }
+            }
+            updateThreshold();
+        }
+        // overwrite=true: 상위에서 빠진 채팅방의 게이지는 제거
+        hotRoomGauge.register(rows, true);
+    }
+
+    private void offer(long roomId, long estimate) {
+        synchronized (heapLock) {
+            if (candidates.containsKey(roomId)) {
+                return;
+            }
+            if (heap.size() >= topK) {
+                if (heap.peek().count() >= estimate) {
+                    return;
+                }
+                candidates.remove(heap.poll().roomId());
+            }
+            Candidate candidate = new Candidate(roomId, estimate);
+            heap.add(candidate);
+            candidates.put(roomId, candidate);
+            updateThreshold();
+        }
+    }
+
+    private void updateThreshold() {
+        admissionThreshold = heap.size() < topK ? 0L : heap.peek().count();
+    }
+
+    private static long windowEstimate(CountMinSketch[] ring, long roomId) {
+        long sum = 0L;
+        for (CountMinSketch sketch : ring) {
+            sum += sketch.estimate(roomId);
+        }
+        return sum;
+    }
+
+    private static CountMinSketch[] ring(int buckets, int depth, int width) {
+        CountMinSketch[] ring = new CountMinSketch[buckets];
+        for (int i = 0; i < buckets; i++) {
+            ring[i] = new CountMinSketch(depth, width);
+        }
+        return ring;
+    }
+}
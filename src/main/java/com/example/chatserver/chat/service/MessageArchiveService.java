@@ -0,0 +1,142 @@
+package com.example.chatserver.chat.service;
+
+import com.example.chatserver.chat.archive.ArchivedMessage;
+import com.example.chatserver.chat.archive.MessageSegmentStore;
+import com.example.chatserver.chat.repository.ChatMessageRepository;
+import com.example.chatserver.chat.repository.ReadStatusRepository;
+import com.example.chatserver.common.lock.ClusterJobLock;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * 보관 기간(retention-months)이 지난 달의 메시지를 chat_message 테이블에서 아카이브 세그먼트로 옮기는 작업.
+ *
+ * 채팅방 + 월 단위로 page-size 건씩:
+ *  1. 메시지 조회
+ *  2. 한 트랜잭션에서 세그먼트 저장(archive_segment) + 읽음상태, 메시지 삭제
+ * 세그먼트와 원본이 함께 커밋되거나 함께 롤백되므로 메시지가 유실되거나 두번 보이지 않는다.
+ * 1과 2 사이에 다른 곳에서 메시지가 지워졌으면(삭제 건수가 다름) 그 묶음은 롤백하고 다음 실행에서 다시 읽는다.
+ *
+ * 모든 서버에서 같은 cron으로 실행되므로 ClusterJobLock으로 한 서버만 실제로 실행한다.
+ *
+ * 아카이브된 메시지는 읽음 처리된 것으로 간주한다(안읽은 메시지 수에서 제외).
+ */
+@Service
+@Log4j2
+public class MessageArchiveService {
+
+    private final ChatMessageRepository chatMessageRepository;
+
+    private final ReadStatusRepository readStatusRepository;
+
+    private final MessageSegmentStore messageSegmentStore;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ClusterJobLock clusterJobLock;
+
+    private final boolean enabled;
+
+    private final int retentionMonths;
+
+    private final int pageSize;
+
+    private final Duration lockTtl;
+
+    private final ZoneId zoneId = ZoneId.systemDefault();
+
+    public MessageArchiveService(ChatMessageRepository chatMessageRepository, ReadStatusRepository readStatusRepository,
+                                 MessageSegmentStore messageSegmentStore, PlatformTransactionManager transactionManager,
+                                 ClusterJobLock clusterJobLock,
+                                 @Value("${chat.archive.enabled:true}") boolean enabled,
+                                 @Value("${chat.archive.retention-months:12}") int retentionMonths,
+                                 @Value("${chat.archive.page-size:5000}") int pageSize,
+                                 @Value("${chat.archive.lock-ttl-ms:3600000}") long lockTtlMillis) {
+        this.chatMessageRepository = chatMessageRepository;
+        this.readStatusRepository = readStatusRepository;
+        this.messageSegmentStore = messageSegmentStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clusterJobLock = clusterJobLock;
+        this.enabled = enabled;
+        this.retentionMonths = retentionMonths;
+        this.pageSize = pageSize;
+        this.lockTtl = Duration.ofMillis(lockTtlMillis);
+    }
+
+    @Scheduled(cron = "${chat.archive.cron:0 0 4 * * *}")
+    public void archiveColdMonths() {
+        if (!enabled) {
+            return;
+        }
+        if (!clusterJobLock.runExclusive("archive", lockTtl, this::archiveAll)) {
+            log.info("[ARCHIVE] 다른 서버가 실행 중이므로 건너뜀");
+        }
+    }
+
+    private void archiveAll() {
+        // 이번 달 포함 retention-months 개월은 hot, 그 이전 달부터 아카이브
+        YearMonth firstHotMonth = YearMonth.now(zoneId).minusMonths(retentionMonths - 1L);
+        long cutoff = startOf(firstHotMonth);
+
+        List<Long> roomIds = transactionTemplate.execute(status -> chatMessageRepository.findRoomIdsWithMessagesBefore(cutoff));
+        for (Long roomId : roomIds) {
+            Long oldest = transactionTemplate.execute(status -> chatMessageRepository.findOldestCreatedTime(roomId));
+            if (oldest == null) {
+                continue;
+            }
+            YearMonth month = YearMonth.from(Instant.ofEpochMilli(oldest).atZone(zoneId));
+            for (; month.isBefore(firstHotMonth); month = month.plusMonths(1)) {
+                try {
+                    archiveMonth(roomId, month);
+                } catch (RuntimeException e) {
+                    log.error("[ARCHIVE] 아카이브 실패 - roomId: {}, month: {}", roomId, month, e);
+                    return;
+                }
+            }
+        }
+    }
+
+    private void archiveMonth(Long roomId, YearMonth month) {
+        long from = startOf(month);
+        long to = startOf(month.plusMonths(1));
+        long afterId = 0L;
+        int archived = 0;
+        while (true) {
+            final long cursor = afterId;
+            List<ArchivedMessage> rows = transactionTemplate.execute(status ->
+                    chatMessageRepository.findArchiveRows(roomId, from, to, cursor, PageRequest.of(0, pageSize)));
+            if (rows.isEmpty()) {
+                break;
+            }
+            List<Long> ids = rows.stream().map(ArchivedMessage::getId).toList();
+            transactionTemplate.executeWithoutResult(status -> {
+                messageSegmentStore.write(roomId, month, rows);
+                readStatusRepository.deleteByChatMessageIds(ids);
+                int deleted = chatMessageRepository.deleteByIds(ids);
+                if (deleted != ids.size()) {
+                    throw new IllegalStateException("아카이브 도중 메시지가 변경됨 roomId=" + roomId + ", 조회 " + ids.size() + "건, 삭제 " + deleted + "건");
+                }
+            });
+            archived += rows.size();
+            afterId = ids.get(ids.size() - 1);
+        }
+        if (archived > 0) {
+            log.info("[ARCHIVE] roomId: {}, month: {} → {}건 아카이브", roomId, month, archived);
+        }
+    }
+
+    private long startOf(YearMonth month) {
+        return month.atDay(1).atStartOfDay(zoneId).toInstant().toEpochMilli();
+    }
+}
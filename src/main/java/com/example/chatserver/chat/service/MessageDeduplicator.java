@@ -0,0 +1,107 @@
+package com.example.chatserver.chat.service;
+
+import com.example.chatserver.common.dedup.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 클라이언트 메시지 id(clientMessageId) 기반 중복 전송 제거.
+ *
+ * - Redis: "dedup:{이메일}:{clientMessageId}" 를 SET NX + TTL(window-ms)로 선점 → 다른 서버로 재전송된 경우도 걸러냄
+ * - 로컬 블룸 필터: 이 서버에서 저장에 성공한 id를 기록(confirm). Redis 장애시에도 이 서버로 다시 온 재전송은 걸러냄
+ *   (블룸 필터는 현재/이전 두 세대를 window-ms 마다 교체하므로 메모리 사용량이 고정됨)
+ * 저장에 실패하면 release로 선점을 풀어 클라이언트 재시도가 중복으로 처리되지 않도록 한다.
+ * 블룸 필터에서는 항목을 지울 수 없으므로 저장에 성공한 뒤에만 기록한다.
+ * (Redis 장애 중에 저장이 끝나기 전에 도착한 재전송은 걸러지지 않음)
+ */
+@Component
+@Log4j2
+public class MessageDeduplicator {
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final Duration window;
+
+    private final long expectedPerWindow;
+
+    private final double falsePositiveProbability;
+
+    private volatile BloomFilter current;
+
+    private volatile BloomFilter previous;
+
+    private final Counter duplicateCounter;
+
+    public MessageDeduplicator(@Qualifier("chatPubSub") StringRedisTemplate stringRedisTemplate, MeterRegistry meterRegistry,
+                               @Value("${chat.dedup.window-ms:300000}") long windowMillis,
+                               @Value("${chat.dedup.expected-per-window:100000}") long expectedPerWindow,
+                               @Value("${chat.dedup.false-positive-probability:0.001}") double falsePositiveProbability) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.window = Duration.ofMillis(windowMillis);
+        this.expectedPerWindow = expectedPerWindow;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.current = new BloomFilter(expectedPerWindow, falsePositiveProbability);
+        this.previous = new BloomFilter(expectedPerWindow, falsePositiveProbability);
+        this.duplicateCounter = Counter.builder("chat.dedup.duplicates").register(meterRegistry);
+        Gauge.builder("chat.dedup.bloom.bytes", this, d -> d.current.sizeInBytes() + d.previous.sizeInBytes()).register(meterRegistry);
+        Gauge.builder("chat.dedup.bloom.fill", this, d -> d.current.fillRatio()).register(meterRegistry);
+    }
+
+    /**
+     * @return 처음 보는 메시지면 true (선점 성공), 중복이면 false
+     */
+    public boolean claim(String senderEmail, String clientMessageId) {
+        String key = senderEmail + ":" + clientMessageId;
+        try {
+            Boolean claimed = stringRedisTemplate.opsForValue().setIfAbsent(redisKey(key), "1", window);
+            if (Boolean.FALSE.equals(claimed)) {
+                duplicateCounter.increment();
+                return false;
+            }
+        } catch (RuntimeException e) {
+            // Redis를 쓸 수 없으면 로컬 블룸 필터로만 판단 (오탐시 메시지가 버려질 수 있음)
+            log.warn("[DEDUP] Redis 확인 실패, 로컬 필터로만 판단: {}", e.getMessage());
+            // 블룸 필터 조회는 이 경우에만 (정상 경로에서는 Redis 결과만으로 판단)
+            if (current.mightContain(key) || previous.mightContain(key)) {
+                duplicateCounter.increment();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 저장에 성공한 메시지를 로컬 블룸 필터에 기록한다. (Redis 장애시 이후 재전송을 걸러내는 용도)
+     */
+    public void confirm(String senderEmail, String clientMessageId) {
+        current.put(senderEmail + ":" + clientMessageId);
+    }
+
+    public void release(String senderEmail, String clientMessageId) {
+        try {
+            stringRedisTemplate.delete(redisKey(senderEmail + ":" + clientMessageId));
+        } catch (RuntimeException e) {
+            log.warn("[DEDUP] 선점 해제 실패: {}", e.getMessage());
+        }
+    }
+
+    // window-ms 마다 세대 교체: 기록된 id는 최소 window-ms 동안 유지됨
+    @Scheduled(fixedRateString = "${chat.dedup.window-ms:300000}", initialDelayString = "${chat.dedup.window-ms:300000}")
+    public void rotate() {
+        previous = current;
+        current = new BloomFilter(expectedPerWindow, falsePositiveProbability);
+    }
+
+    private static String redisKey(String key) {
+        return "dedup:" + key;
+    }
+}
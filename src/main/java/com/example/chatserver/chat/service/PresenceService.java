@@ -0,0 +1,319 @@
+package com.example.chatserver.chat.service;
+
+import com.example.chatserver.chat.dto.PresenceEventDto;
+import com.example.chatserver.common.redis.RedisPipeline;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 클러스터 전체의 접속 상태(presence)를 Redis에 관리하는 서비스.
+ *
+ * Redis 구조 (값은 모두 만료 시각(ms)을 score로 갖는 ZSET)
+ * - presence:member:{email} : 이 회원의 STOMP 세션들 ("서버id:세션id") → 회원 한명이 여러 기기로 접속 가능
+ * - presence:room:{roomId}  : 이 채팅방(/topic/{roomId})을 구독 중인 회원 이메일
+ * score가 현재 시각보다 크면 접속 중. 각 서버는 heartbeat-ms 마다 자기 세션의 만료 시각을 ttl-ms 뒤로 갱신하므로
+ * 서버가 죽어도 ttl-ms 뒤에는 자연스럽게 접속 종료로 처리된다.
+ *
+ * 접속/종료 변경은 채팅방별로 모아두었다가 debounce-ms 마다 한번에 처리하며,
+ * 모으기 시작한 시점의 상태와 비교해 실제로 바뀐 회원만 보낸다.
+ * (재접속처럼 끊겼다가 바로 다시 들어온 경우 이벤트가 나가지 않음)
+ * 이벤트는 Redis "presence" 채널로 발행하고, 모든 서버가 받아서 자기 구독자에게 /topic/{roomId}/presence 로 전달한다.
+ *
+ * heartbeat와 flush는 전용 스레드(presence-heartbeat, presence-flush)에서 실행한다.
+ * @Scheduled 공용 스케줄러를 쓰면 아카이브/정리/컴팩션 같은 긴 작업이 도는 동안 heartbeat가 밀려
+ * ttl-ms를 넘기면 접속 중인 회원이 모두 종료로 처리되기 때문이다.
+ */
+@Service
+@Log4j2
+public class PresenceService implements MessageListener, DisposableBean {
+
+    public static final String CHANNEL = "presence";
+
+    // STOMP 세션 속성: CONNECT에서 검증한 회원 이메일 (StompHandler가 저장)
+    public static final String EMAIL_ATTRIBUTE = "chat.email";
+
+    private static final Pattern CHAT_TOPIC = Pattern.compile("^/topic/(\\d+)$");
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final SimpMessageSendingOperations messageTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final long ttlMillis;
+
+    // 이 서버에 연결된 세션: 세션id → (이메일, 구독id → roomId)
+    private final Map<String, LocalSession> sessions = new ConcurrentHashMap<>();
+
+    // 디바운스 구간 동안 상태가 바뀐 회원: roomId → (이메일 → 처음 바뀌기 전 접속 여부)
+    private final Map<Long, Map<String, Boolean>> pendingChanges = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService heartbeatScheduler;
+
+    private final ScheduledExecutorService flushScheduler;
+
+    private static class LocalSession {
+        private final String email;
+        private final Map<String, Long> subscriptions = new ConcurrentHashMap<>();
+
+        private LocalSession(String email) {
+            this.email = email;
+        }
+    }
+
+    public PresenceService(@Qualifier("chatPubSub") StringRedisTemplate stringRedisTemplate, SimpMessageSendingOperations messageTemplate,
+                           @Value("${chat.presence.ttl-ms:30000}") long ttlMillis,
+                           @Value("${chat.presence.heartbeat-ms:10000}") long heartbeatMillis,
+                           @Value("${chat.presence.debounce-ms:500}") long debounceMillis) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.messageTemplate = messageTemplate;
+        this.ttlMillis = ttlMillis;
+        this.heartbeatScheduler = Executors.newSingleThreadScheduledExecutor(daemon("presence-heartbeat"));
+        heartbeatScheduler.scheduleWithFixedDelay(this::heartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        this.flushScheduler = Executors.newSingleThreadScheduledExecutor(daemon("presence-flush"));
+        flushScheduler.scheduleWithFixedDelay(this::flush, debounceMillis, debounceMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return r -> {
+            Thread thread = new Thread(r, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public void connected(String sessionId, String email) {
+        if (sessionId == null || email == null) {
+            return;
+        }
+        sessions.put(sessionId, new LocalSession(email));
+        String memberKey = memberKey(email);
+        stringRedisTemplate.opsForZSet().add(memberKey, sessionKey(sessionId), System.currentTimeMillis() + ttlMillis);
+        stringRedisTemplate.expire(memberKey, ttlMillis * 2, TimeUnit.MILLISECONDS);
+    }
+
+    public void subscribed(String sessionId, String subscriptionId, String destination) {
+        LocalSession session = sessions.get(sessionId);
+        Long roomId = chatRoomId(destination);
+        if (session == null || roomId == null || subscriptionId == null) {
+            return;
+        }
+        session.subscriptions.put(subscriptionId, roomId);
+        recordChange(roomId, session.email);
+        String roomKey = roomKey(roomId);
+        stringRedisTemplate.opsForZSet().add(roomKey, session.email, System.currentTimeMillis() + ttlMillis);
+        stringRedisTemplate.expire(roomKey, ttlMillis * 2, TimeUnit.MILLISECONDS);
+    }
+
+    public void unsubscribed(String sessionId, String subscriptionId) {
+        LocalSession session = sessions.get(sessionId);
+        if (session == null || subscriptionId == null) {
+            return;
+        }
+        Long roomId = session.subscriptions.remove(subscriptionId);
+        if (roomId != null) {
+            leaveRoom(session.email, roomId, false);
+        }
+    }
+
+    public void disconnected(String sessionId) {
+        LocalSession session = sessionId == null ? null : sessions.remove(sessionId);
+        if (session == null) {
+            return;
+        }
+        stringRedisTemplate.opsForZSet().remove(memberKey(session.email), sessionKey(sessionId));
+        boolean otherSessionAlive = isMemberOnline(session.email);
+        for (Long roomId : new HashSet<>(session.subscriptions.values())) {
+            leaveRoom(session.email, roomId, otherSessionAlive);
+        }
+    }
+
+    // 이 서버의 세션이 채팅방(/topic/{roomId})을 구독 중인지 (구독은 StompHandler에서 참여자 검증을 거침)
+    public boolean isSubscribed(String sessionId, Long roomId) {
+        LocalSession session = sessionId == null ? null : sessions.get(sessionId);
+        return session != null && session.subscriptions.containsValue(roomId);
+    }
+
+    // 클러스터 전체 기준 채팅방 접속자 수
+    public long getOnlineCount(Long roomId) {
+        Long count = stringRedisTemplate.opsForZSet().count(roomKey(roomId), System.currentTimeMillis(), Double.POSITIVE_INFINITY);
+        return count == null ? 0L : count;
+    }
+
+    // 어느 서버에든 살아있는 세션이 하나라도 있으면 접속 중
+    public boolean isMemberOnline(String email) {
+        Long count = stringRedisTemplate.opsForZSet().count(memberKey(email), System.currentTimeMillis(), Double.POSITIVE_INFINITY);
+        return count != null && count > 0;
+    }
+
+    private void leaveRoom(String email, Long roomId, boolean otherSessionAlive) {
+        // 같은 회원의 다른 로컬 세션이 아직 이 채팅방을 구독 중이면 그대로 유지
+        for (LocalSession other : sessions.values()) {
+            if (other.email.equals(email) && other.subscriptions.containsValue(roomId)) {
+                return;
+            }
+        }
+        // 다른 서버의 세션이 살아있으면 그 세션이 이 방을 구독 중인지 알 수 없으므로 지우지 않고 TTL에 맡김
+        // (구독 중이면 그 서버의 heartbeat가 갱신하고, 아니면 만료된 뒤 sweep에서 종료 처리)
+        if (otherSessionAlive) {
+            return;
+        }
+        recordChange(roomId, email);
+        stringRedisTemplate.opsForZSet().remove(roomKey(roomId), email);
+    }
+
+    // 디바운스 구간에서 처음 바뀔 때의 상태만 기억
+    private void recordChange(Long roomId, String email) {
+        Map<String, Boolean> changes = pendingChanges.computeIfAbsent(roomId, k -> new ConcurrentHashMap<>());
+        if (!changes.containsKey(email)) {
+            changes.putIfAbsent(email, isOnline(roomId, email));
+        }
+    }
+
+    private boolean isOnline(Long roomId, String email) {
+        Double expiresAt = stringRedisTemplate.opsForZSet().score(roomKey(roomId), email);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    /**
+     * 이 서버 세션들의 만료 시각 갱신 (pipeline으로 한번에 전송) 후,
+     * 이 서버에 구독자가 있는 채팅방에서 만료된(heartbeat가 끊긴) 회원을 정리
+     */
+    void heartbeat() {
+        if (sessions.isEmpty()) {
+            return;
+        }
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        Set<Long> localRooms = new HashSet<>();
+        try {
+            RedisPipeline.execute(stringRedisTemplate, redis -> sessions.forEach((sessionId, session) -> {
+                redis.opsForZSet().add(memberKey(session.email), sessionKey(sessionId), expiresAt);
+                redis.expire(memberKey(session.email), ttlMillis * 2, TimeUnit.MILLISECONDS);
+                for (Long roomId : new HashSet<>(session.subscriptions.values())) {
+                    redis.opsForZSet().add(roomKey(roomId), session.email, expiresAt);
+                    redis.expire(roomKey(roomId), ttlMillis * 2, TimeUnit.MILLISECONDS);
+                    localRooms.add(roomId);
+                }
+            }));
+            for (Long roomId : localRooms) {
+                sweep(roomId);
+            }
+        } catch (RuntimeException e) {
+            log.warn("[PRESENCE] heartbeat 실패: {}", e.getMessage());
+        }
+    }
+
+    private void sweep(Long roomId) {
+        String roomKey = roomKey(roomId);
+        Set<String> expired = stringRedisTemplate.opsForZSet().rangeByScore(roomKey, Double.NEGATIVE_INFINITY, System.currentTimeMillis());
+        if (expired == null) {
+            return;
+        }
+        for (String email : expired) {
+            // 여러 서버가 동시에 sweep 해도 실제로 지운 서버만 종료 이벤트를 보냄
+            Long removed = stringRedisTemplate.opsForZSet().remove(roomKey, email);
+            if (removed != null && removed > 0) {
+                pendingChanges.computeIfAbsent(roomId, k -> new ConcurrentHashMap<>()).putIfAbsent(email, true);
+            }
+        }
+    }
+
+    void flush() {
+        for (Long roomId : new ArrayList<>(pendingChanges.keySet())) {
+            Map<String, Boolean> changes = pendingChanges.remove(roomId);
+            if (changes == null) {
+                continue;
+            }
+            try {
+                publishChanges(roomId, changes);
+            } catch (JsonProcessingException | RuntimeException e) {
+                log.warn("[PRESENCE] 접속 상태 이벤트 발행 실패 - roomId: {}, {}", roomId, e.getMessage());
+            }
+        }
+    }
+
+    private void publishChanges(Long roomId, Map<String, Boolean> changes) throws JsonProcessingException {
+        List<String> online = new ArrayList<>();
+        List<String> offline = new ArrayList<>();
+        changes.forEach((email, wasOnline) -> {
+            boolean nowOnline = isOnline(roomId, email);
+            if (nowOnline && !wasOnline) {
+                online.add(email);
+            } else if (!nowOnline && wasOnline) {
+                offline.add(email);
+            }
+        });
+        if (online.isEmpty() && offline.isEmpty()) {
+            return;
+        }
+        PresenceEventDto event = PresenceEventDto.builder()
+                .roomId(roomId)
+                .onlineCount(getOnlineCount(roomId))
+                .online(online)
+                .offline(offline)
+                .build();
+        stringRedisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(event));
+    }
+
+    @Override
+    public void destroy() {
+        heartbeatScheduler.shutdownNow();
+        flushScheduler.shutdownNow();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            PresenceEventDto event = objectMapper.readValue(message.getBody(), PresenceEventDto.class);
+            messageTemplate.convertAndSend("/topic/" + event.getRoomId() + "/presence", event);
+        } catch (IOException e) {
+            log.warn("[PRESENCE] 잘못된 접속 상태 이벤트: {}", e.getMessage());
+        }
+    }
+
+    private static Long chatRoomId(String destination) {
+        if (destination == null) {
+            return null;
+        }
+        Matcher matcher = CHAT_TOPIC.matcher(destination);
+        return matcher.matches() ? Long.parseLong(matcher.group(1)) : null;
+    }
+
+    private String sessionKey(String sessionId) {
+        return nodeId + ":" + sessionId;
+    }
+
+    private static String memberKey(String email) {
+        return "presence:member:" + email;
+    }
+
+    private static String roomKey(Long roomId) {
+        return "presence:room:" + roomId;
+    }
+}
@@ -1,14 +1,22 @@
 package com.example.chatserver.chat.service;
 
+import com.example.chatserver.chat.codec.ChatMessageCodec;
 import com.example.chatserver.chat.dto.ChatMessageDto;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.chatserver.common.metrics.ChatMetrics;
+import com.example.chatserver.common.tracing.MessageTracer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.connection.Message;
 import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
 @Service
 public class RedisPubSubService implements MessageListener {
 
@@ -16,28 +24,65 @@ public class RedisPubSubService implements MessageListener {
 
     private final SimpMessageSendingOperations messageTemplate;
 
-    public RedisPubSubService(StringRedisTemplate stringRedisTemplate, SimpMessageSendingOperations messageTemplate) {
+    private final ChatMessageCodec chatMessageCodec;
+
+    private final ChatMetrics chatMetrics;
+
+    private final HotRoomTracker hotRoomTracker;
+
+    private final MessageTracer messageTracer;
+
+    // 서버 간 전달 형식: json(기본) | cbor. 수신 쪽은 형식을 자동으로 판별하므로 서버마다 달라도 됨
+    private final boolean redisCbor;
+
+    public RedisPubSubService(StringRedisTemplate stringRedisTemplate, SimpMessageSendingOperations messageTemplate, ChatMessageCodec chatMessageCodec,
+                              ChatMetrics chatMetrics, HotRoomTracker hotRoomTracker, MessageTracer messageTracer, @Value("${chat.redis.encoding:json}") String redisEncoding) {
         this.stringRedisTemplate = stringRedisTemplate;
         this.messageTemplate = messageTemplate;
+        this.chatMessageCodec = chatMessageCodec;
+        this.chatMetrics = chatMetrics;
+        this.hotRoomTracker = hotRoomTracker;
+        this.messageTracer = messageTracer;
+        this.redisCbor = "cbor".equalsIgnoreCase(redisEncoding);
     }
 
-    public void publish(String channel, String message) {
-        stringRedisTemplate.convertAndSend(channel, message);
+    public void publish(String channel, ChatMessageDto chatMessageDto) {
+        byte[] payload = redisCbor ? chatMessageCodec.toRedisCbor(chatMessageDto) : chatMessageCodec.toJson(chatMessageDto);
+        byte[] rawChannel = channel.getBytes(StandardCharsets.UTF_8);
+        long startedAt = System.nanoTime();
+        chatMetrics.redisPublish().record(() -> {
+            stringRedisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(rawChannel, payload));
+        });
+        messageTracer.span(chatMessageDto.getTraceId(), "redis.publish", chatMessageDto.getRoomId(), startedAt);
     }
 
     @Override
     // pattern에는 topic의 이름의 패턴이 담겨있고, 이 패턴을 기반으로 다이나믹한 코딩
     public void onMessage(Message message, byte[] pattern) {
-        String payload = new String(message.getBody());
-        ObjectMapper objectMapper = new ObjectMapper();
-        ChatMessageDto chatMessageReqDto = null;
-        try {
-            chatMessageReqDto = objectMapper.readValue(payload, ChatMessageDto.class);
-            messageTemplate.convertAndSend("/topic/" + chatMessageReqDto.getRoomId(), chatMessageReqDto);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException(e);
-        }
-
+        // JSON/CBOR 어느 쪽으로 발행되었든 판별해서 읽고, 구독자에게는 기본(JSON)으로 전달
+        // (CBOR를 협상한 세션은 CborOutboundInterceptor가 세션별로 변환)
+        chatMetrics.redisReceive().record(() -> {
+            long startedAt = System.nanoTime();
+            ChatMessageDto chatMessageReqDto = chatMessageCodec.decode(message.getBody());
+            hotRoomTracker.recordMessage(chatMessageReqDto.getRoomId());
+            long fanoutStartedAt = System.nanoTime();
+            chatMetrics.brokerFanout().record(
+                    () -> messageTemplate.convertAndSend("/topic/" + chatMessageReqDto.getRoomId(), chatMessageReqDto, brokerHeaders(chatMessageReqDto)));
+            messageTracer.span(chatMessageReqDto.getTraceId(), "broker.fanout", chatMessageReqDto.getRoomId(), fanoutStartedAt);
+            messageTracer.span(chatMessageReqDto.getTraceId(), "redis.receive", chatMessageReqDto.getRoomId(), startedAt);
+        });
+    }
 
+    // sentAt, traceId를 STOMP 헤더가 아닌 메시지 헤더로 넘김 → 브로커가 구독자별 메시지에 복사하고 OutboundMetricsInterceptor가 읽음
+    private static Map<String, Object> brokerHeaders(ChatMessageDto chatMessageDto) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        if (chatMessageDto.getSentAt() != null) {
+            accessor.setHeader(ChatMetrics.SENT_AT_HEADER, chatMessageDto.getSentAt());
+        }
+        if (chatMessageDto.getTraceId() != null) {
+            accessor.setHeader(MessageTracer.TRACE_ID_HEADER, chatMessageDto.getTraceId());
+        }
+        accessor.setLeaveMutable(true);
+        return accessor.getMessageHeaders();
     }
 }
@@ -0,0 +1,77 @@
+package com.example.chatserver.chat.service;
+
+import com.example.chatserver.common.transaction.AfterCommit;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * 그룹 채팅방 목록(디렉토리)의 버전 카운터.
+ *
+ * 그룹 채팅방 생성/참여/나가기처럼 목록 내용이 바뀌는 변경이 커밋되면 Redis의 카운터를 1 증가시킨다.
+ * 모든 서버가 같은 카운터를 보므로, 목록 조회시 이 값으로 ETag를 만들어
+ * 클라이언트가 보낸 If-None-Match와 같으면 DB를 조회하지 않고 304로 응답할 수 있다.
+ *
+ * 카운터는 시작 시각(ms)에서 출발한다. Redis 재시작 등으로 키가 사라진 뒤 0부터 다시 세면
+ * 클라이언트가 예전에 받은 ETag와 같은 값이 나와 바뀐 목록 대신 304를 받을 수 있기 때문.
+ */
+@Component
+@Log4j2
+public class RoomDirectoryVersion {
+
+    private static final String KEY = "chat:room-directory:version";
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public RoomDirectoryVersion(@Qualifier("chatPubSub") StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    // 키가 없을 때만 시작 시각으로 초기화 (다른 서버가 이미 올린 값은 유지)
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        try {
+            stringRedisTemplate.opsForValue().setIfAbsent(KEY, String.valueOf(System.currentTimeMillis()));
+        } catch (RuntimeException e) {
+            log.warn("room directory version seed failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 현재 버전 조회. Redis에 접근할 수 없으면 null을 반환하고, 호출하는 쪽은 ETag 없이 매번 조회한다.
+     */
+    public String current() {
+        try {
+            String version = stringRedisTemplate.opsForValue().get(KEY);
+            if (version != null) {
+                return version;
+            }
+            // 실행 중에 키가 사라진 경우: 다시 시작 시각으로 초기화하고, 동시에 초기화한 서버가 있으면 그 값을 사용
+            seed();
+            return stringRedisTemplate.opsForValue().get(KEY);
+        } catch (RuntimeException e) {
+            log.warn("room directory version read failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    // 커밋 전에 올리면 다른 요청이 새 버전으로 이전 목록을 받아 캐싱할 수 있으므로 커밋 이후에 증가
+    public void bump() {
+        AfterCommit.run(this::increment);
+    }
+
+    private void increment() {
+        try {
+            Long version = stringRedisTemplate.opsForValue().increment(KEY);
+            if (version != null && version == 1L) {
+                // 키가 없던 상태에서 증가됨 → 1부터 세지 않도록 현재 시각으로 올림
+                stringRedisTemplate.opsForValue().set(KEY, String.valueOf(System.currentTimeMillis()));
+            }
+        } catch (RuntimeException e) {
+            log.warn("room directory version bump failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.chatserver.chat.service;
+
+import com.example.chatserver.chat.repository.ChatMessageRepository;
+import com.example.chatserver.chat.repository.ChatRoomRepository;
+import com.example.chatserver.chat.repository.ReadStatusRepository;
+import com.example.chatserver.chat.search.MessageSearchIndex;
+import com.example.chatserver.common.lock.ClusterJobLock;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * 삭제 표시(isDeleted = "Y")된 채팅방의 읽음상태, 메시지, 채팅방 row를 백그라운드에서 정리하는 작업.
+ *
+ * - 엔티티를 로딩하지 않고 id 범위 단위 벌크 DELETE로 batch-size 건씩 삭제 (힙 사용량 일정)
+ * - 배치마다 별도 트랜잭션 → 락을 오래 잡지 않고, 중간에 서버가 내려가도 남은 row부터 다시 시작
+ *   (진행 상태는 DB의 isDeleted 표시와 남아있는 row 자체)
+ * - 배치 사이 pause-ms 만큼 쉬고, 한번 실행에 max-batches-per-run 개까지만 처리하여 쓰기 경로를 보호
+ *
+ * 모든 서버에서 같은 주기로 실행되므로 DB 정리는 ClusterJobLock으로 한 서버만 실제로 실행한다.
+ * 검색 인덱스는 서버마다 로컬에 있으므로, 정리가 끝난 채팅방 id를 Redis "room-purged" 채널로 발행하고
+ * 모든 서버(실행한 서버 포함)가 구독하여 자신의 인덱스에서 제거한다.
+ * (발행을 놓친 서버의 인덱스에는 문서가 남지만, 검색은 참여 중인 채팅방으로만 필터링하므로 결과에 나오지 않음)
+ */
+@Service
+@Log4j2
+public class RoomPurgeService implements MessageListener {
+
+    public static final String CHANNEL = "room-purged";
+
+    private static final String LOCK_NAME = "room-purge";
+
+    private final ChatRoomRepository chatRoomRepository;
+
+    private final ChatMessageRepository chatMessageRepository;
+
+    private final ReadStatusRepository readStatusRepository;
+
+    private final MessageSearchIndex messageSearchIndex;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ClusterJobLock clusterJobLock;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final int batchSize;
+
+    private final long pauseMillis;
+
+    private final int maxBatchesPerRun;
+
+    private final Duration lockTtl;
+
+    public RoomPurgeService(ChatRoomRepository chatRoomRepository, ChatMessageRepository chatMessageRepository, ReadStatusRepository readStatusRepository,
+                            MessageSearchIndex messageSearchIndex, PlatformTransactionManager transactionManager,
+                            ClusterJobLock clusterJobLock, @Qualifier("chatPubSub") StringRedisTemplate stringRedisTemplate,
+                            @Value("${chat.purge.batch-size:1000}") int batchSize,
+                            @Value("${chat.purge.pause-ms:200}") long pauseMillis,
+                            @Value("${chat.purge.max-batches-per-run:100}") int maxBatchesPerRun,
+                            @Value("${chat.purge.lock-ttl-ms:300000}") long lockTtlMillis) {
+        this.chatRoomRepository = chatRoomRepository;
+        this.chatMessageRepository = chatMessageRepository;
+        this.readStatusRepository = readStatusRepository;
+        this.messageSearchIndex = messageSearchIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clusterJobLock = clusterJobLock;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.lockTtl = Duration.ofMillis(lockTtlMillis);
+    }
+
+    @Scheduled(fixedDelayString = "${chat.purge.interval-ms:10000}")
+    public void purgeDeletedRooms() {
+        clusterJobLock.runExclusive(LOCK_NAME, lockTtl, this::purge);
+    }
+
+    private void purge() {
+        List<Long> roomIds = transactionTemplate.execute(status -> chatRoomRepository.findDeletedRoomIds());
+        int budget = maxBatchesPerRun;
+        for (Long roomId : roomIds) {
+            budget = purgeRoom(roomId, budget);
+            if (budget <= 0) {
+                // 남은 작업은 다음 실행에서 이어서 처리
+                return;
+            }
+        }
+    }
+
+    private int purgeRoom(Long roomId, int budget) {
+        // 읽음상태가 메시지를 FK로 참조하므로 읽음상태 → 메시지 → 채팅방 순서로 삭제
+        budget = deleteInBatches(roomId, budget, this::deleteReadStatusBatch);
+        budget = deleteInBatches(roomId, budget, this::deleteMessageBatch);
+        if (budget <= 0) {
+            return budget;
+        }
+        transactionTemplate.executeWithoutResult(status -> chatRoomRepository.deleteRoomById(roomId));
+        publishPurged(roomId);
+        log.info("[PURGE] 채팅방 정리 완료 - roomId: {}", roomId);
+        return budget - 1;
+    }
+
+    private void publishPurged(Long roomId) {
+        try {
+            stringRedisTemplate.convertAndSend(CHANNEL, String.valueOf(roomId));
+        } catch (RuntimeException e) {
+            // 다른 서버에는 전달되지 않지만 이 서버의 인덱스에서는 제거
+            log.warn("room purged publish failed - roomId: {}, {}", roomId, e.getMessage());
+            messageSearchIndex.deleteRoom(roomId);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody());
+        try {
+            messageSearchIndex.deleteRoom(Long.parseLong(body));
+        } catch (NumberFormatException e) {
+            log.warn("잘못된 채팅방 정리 메시지: {}", body);
+        }
+    }
+
+    private int deleteInBatches(Long roomId, int budget, BiFunction<Long, Integer, Integer> batch) {
+        while (budget > 0) {
+            Integer deleted = transactionTemplate.execute(status -> batch.apply(roomId, batchSize));
+            budget--;
+            if (deleted == null || deleted == 0) {
+                return budget;
+            }
+            pause();
+        }
+        return budget;
+    }
+
+    private int deleteReadStatusBatch(Long roomId, int size) {
+        List<Long> ids = readStatusRepository.findIdsByRoomId(roomId, PageRequest.of(0, size));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return readStatusRepository.deleteByRoomIdAndIdRange(roomId, ids.get(0), ids.get(ids.size() - 1));
+    }
+
+    private int deleteMessageBatch(Long roomId, int size) {
+        List<Long> ids = chatMessageRepository.findIdsByRoomId(roomId, PageRequest.of(0, size));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return chatMessageRepository.deleteByRoomIdAndIdRange(roomId, ids.get(0), ids.get(ids.size() - 1));
+    }
+
+    private void pause() {
+        if (pauseMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
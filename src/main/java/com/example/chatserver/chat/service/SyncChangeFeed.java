@@ -0,0 +1,100 @@
+package com.example.chatserver.chat.service;
+
+import com.example.chatserver.common.redis.RedisPipeline;
+import com.example.chatserver.common.transaction.AfterCommit;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회원별 변경 피드: "sync:member:{email}" ZSET에 변경이 있었던 roomId를 변경 시각(ms)을 score로 기록한다.
+ * /chat/sync 는 이 피드에서 since 이후 바뀐 채팅방만 골라 조회하므로 비용이 전체 이력이 아닌 변경량에 비례한다.
+ *
+ * - 새 메시지: 채팅방 참여자 전원의 피드에 기록 (pipeline 한번)
+ * - 읽음 처리, 참여/나가기: 해당 회원의 피드에만 기록
+ * - 커밋 이후에 기록하므로 피드의 시각은 항상 DB 반영 시각보다 늦다
+ * - 피드는 회원당 최대 max-rooms 개, retention-ms 동안만 유지
+ */
+@Component
+@Log4j2
+public class SyncChangeFeed {
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final long retentionMillis;
+
+    private final int maxRooms;
+
+    public SyncChangeFeed(@Qualifier("chatPubSub") StringRedisTemplate stringRedisTemplate,
+                          @Value("${chat.sync.retention-ms:604800000}") long retentionMillis,
+                          @Value("${chat.sync.max-rooms:500}") int maxRooms) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.retentionMillis = retentionMillis;
+        this.maxRooms = maxRooms;
+    }
+
+    public void roomChanged(Long roomId, Collection<String> emails) {
+        List<String> targets = List.copyOf(emails);
+        AfterCommit.run(() -> record(roomId, targets));
+    }
+
+    public void roomChanged(Long roomId, String email) {
+        roomChanged(roomId, List.of(email));
+    }
+
+    /**
+     * since 이후 변경된 roomId 목록. 피드에 since 시점까지의 기록이 남아있지 않으면(보관 기간 초과, 개수 제한으로 잘림) null
+     */
+    public Set<Long> changedSince(String email, long since) {
+        String key = feedKey(email);
+        if (since < System.currentTimeMillis() - retentionMillis) {
+            return null;
+        }
+        Long size = stringRedisTemplate.opsForZSet().zCard(key);
+        if (size != null && size >= maxRooms) {
+            Set<ZSetOperations.TypedTuple<String>> oldest = stringRedisTemplate.opsForZSet().rangeWithScores(key, 0, 0);
+            if (oldest != null && !oldest.isEmpty() && oldest.iterator().next().getScore() > since) {
+                return null;
+            }
+        }
+        Set<String> roomIds = stringRedisTemplate.opsForZSet().rangeByScore(key, since, Double.POSITIVE_INFINITY);
+        Set<Long> result = new HashSet<>();
+        if (roomIds != null) {
+            for (String roomId : roomIds) {
+                result.add(Long.parseLong(roomId));
+            }
+        }
+        return result;
+    }
+
+    private void record(Long roomId, List<String> emails) {
+        long now = System.currentTimeMillis();
+        try {
+            RedisPipeline.execute(stringRedisTemplate, redis -> {
+                for (String email : emails) {
+                    String key = feedKey(email);
+                    redis.opsForZSet().add(key, roomId.toString(), now);
+                    // 오래된 순으로 max-rooms 개를 넘는 항목 제거
+                    redis.opsForZSet().removeRange(key, 0, -(maxRooms + 1));
+                    redis.expire(key, retentionMillis, TimeUnit.MILLISECONDS);
+                }
+            });
+        } catch (RuntimeException e) {
+            // 피드 기록에 실패하면 해당 회원의 다음 sync가 변경을 놓칠 수 있으므로 로그로 남김
+            log.warn("[SYNC] 변경 피드 기록 실패 - roomId: {}, {}", roomId, e.getMessage());
+        }
+    }
+
+    private static String feedKey(String email) {
+        return "sync:member:" + email;
+    }
+}
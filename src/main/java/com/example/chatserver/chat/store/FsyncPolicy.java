@@ -0,0 +1,13 @@
+package com.example.chatserver.chat.store;
+
+/**
+ * 로그 저장소가 메모리 맵 내용을 디스크에 강제로 기록(fsync)하는 시점.
+ */
+public enum FsyncPolicy {
+    // append마다 기록: 가장 안전하지만 가장 느림
+    PER_MESSAGE,
+    // fsync-interval-ms 주기로 기록: 장애시 마지막 주기 만큼 유실 가능
+    INTERVAL,
+    // OS page cache에 맡김: 프로세스 장애에는 안전, OS 장애시 유실 가능
+    NONE;
+}
@@ -0,0 +1,125 @@
+package com.example.chatserver.chat.store;
+
+import com.example.chatserver.chat.archive.ArchivedMessage;
+import com.example.chatserver.chat.archive.MessageSegmentStore;
+import com.example.chatserver.chat.domain.ChatMessage;
+import com.example.chatserver.chat.domain.ChatParticipant;
+import com.example.chatserver.chat.domain.ChatRoom;
+import com.example.chatserver.chat.domain.ReadStatus;
+import com.example.chatserver.chat.dto.ChatMessageDto;
+import com.example.chatserver.chat.repository.ChatMessageRepository;
+import com.example.chatserver.chat.repository.ChatParticipantRepository;
+import com.example.chatserver.chat.repository.ReadStatusRepository;
+import com.example.chatserver.member.domain.Member;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * 기존 방식의 메시지 저장소: MySQL chat_message 테이블 + 참가자별 read_status.
+ * 보관 기간이 지난 메시지는 MessageArchiveService가 MessageSegmentStore로 옮기므로
+ * 이력 조회시 DB에서 모자란 만큼 아카이브에서 이어서 읽는다. (아카이브는 항상 DB보다 오래된 메시지)
+ * 삭제된 채팅방의 메시지는 RoomPurgeService가 정리한다.
+ */
+@Component
+@ConditionalOnProperty(name = "chat.message-store.type", havingValue = "jpa", matchIfMissing = true)
+public class JpaMessageStore implements MessageStore {
+
+    private final ChatMessageRepository chatMessageRepository;
+
+    private final ChatParticipantRepository chatParticipantRepository;
+
+    private final ReadStatusRepository readStatusRepository;
+
+    private final MessageSegmentStore messageSegmentStore;
+
+    public JpaMessageStore(ChatMessageRepository chatMessageRepository, ChatParticipantRepository chatParticipantRepository, ReadStatusRepository readStatusRepository, MessageSegmentStore messageSegmentStore) {
+        this.chatMessageRepository = chatMessageRepository;
+        this.chatParticipantRepository = chatParticipantRepository;
+        this.readStatusRepository = readStatusRepository;
+        this.messageSegmentStore = messageSegmentStore;
+    }
+
+    @Override
+    @Transactional
+    public Long append(ChatRoom chatRoom, Member sender, String content) {
+        //메시지 저장
+        ChatMessage chatMessage = ChatMessage.builder()
+                .chatRoom(chatRoom)
+                .member(sender)
+                .content(content)
+                .build();
+        chatMessageRepository.save(chatMessage);
+
+        //사용자별로 읽음 여부 저장
+        List<ChatParticipant> chatParticipants = chatParticipantRepository.findByChatRoom(chatRoom);
+        for(ChatParticipant c : chatParticipants){
+            ReadStatus readStatus = ReadStatus.builder()
+                    .chatRoom(chatRoom)
+                    .member(c.getMember()) //채팅방에 참여하고 있는 멤버들
+                    .chatMessage(chatMessage)
+                    .isRead(c.getMember().equals(sender)) // 메시지를 보낸 사람이면 메세지 읽음 처리
+                    .build();
+            readStatusRepository.save(readStatus);
+        }
+        return chatMessage.getId();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ChatMessageDto> readHistory(Long roomId, Long beforeId, int limit) {
+        long cursor = beforeId == null ? Long.MAX_VALUE : beforeId;
+        // DB의 최근 메시지 (최신 → 오래된 순서)
+        List<ChatMessageDto> recent = chatMessageRepository.findHistoryBefore(roomId, cursor, PageRequest.of(0, limit));
+        List<ChatMessageDto> chatMessageDtos = new ArrayList<>(limit);
+        if (recent.size() < limit) {
+            // DB에서 모자란 만큼 보관 기간이 지나 아카이브로 옮겨진 (더 오래된) 메시지
+            long archiveCursor = recent.isEmpty() ? cursor : recent.get(recent.size() - 1).getMessageId();
+            for (ArchivedMessage a : messageSegmentStore.readBefore(roomId, archiveCursor, limit - recent.size())) {
+                chatMessageDtos.add(ChatMessageDto.builder()
+                        .roomId(roomId)
+                        .message(a.getContent())
+                        .senderEmail(a.getSenderEmail())
+                        .messageId(a.getId())
+                        .build());
+            }
+        }
+        for (int i = recent.size() - 1; i >= 0; i--) {
+            chatMessageDtos.add(recent.get(i));
+        }
+        return chatMessageDtos;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ChatMessageDto> readSince(Long roomId, long since, int limit) {
+        // 아카이브는 보관 기간이 지난 메시지만 있으므로 DB에서만 조회
+        return chatMessageRepository.findSince(roomId, since, PageRequest.of(0, limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachHistory(Long roomId, Consumer<ChatMessageDto> consumer) {
+        messageSegmentStore.forEach(roomId, a -> consumer.accept(ChatMessageDto.builder()
+                .roomId(roomId)
+                .message(a.getContent())
+                .senderEmail(a.getSenderEmail())
+                .messageId(a.getId())
+                .build()));
+        // 커서로 fetch size 만큼씩 읽음, stream을 닫으면 남은 결과를 읽지 않고 커서를 닫음
+        try (Stream<ChatMessageDto> messages = chatMessageRepository.streamHistoryByRoomId(roomId)) {
+            messages.forEach(consumer);
+        }
+    }
+
+    @Override
+    public void deleteRoom(Long roomId) {
+        // isDeleted 표시된 채팅방은 RoomPurgeService가 배치로 삭제하므로 여기서는 할 일이 없음
+    }
+}
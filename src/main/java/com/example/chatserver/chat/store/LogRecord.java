@@ -0,0 +1,92 @@
+package com.example.chatserver.chat.store;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * 로그 레코드 한 건과 바이너리 인코딩.
+ *
+ * [int bodyLength][int crc32(body)][body]
+ * body = [byte type][long id][long roomId][long createdTime][int senderLen][sender][int contentLen][content]
+ *
+ * bodyLength가 0이면 (새로 매핑된 영역은 0으로 채워져 있음) 로그의 끝이다.
+ */
+record LogRecord(byte type, long id, long roomId, long createdTime, String sender, String content) {
+
+    static final byte TYPE_MESSAGE = 0;
+
+    // 채팅방 삭제 표시: 컴팩션 때 이 채팅방의 메시지 레코드를 제거 (닫힌 세그먼트에 있으면 tombstone 자신도 제거)
+    static final byte TYPE_TOMBSTONE = 1;
+
+    static final int HEADER_SIZE = 8;
+
+    byte[] encode() {
+        byte[] senderBytes = sender.getBytes(StandardCharsets.UTF_8);
+        byte[] contentBytes = content.getBytes(StandardCharsets.UTF_8);
+        int bodyLength = 1 + 8 + 8 + 8 + 4 + senderBytes.length + 4 + contentBytes.length;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + bodyLength);
+        buffer.putInt(bodyLength);
+        buffer.putInt(0); // crc 자리
+        buffer.put(type).putLong(id).putLong(roomId).putLong(createdTime);
+        buffer.putInt(senderBytes.length).put(senderBytes);
+        buffer.putInt(contentBytes.length).put(contentBytes);
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), HEADER_SIZE, bodyLength);
+        buffer.putInt(4, (int) crc.getValue());
+        return buffer.array();
+    }
+
+    /**
+     * position 위치의 레코드 본문 길이를 검증하여 반환한다. 끝이거나 손상된 레코드면 -1.
+     */
+    static int validLength(ByteBuffer buffer, int position, int limit) {
+        if (position + HEADER_SIZE > limit) {
+            return -1;
+        }
+        int bodyLength = buffer.getInt(position);
+        if (bodyLength <= 0 || position + HEADER_SIZE + bodyLength > limit) {
+            return -1;
+        }
+        CRC32 crc = new CRC32();
+        ByteBuffer body = buffer.duplicate();
+        body.position(position + HEADER_SIZE).limit(position + HEADER_SIZE + bodyLength);
+        crc.update(body);
+        if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+            return -1;
+        }
+        return bodyLength;
+    }
+
+    static byte typeAt(ByteBuffer buffer, int position) {
+        return buffer.get(position + HEADER_SIZE);
+    }
+
+    static long idAt(ByteBuffer buffer, int position) {
+        return buffer.getLong(position + HEADER_SIZE + 1);
+    }
+
+    static long roomIdAt(ByteBuffer buffer, int position) {
+        return buffer.getLong(position + HEADER_SIZE + 1 + 8);
+    }
+
+    static long createdTimeAt(ByteBuffer buffer, int position) {
+        return buffer.getLong(position + HEADER_SIZE + 1 + 8 + 8);
+    }
+
+    static LogRecord decode(ByteBuffer buffer, int position) {
+        ByteBuffer in = buffer.duplicate();
+        in.position(position + HEADER_SIZE);
+        byte type = in.get();
+        long id = in.getLong();
+        long roomId = in.getLong();
+        long createdTime = in.getLong();
+        byte[] senderBytes = new byte[in.getInt()];
+        in.get(senderBytes);
+        byte[] contentBytes = new byte[in.getInt()];
+        in.get(contentBytes);
+        return new LogRecord(type, id, roomId, createdTime,
+                new String(senderBytes, StandardCharsets.UTF_8), new String(contentBytes, StandardCharsets.UTF_8));
+    }
+}
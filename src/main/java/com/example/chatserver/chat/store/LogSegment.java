@@ -0,0 +1,113 @@
+package com.example.chatserver.chat.store;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 메모리 맵으로 열린 로그 세그먼트 파일 하나.
+ * 마지막(active) 세그먼트만 쓰기 가능하고, 이전 세그먼트는 읽기 전용으로 매핑한다.
+ */
+class LogSegment {
+
+    private final Path path;
+
+    private final MappedByteBuffer buffer;
+
+    private final boolean writable;
+
+    // 여기까지가 완전히 기록된 레코드 (읽는 쪽은 이 값까지만 읽음)
+    private volatile int writePosition;
+
+    private LogSegment(Path path, MappedByteBuffer buffer, boolean writable) {
+        this.path = path;
+        this.buffer = buffer;
+        this.writable = writable;
+    }
+
+    static LogSegment open(Path path, int segmentSize, boolean writable) throws IOException {
+        try (FileChannel channel = writable
+                ? FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ)) {
+            // 채널을 닫아도 매핑은 GC될 때까지 유효함
+            MappedByteBuffer buffer = writable
+                    ? channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(segmentSize, channel.size()))
+                    : channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            LogSegment segment = new LogSegment(path, buffer, writable);
+            segment.writePosition = segment.recover();
+            return segment;
+        }
+    }
+
+    /**
+     * 처음부터 레코드를 검증하며 따라가서, 마지막 정상 레코드의 끝 위치를 반환한다.
+     * 장애로 일부만 기록된 레코드는 crc 검증에 실패하므로 그 위치부터 덮어쓰게 된다.
+     */
+    private int recover() {
+        int position = 0;
+        int limit = buffer.capacity();
+        while (true) {
+            int bodyLength = LogRecord.validLength(buffer, position, limit);
+            if (bodyLength < 0) {
+                break;
+            }
+            position += LogRecord.HEADER_SIZE + bodyLength;
+        }
+        // 손상된 꼬리 부분을 0으로 지워 다음 복구 때 잘못 읽히지 않도록 함
+        if (writable) {
+            for (int i = position; i < Math.min(limit, position + LogRecord.HEADER_SIZE); i++) {
+                buffer.put(i, (byte) 0);
+            }
+        }
+        return position;
+    }
+
+    boolean hasRoom(int length) {
+        return writable && writePosition + length + LogRecord.HEADER_SIZE <= buffer.capacity();
+    }
+
+    int append(byte[] record) {
+        int position = writePosition;
+        buffer.put(position, record);
+        writePosition = position + record.length;
+        return position;
+    }
+
+    void force(int position, int length) {
+        buffer.force(position, length);
+    }
+
+    void force() {
+        if (writable) {
+            buffer.force();
+        }
+    }
+
+    ByteBuffer readView() {
+        return buffer.duplicate();
+    }
+
+    int getWritePosition() {
+        return writePosition;
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    static long baseSequenceOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.indexOf('.')));
+    }
+
+    static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+        }
+    }
+}
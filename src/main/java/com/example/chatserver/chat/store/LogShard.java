@@ -0,0 +1,429 @@
+package com.example.chatserver.chat.store;
+
+import lombok.extern.log4j.Log4j2;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * 채팅방 shard 하나의 로그: 여러 세그먼트 파일({baseSeq}.log)로 구성된다.
+ *
+ * - append는 shard 단위로 직렬화 (synchronized), 읽기는 lock 없이 writePosition까지 읽음
+ * - 채팅방별 sparse index: 채팅방의 첫 레코드와 이후 index-interval 건마다 (세그먼트, 위치, 시각)을 기록
+ *   → 특정 채팅방/시점 이후 조회시 shard 전체가 아닌 해당 위치부터 스캔
+ *   → entry마다 구간(다음 entry 전까지)의 최소 id와 지금까지의 최대 id도 기록하여, 커서 이전 페이지는 뒤쪽 구간부터 거꾸로 스캔
+ * - 컴팩션/복구시 index는 새 map에 따로 만든 뒤 필드를 통째로 교체 → lock 없는 읽기는 항상 완성된 index만 봄
+ */
+@Log4j2
+class LogShard {
+
+    private final int shardNo;
+
+    private final int shardCount;
+
+    private final Path dir;
+
+    private final int segmentSize;
+
+    private final int indexInterval;
+
+    private final List<LogSegment> segments = new CopyOnWriteArrayList<>();
+
+    // 쓰기(append, 복구, 컴팩션)는 모두 synchronized 안에서, 읽기는 volatile 참조 하나로 lock 없이
+    private volatile Map<Long, RoomIndex> roomIndexes = new ConcurrentHashMap<>();
+
+    private final Set<Long> tombstones = ConcurrentHashMap.newKeySet();
+
+    private long nextSequence = 1;
+
+    private volatile boolean dirty;
+
+    // 마지막 컴팩션 시점의 닫힌 세그먼트 수와 tombstone 목록: 둘 다 그대로면 다시 스캔할 것이 없음
+    private int compactedSegments = -1;
+
+    private Set<Long> compactedTombstones = Set.of();
+
+    LogShard(int shardNo, int shardCount, Path dir, int segmentSize, int indexInterval) {
+        this.shardNo = shardNo;
+        this.shardCount = shardCount;
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        this.indexInterval = indexInterval;
+    }
+
+    /**
+     * 기존 세그먼트를 순서대로 열고(마지막 세그먼트만 쓰기 가능) 레코드를 스캔하여 index와 다음 sequence를 복구한다.
+     */
+    synchronized void open() throws IOException {
+        Files.createDirectories(dir);
+        List<Path> paths = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*.log")) {
+            stream.forEach(paths::add);
+        }
+        paths.sort(Comparator.comparingLong(LogSegment::baseSequenceOf));
+        for (int i = 0; i < paths.size(); i++) {
+            segments.add(LogSegment.open(paths.get(i), segmentSize, i == paths.size() - 1));
+        }
+        if (segments.isEmpty()) {
+            roll();
+        }
+        rebuildIndex();
+    }
+
+    synchronized long append(long roomId, String sender, String content, long createdTime, FsyncPolicy fsyncPolicy) {
+        return append(reserve(), roomId, sender, content, createdTime, fsyncPolicy);
+    }
+
+    /**
+     * 메시지 id만 먼저 정한다. 레코드는 나중에 append(id, ...)로 기록하고, 기록하지 않은 id는 빈 번호로 남는다.
+     */
+    synchronized long reserve() {
+        return nextSequence++ * shardCount + shardNo;
+    }
+
+    synchronized long append(long id, long roomId, String sender, String content, long createdTime, FsyncPolicy fsyncPolicy) {
+        return write(new LogRecord(LogRecord.TYPE_MESSAGE, id, roomId, createdTime, sender, content), fsyncPolicy);
+    }
+
+    synchronized void tombstone(long roomId, FsyncPolicy fsyncPolicy) {
+        write(new LogRecord(LogRecord.TYPE_TOMBSTONE, 0L, roomId, System.currentTimeMillis(), "", ""), fsyncPolicy);
+        tombstones.add(roomId);
+        roomIndexes.remove(roomId);
+    }
+
+    private long write(LogRecord record, FsyncPolicy fsyncPolicy) {
+        byte[] bytes = record.encode();
+        LogSegment segment = active();
+        if (!segment.hasRoom(bytes.length)) {
+            if (bytes.length + LogRecord.HEADER_SIZE > segmentSize) {
+                throw new IllegalArgumentException("메시지가 세그먼트 크기보다 큽니다.");
+            }
+            segment.force();
+            segment = roll();
+        }
+        int position = segment.append(bytes);
+        if (record.type() == LogRecord.TYPE_MESSAGE) {
+            index(roomIndexes, record.roomId(), record.id(), record.createdTime(), segment, position);
+        }
+        if (fsyncPolicy == FsyncPolicy.PER_MESSAGE) {
+            segment.force(position, bytes.length);
+        } else {
+            dirty = true;
+        }
+        return record.id();
+    }
+
+    private LogSegment roll() {
+        try {
+            // 다 쓴 세그먼트 파일의 뒤쪽 빈 영역을 잘라냄
+            // (기존 매핑 객체는 index가 참조하고 있으므로 그대로 두고, writePosition 이후는 읽지 않음)
+            if (!segments.isEmpty()) {
+                truncate(active());
+            }
+            long base = nextSequence;
+            if (!segments.isEmpty()) {
+                base = Math.max(base, LogSegment.baseSequenceOf(active().getPath()) + 1);
+            }
+            Path path = dir.resolve(String.format("%020d.log", base));
+            LogSegment segment = LogSegment.open(path, segmentSize, true);
+            segments.add(segment);
+            return segment;
+        } catch (IOException e) {
+            throw new IllegalStateException("로그 세그먼트 생성 실패: " + dir, e);
+        }
+    }
+
+    private void truncate(LogSegment segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment.getPath(), StandardOpenOption.WRITE)) {
+            channel.truncate(segment.getWritePosition());
+        }
+    }
+
+    private LogSegment active() {
+        return segments.get(segments.size() - 1);
+    }
+
+    // 새 채팅방의 RoomIndex는 첫 entry를 넣은 채로 map에 넣음 (빈 index가 scan에 보이지 않도록)
+    private void index(Map<Long, RoomIndex> target, long roomId, long id, long createdTime, LogSegment segment, int position) {
+        RoomIndex roomIndex = target.get(roomId);
+        if (roomIndex == null) {
+            target.put(roomId, new RoomIndex(segment, position, id, createdTime));
+        } else {
+            roomIndex.add(segment, position, id, createdTime, indexInterval);
+        }
+    }
+
+    /**
+     * roomId의 메시지 중 createdTime > since 인 것을 오래된 순서로 반환한다. (since = Long.MIN_VALUE 이면 전체)
+     */
+    List<LogRecord> read(long roomId, long since) {
+        List<LogRecord> result = new ArrayList<>();
+        scan(roomId, since, result::add);
+        return result;
+    }
+
+    // read와 같지만 목록을 만들지 않고 한 건씩 넘김 (내보내기처럼 채팅방 전체를 읽을 때 메모리 일정)
+    void scan(long roomId, long since, Consumer<LogRecord> consumer) {
+        scanWhile(roomId, since, record -> {
+            consumer.accept(record);
+            return true;
+        });
+    }
+
+    // scan과 같지만 visitor가 false를 반환하면 거기서 멈춤 (필요한 건수만 읽고 나머지 세그먼트는 스캔하지 않음)
+    void scanWhile(long roomId, long since, Predicate<LogRecord> visitor) {
+        RoomIndex roomIndex = roomIndexes.get(roomId);
+        if (roomIndex == null) {
+            return;
+        }
+        RoomIndex.Entry start = roomIndex.floor(since);
+        List<LogSegment> snapshot = List.copyOf(segments);
+        int segmentNo = snapshot.indexOf(start.segment());
+        if (segmentNo < 0) {
+            // 컴팩션으로 세그먼트가 교체된 직후: 처음부터 스캔
+            segmentNo = 0;
+        }
+        int position = snapshot.get(segmentNo) == start.segment() ? start.position() : 0;
+        for (; segmentNo < snapshot.size(); segmentNo++) {
+            LogSegment segment = snapshot.get(segmentNo);
+            ByteBuffer view = segment.readView();
+            int limit = segment.getWritePosition();
+            while (position < limit) {
+                int bodyLength = view.getInt(position);
+                if (LogRecord.typeAt(view, position) == LogRecord.TYPE_MESSAGE
+                        && LogRecord.roomIdAt(view, position) == roomId
+                        && LogRecord.createdTimeAt(view, position) > since
+                        && !visitor.test(LogRecord.decode(view, position))) {
+                    return;
+                }
+                position += LogRecord.HEADER_SIZE + bodyLength;
+            }
+            position = 0;
+        }
+    }
+
+    /**
+     * roomId의 메시지 중 id < beforeId 인 것을 index 구간 단위로 뒤에서부터 visitor에 넘긴다. (구간 안에서는 로그 순서)
+     * beforeId 미만 중 id가 큰 limit 건은 모두 넘기고, 앞쪽 구간에 그보다 큰 id가 남아 있지 않으면 멈춘다.
+     * 로그 순서와 id 순서가 조금 어긋날 수 있으므로 limit 건보다 많이 넘길 수 있음 (정렬/자르기는 호출자가)
+     */
+    void scanBefore(long roomId, long beforeId, int limit, Consumer<LogRecord> visitor) {
+        RoomIndex roomIndex = roomIndexes.get(roomId);
+        if (roomIndex == null || limit <= 0) {
+            return;
+        }
+        List<LogSegment> snapshot = List.copyOf(segments);
+        // 지금까지 넘긴 id 중 큰 limit 건 (멈출 시점 판단용)
+        PriorityQueue<Long> top = new PriorityQueue<>(limit + 1);
+        Set<Long> visited = new HashSet<>();
+        Consumer<LogRecord> collector = record -> {
+            visited.add(record.id());
+            top.add(record.id());
+            if (top.size() > limit) {
+                top.poll();
+            }
+            visitor.accept(record);
+        };
+        int size = roomIndex.size();
+        for (int i = size - 1; i >= 0; i--) {
+            RoomIndex.Entry entry = roomIndex.get(i);
+            if (entry.minId() < beforeId) {
+                RoomIndex.Entry next = i + 1 < size ? roomIndex.get(i + 1) : null;
+                if (!scanRange(snapshot, entry, next, roomId, beforeId, collector)) {
+                    // 컴팩션으로 세그먼트가 교체된 직후: 아직 넘기지 않은 것만 처음부터 스캔
+                    scan(roomId, Long.MIN_VALUE, record -> {
+                        if (record.id() < beforeId && !visited.contains(record.id())) {
+                            collector.accept(record);
+                        }
+                    });
+                    return;
+                }
+            }
+            if (top.size() == limit && (i == 0 || roomIndex.get(i - 1).maxIdUpTo() < top.peek())) {
+                return;
+            }
+        }
+    }
+
+    // from 위치부터 to 위치 전까지(to가 null이면 로그 끝까지) 스캔. 세그먼트를 snapshot에서 찾지 못하면 false
+    private boolean scanRange(List<LogSegment> snapshot, RoomIndex.Entry from, RoomIndex.Entry to,
+                              long roomId, long beforeId, Consumer<LogRecord> visitor) {
+        int segmentNo = snapshot.indexOf(from.segment());
+        int lastSegmentNo = to == null ? snapshot.size() - 1 : snapshot.indexOf(to.segment());
+        if (segmentNo < 0 || lastSegmentNo < 0) {
+            return false;
+        }
+        int position = from.position();
+        for (; segmentNo <= lastSegmentNo; segmentNo++) {
+            LogSegment segment = snapshot.get(segmentNo);
+            ByteBuffer view = segment.readView();
+            int limit = segmentNo == lastSegmentNo && to != null ? to.position() : segment.getWritePosition();
+            while (position < limit) {
+                int bodyLength = view.getInt(position);
+                if (LogRecord.typeAt(view, position) == LogRecord.TYPE_MESSAGE
+                        && LogRecord.roomIdAt(view, position) == roomId
+                        && LogRecord.idAt(view, position) < beforeId) {
+                    visitor.accept(LogRecord.decode(view, position));
+                }
+                position += LogRecord.HEADER_SIZE + bodyLength;
+            }
+            position = 0;
+        }
+        return true;
+    }
+
+    void flushIfDirty() {
+        if (dirty) {
+            dirty = false;
+            active().force();
+        }
+    }
+
+    synchronized void close() {
+        active().force();
+    }
+
+    /**
+     * 삭제된 채팅방의 메시지 레코드를 닫힌 세그먼트에서 제거한다.
+     * 새 파일(.compact)에 남길 레코드만 복사한 뒤 원자적으로 교체하고 index를 다시 만든다.
+     *
+     * tombstone 레코드도 닫힌 세그먼트에 있으면 같이 제거한다.
+     * 채팅방의 메시지는 모두 tombstone보다 앞(같거나 이전 세그먼트)에 있고, 세그먼트를 앞에서부터 처리하므로
+     * tombstone을 지우는 시점에는 그 채팅방의 메시지가 남아 있지 않다. (active 세그먼트의 tombstone은 다음 roll 이후에 제거)
+     */
+    synchronized void compact() throws IOException {
+        int closedSegments = segments.size() - 1;
+        if (tombstones.isEmpty() || (closedSegments == compactedSegments && tombstones.equals(compactedTombstones))) {
+            return;
+        }
+        boolean changed = false;
+        for (int i = 0; i < closedSegments; i++) {
+            LogSegment segment = segments.get(i);
+            ByteBuffer view = segment.readView();
+            int limit = segment.getWritePosition();
+            List<int[]> kept = new ArrayList<>();
+            boolean dropped = false;
+            for (int position = 0; position < limit; ) {
+                int length = LogRecord.HEADER_SIZE + view.getInt(position);
+                if (tombstones.contains(LogRecord.roomIdAt(view, position))) {
+                    dropped = true;
+                } else {
+                    kept.add(new int[]{position, length});
+                }
+                position += length;
+            }
+            if (!dropped) {
+                continue;
+            }
+            Path tmp = segment.getPath().resolveSibling(segment.getPath().getFileName() + ".compact");
+            try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                for (int[] record : kept) {
+                    ByteBuffer slice = view.duplicate();
+                    slice.position(record[0]).limit(record[0] + record[1]);
+                    while (slice.hasRemaining()) {
+                        out.write(slice);
+                    }
+                }
+                out.force(true);
+            }
+            Files.move(tmp, segment.getPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            segments.set(i, LogSegment.open(segment.getPath(), segmentSize, false));
+            changed = true;
+        }
+        if (changed) {
+            rebuildIndex();
+        }
+        compactedSegments = segments.size() - 1;
+        compactedTombstones = Set.copyOf(tombstones);
+    }
+
+    private void rebuildIndex() {
+        Map<Long, RoomIndex> rebuilt = new ConcurrentHashMap<>();
+        Set<Long> found = new HashSet<>();
+        long maxId = 0;
+        for (LogSegment segment : segments) {
+            ByteBuffer view = segment.readView();
+            int limit = segment.getWritePosition();
+            for (int position = 0; position < limit; position += LogRecord.HEADER_SIZE + view.getInt(position)) {
+                long roomId = LogRecord.roomIdAt(view, position);
+                if (LogRecord.typeAt(view, position) == LogRecord.TYPE_TOMBSTONE) {
+                    found.add(roomId);
+                    rebuilt.remove(roomId);
+                    continue;
+                }
+                // 삭제된 채팅방의 메시지 id도 다시 쓰지 않도록 sequence 계산에는 포함
+                maxId = Math.max(maxId, LogRecord.idAt(view, position));
+                if (found.contains(roomId) || tombstones.contains(roomId)) {
+                    continue;
+                }
+                index(rebuilt, roomId, LogRecord.idAt(view, position), LogRecord.createdTimeAt(view, position), segment, position);
+            }
+        }
+        roomIndexes = rebuilt;
+        // 컴팩션으로 tombstone 레코드까지 제거된 채팅방은 목록에서도 뺌
+        tombstones.retainAll(found);
+        tombstones.addAll(found);
+        nextSequence = Math.max(nextSequence, maxId / shardCount + 1);
+        log.info("[LOG-STORE] shard {} 복구 완료 - 세그먼트 {}개, 채팅방 {}개", shardNo, segments.size(), roomIndexes.size());
+    }
+
+    /**
+     * 채팅방 하나의 sparse index.
+     */
+    static class RoomIndex {
+
+        // minId: 이 entry부터 다음 entry 전까지 구간의 최소 id, maxIdUpTo: 첫 구간부터 이 구간까지의 최대 id
+        record Entry(LogSegment segment, int position, long createdTime, long minId, long maxIdUpTo) {
+        }
+
+        private final List<Entry> entries = new ArrayList<>();
+
+        private long count = 1;
+
+        RoomIndex(LogSegment segment, int position, long id, long createdTime) {
+            entries.add(new Entry(segment, position, createdTime, id, id));
+        }
+
+        synchronized void add(LogSegment segment, int position, long id, long createdTime, int interval) {
+            Entry last = entries.get(entries.size() - 1);
+            if (count++ % interval == 0) {
+                entries.add(new Entry(segment, position, createdTime, id, Math.max(last.maxIdUpTo(), id)));
+            } else if (id < last.minId() || id > last.maxIdUpTo()) {
+                entries.set(entries.size() - 1, new Entry(last.segment(), last.position(), last.createdTime(),
+                        Math.min(last.minId(), id), Math.max(last.maxIdUpTo(), id)));
+            }
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+
+        synchronized Entry get(int index) {
+            return entries.get(index);
+        }
+
+        // createdTime <= since 인 마지막 entry (없으면 첫 entry)부터 스캔하면 since 이후 레코드를 모두 포함
+        synchronized Entry floor(long since) {
+            int low = 0;
+            int high = entries.size() - 1;
+            int found = 0;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (entries.get(mid).createdTime() <= since) {
+                    found = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return entries.get(found);
+        }
+    }
+}
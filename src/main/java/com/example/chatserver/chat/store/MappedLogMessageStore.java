@@ -0,0 +1,187 @@
+package com.example.chatserver.chat.store;
+
+import com.example.chatserver.chat.domain.ChatRoom;
+import com.example.chatserver.chat.dto.ChatMessageDto;
+import com.example.chatserver.common.transaction.AfterCommit;
+import com.example.chatserver.member.domain.Member;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 채팅방 shard별 append-only 로그 저장소 (memory-mapped file).
+ *
+ * - roomId % shards 로 shard를 고르고, shard마다 {dir}/shard-{n}/{baseSeq}.log 세그먼트에 순서대로 기록
+ * - append: 메모리 맵에 레코드를 복사하는 것이 전부 → DB insert 대비 수 마이크로초 수준
+ * - 조회: 채팅방별 sparse index 위치부터 세그먼트를 스캔
+ * - fsync-policy: PER_MESSAGE / INTERVAL / NONE
+ * - 재시작시 세그먼트를 처음부터 스캔하며 crc 검증 → 손상된 꼬리는 버리고 index 복구
+ * - 삭제된 채팅방은 tombstone 레코드를 남기고, compaction 주기마다 닫힌 세그먼트에서 제거
+ * - 트랜잭션 안에서 호출되면 메시지 id만 먼저 정하고, 레코드(메시지, tombstone)는 커밋된 뒤에 기록
+ *   → 롤백된 메시지나 삭제가 로그에 남지 않음 (롤백된 id는 빈 번호로 남음)
+ *
+ * 주의: 읽음상태(read_status)는 JPA 저장소에서만 관리되므로 이 저장소를 쓰면 안읽은 메시지 수는 집계되지 않는다.
+ * 주의: 로그는 각 서버의 로컬 디스크에만 있다. 이력/sync/내보내기는 요청을 받은 서버의 로그만 읽으므로
+ *       여러 서버로 운영하면 다른 서버가 저장한 메시지는 보이지 않는다. 서버 한 대이거나 채팅방 단위로
+ *       항상 같은 서버로 보내는(sticky) 배치에서만 사용한다. 여러 서버가 함께 보는 저장소는 jpa.
+ */
+@Component
+@ConditionalOnProperty(name = "chat.message-store.type", havingValue = "log")
+@Log4j2
+public class MappedLogMessageStore implements MessageStore, DisposableBean {
+
+    private final LogShard[] shards;
+
+    private final FsyncPolicy fsyncPolicy;
+
+    private final ScheduledExecutorService fsyncScheduler;
+
+    public MappedLogMessageStore(@Value("${chat.message-store.log.dir:./message-log}") String dir,
+                                 @Value("${chat.message-store.log.shards:16}") int shardCount,
+                                 @Value("${chat.message-store.log.segment-size-mb:64}") int segmentSizeMb,
+                                 @Value("${chat.message-store.log.index-interval:64}") int indexInterval,
+                                 @Value("${chat.message-store.log.fsync-policy:INTERVAL}") FsyncPolicy fsyncPolicy,
+                                 @Value("${chat.message-store.log.fsync-interval-ms:200}") long fsyncIntervalMillis) throws IOException {
+        Path baseDir = Paths.get(dir);
+        this.fsyncPolicy = fsyncPolicy;
+        this.shards = new LogShard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new LogShard(i, shardCount, baseDir.resolve("shard-" + i), segmentSizeMb * 1024 * 1024, indexInterval);
+            shards[i].open();
+        }
+        if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+            this.fsyncScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "message-log-fsync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            fsyncScheduler.scheduleWithFixedDelay(this::flushAll, fsyncIntervalMillis, fsyncIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.fsyncScheduler = null;
+        }
+        log.info("[LOG-STORE] 메시지 로그 저장소 시작 - dir: {}, shards: {}, fsync: {}", baseDir, shardCount, fsyncPolicy);
+    }
+
+    @Override
+    public Long append(ChatRoom chatRoom, Member sender, String content) {
+        Long roomId = chatRoom.getId();
+        String senderEmail = sender.getEmail();
+        LogShard shard = shardOf(roomId);
+        long id = shard.reserve();
+        // 시각은 기록하는 시점 기준 (채팅방 index의 시각 순서 유지)
+        AfterCommit.run(() -> shard.append(id, roomId, senderEmail, content, System.currentTimeMillis(), fsyncPolicy));
+        return id;
+    }
+
+    @Override
+    public List<ChatMessageDto> readHistory(Long roomId, Long beforeId, int limit) {
+        // 채팅방의 뒤쪽 index 구간부터 거꾸로 읽어서 beforeId 미만 limit 건이 확정되면 멈춤 (깊은 페이지도 앞쪽 세그먼트는 읽지 않음)
+        // 커밋 순서대로 기록하므로 로그 순서와 id 순서가 조금 어긋날 수 있어 id 기준 heap 사용
+        long cursor = beforeId == null ? Long.MAX_VALUE : beforeId;
+        PriorityQueue<LogRecord> window = new PriorityQueue<>(limit + 1, Comparator.comparingLong(LogRecord::id));
+        shardOf(roomId).scanBefore(roomId, cursor, limit, record -> {
+            window.add(record);
+            if (window.size() > limit) {
+                window.poll();
+            }
+        });
+        List<LogRecord> page = new ArrayList<>(window);
+        page.sort(Comparator.comparingLong(LogRecord::id));
+        List<ChatMessageDto> chatMessageDtos = new ArrayList<>(page.size());
+        for (LogRecord record : page) {
+            chatMessageDtos.add(ChatMessageDto.builder()
+                    .roomId(roomId)
+                    .message(record.content())
+                    .senderEmail(record.sender())
+                    .messageId(record.id())
+                    .build());
+        }
+        return chatMessageDtos;
+    }
+
+    @Override
+    public List<ChatMessageDto> readSince(Long roomId, long since, int limit) {
+        // limit 건을 채우면 스캔을 멈춤 (since 이후가 많아도 나머지 세그먼트는 읽지 않음)
+        if (limit <= 0) {
+            return List.of();
+        }
+        List<ChatMessageDto> chatMessageDtos = new ArrayList<>(Math.min(limit, 256));
+        shardOf(roomId).scanWhile(roomId, since, record -> {
+            chatMessageDtos.add(ChatMessageDto.builder()
+                    .roomId(roomId)
+                    .message(record.content())
+                    .senderEmail(record.sender())
+                    .messageId(record.id())
+                    .build());
+            return chatMessageDtos.size() < limit;
+        });
+        return chatMessageDtos;
+    }
+
+    @Override
+    public void forEachHistory(Long roomId, Consumer<ChatMessageDto> consumer) {
+        // 내보내기는 채팅방 전체가 대상: index의 첫 entry(채팅방의 첫 레코드 위치)부터 읽으므로 그 앞의 shard 레코드는 건너뜀
+        shardOf(roomId).scan(roomId, Long.MIN_VALUE, record -> consumer.accept(ChatMessageDto.builder()
+                .roomId(roomId)
+                .message(record.content())
+                .senderEmail(record.sender())
+                .messageId(record.id())
+                .build()));
+    }
+
+    @Override
+    public void deleteRoom(Long roomId) {
+        AfterCommit.run(() -> shardOf(roomId).tombstone(roomId, fsyncPolicy));
+    }
+
+    @Scheduled(fixedDelayString = "${chat.message-store.log.compaction-interval-ms:600000}")
+    public void compact() {
+        for (LogShard shard : shards) {
+            try {
+                shard.compact();
+            } catch (IOException e) {
+                throw new UncheckedIOException("로그 컴팩션 실패", e);
+            }
+        }
+    }
+
+    private void flushAll() {
+        for (LogShard shard : shards) {
+            try {
+                shard.flushIfDirty();
+            } catch (RuntimeException e) {
+                log.error("[LOG-STORE] fsync 실패", e);
+            }
+        }
+    }
+
+    private LogShard shardOf(Long roomId) {
+        return shards[(int) Math.floorMod(roomId, (long) shards.length)];
+    }
+
+    @Override
+    public void destroy() {
+        if (fsyncScheduler != null) {
+            fsyncScheduler.shutdown();
+        }
+        for (LogShard shard : shards) {
+            shard.close();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.chatserver.chat.store;
+
+import com.example.chatserver.chat.domain.ChatRoom;
+import com.example.chatserver.chat.dto.ChatMessageDto;
+import com.example.chatserver.member.domain.Member;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 채팅 메시지 저장소 SPI.
+ * ChatService는 메시지 저장/이력 조회를 이 인터페이스를 통해서만 수행한다.
+ *
+ * 구현체 (chat.message-store.type)
+ *  - jpa (기본값) : JpaMessageStore       - MySQL chat_message + read_status, 아카이브 계층 포함
+ *  - log         : MappedLogMessageStore - 채팅방 shard별 메모리 맵 append-only 로그 (서버 로컬 디스크)
+ */
+public interface MessageStore {
+
+    /**
+     * 메시지를 저장하고 저장소가 부여한 메시지 id를 반환한다.
+     */
+    Long append(ChatRoom chatRoom, Member sender, String content);
+
+    /**
+     * 채팅방에서 id가 beforeId보다 작은 메시지 중 최신 limit 건을 오래된 순서로 반환한다. (messageId 포함)
+     * beforeId가 null이면 가장 최근 메시지부터. 다음 페이지는 받은 첫 메시지의 messageId를 beforeId로 넘긴다.
+     */
+    List<ChatMessageDto> readHistory(Long roomId, Long beforeId, int limit);
+
+    /**
+     * since(ms) 이후에 생성된 메시지를 오래된 순서로 최대 limit 건 반환한다. (messageId 포함)
+     */
+    List<ChatMessageDto> readSince(Long roomId, long since, int limit);
+
+    /**
+     * 채팅방의 전체 메시지를 오래된 순서로 한 건씩 consumer에 넘긴다. (messageId 포함)
+     * 전체 목록을 메모리에 만들지 않으므로 채팅방 크기와 관계없이 메모리 사용량이 일정하다.
+     * consumer가 던진 예외는 그대로 전파되고 조회는 중단된다.
+     */
+    void forEachHistory(Long roomId, Consumer<ChatMessageDto> consumer);
+
+    /**
+     * 삭제된 채팅방의 메시지를 정리 대상으로 표시한다.
+     */
+    void deleteRoom(Long roomId);
+}
@@ -0,0 +1,106 @@
+package com.example.chatserver.common.auth;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * bcrypt 해싱/검증을 전용 스레드풀에서 실행하는 컴포넌트.
+ *
+ * bcrypt는 의도적으로 CPU를 많이 쓰는 연산이라 Tomcat 요청 스레드에서 바로 실행하면
+ * 로그인이 몰릴 때 모든 요청 스레드가 해싱에 묶여 채팅 REST 요청까지 멈춘다.
+ * - 스레드 수를 CPU 코어 수로 제한하여 해싱이 CPU를 넘치게 쓰지 않도록 함
+ * - 결과는 CompletableFuture로 돌려주고 컨트롤러도 그대로 반환하므로, 해싱을 기다리는 동안 요청 스레드를 점유하지 않음
+ * - 대기 큐가 가득 차면 기다리지 않고 바로 RejectedExecutionException (컨트롤러에서 503으로 응답)
+ *   큐가 길면 뒤쪽 요청은 클라이언트 타임아웃을 넘겨서야 처리되므로, 코어 수 대비 짧게 두고 초과분은 빨리 거절함
+ * - 큐 대기 시간, 실행 시간, 거절 수를 Micrometer 지표로 기록
+ */
+@Component
+@Log4j2
+public class PasswordHasher implements DisposableBean {
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Timer encodeQueueTimer;
+
+    private final Timer matchesQueueTimer;
+
+    private final Timer encodeTimer;
+
+    private final Timer matchesTimer;
+
+    private final Counter rejectedCounter;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder, MeterRegistry meterRegistry,
+                          @Value("${chat.password.pool-size:0}") int poolSize,
+                          @Value("${chat.password.queue-capacity:64}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNo = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "password-hash-" + threadNo.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeQueueTimer = Timer.builder("password.hash.queue").tag("op", "encode").register(meterRegistry);
+        this.matchesQueueTimer = Timer.builder("password.hash.queue").tag("op", "matches").register(meterRegistry);
+        this.encodeTimer = Timer.builder("password.hash.execution").tag("op", "encode").register(meterRegistry);
+        this.matchesTimer = Timer.builder("password.hash.execution").tag("op", "matches").register(meterRegistry);
+        this.rejectedCounter = Counter.builder("password.hash.rejected").register(meterRegistry);
+        Gauge.builder("password.hash.queue.size", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("password.hash.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+        log.info("password hashing pool - threads: {}, queue: {}", threads, queueCapacity);
+    }
+
+    public CompletableFuture<String> encode(CharSequence rawPassword) {
+        return submit(encodeQueueTimer, encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    public CompletableFuture<Boolean> matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(matchesQueueTimer, matchesTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    // 저장된 해시의 cost가 현재 설정보다 낮은지 확인 (해시 문자열만 보므로 풀을 거치지 않음)
+    public boolean upgradeEncoding(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    // 해싱 풀에 넣고 바로 반환. 결과를 기다리는 스레드가 없으므로 이어지는 작업(thenApply 등)은 해싱 스레드에서 실행됨
+    private <T> CompletableFuture<T> submit(Timer queueTimer, Timer executionTimer, Supplier<T> task) {
+        long submittedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                queueTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return executionTimer.record(task);
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new RejectedExecutionException("password hashing queue is full");
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
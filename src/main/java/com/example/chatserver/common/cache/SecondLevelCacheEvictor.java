@@ -0,0 +1,81 @@
+package com.example.chatserver.common.cache;
+
+import com.example.chatserver.chat.domain.ChatRoom;
+import com.example.chatserver.common.transaction.AfterCommit;
+import com.example.chatserver.member.domain.Member;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.log4j.Log4j2;
+import org.hibernate.Cache;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hibernate 2차 캐시(Ehcache)는 서버마다 따로 존재하는 로컬 캐시이다.
+ * 한 서버에서 채팅방/참가자/회원이 변경되면 그 서버의 캐시는 Hibernate가 갱신하지만
+ * 다른 서버의 캐시는 오래된 값을 그대로 들고 있게 된다.
+ *
+ * 이를 막기 위해 변경이 커밋된 후 Redis "cache-evict" 채널로 무효화 메시지를 발행하고,
+ * 모든 서버가 이를 구독하여 자신의 로컬 캐시에서 해당 엔티티/컬렉션과 쿼리 캐시를 제거한다.
+ *
+ * 메시지 형식: "room:{roomId}", "participants:{roomId}", "member:{memberId}"
+ */
+@Component
+@Log4j2
+public class SecondLevelCacheEvictor implements MessageListener {
+
+    public static final String CHANNEL = "cache-evict";
+
+    private static final String PARTICIPANTS_ROLE = ChatRoom.class.getName() + ".chatParticipants";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public SecondLevelCacheEvictor(EntityManagerFactory entityManagerFactory, @Qualifier("chatPubSub") StringRedisTemplate stringRedisTemplate) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    public void evictRoom(Long roomId) {
+        publish("room:" + roomId);
+    }
+
+    public void evictParticipants(Long roomId) {
+        publish("participants:" + roomId);
+    }
+
+    public void evictMember(Long memberId) {
+        publish("member:" + memberId);
+    }
+
+    // 커밋 전에 발행하면 다른 서버가 아직 커밋되지 않은 이전 값을 다시 캐싱할 수 있으므로 커밋 이후에 발행
+    private void publish(String key) {
+        AfterCommit.run(() -> stringRedisTemplate.convertAndSend(CHANNEL, key));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        evictLocal(new String(message.getBody()));
+    }
+
+    private void evictLocal(String key) {
+        String[] parts = key.split(":");
+        if (parts.length != 2) {
+            log.warn("잘못된 캐시 무효화 메시지: {}", key);
+            return;
+        }
+        Long id = Long.parseLong(parts[1]);
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        switch (parts[0]) {
+            case "room" -> cache.evictEntityData(ChatRoom.class, id);
+            case "participants" -> cache.evictCollectionData(PARTICIPANTS_ROLE, id);
+            case "member" -> cache.evictEntityData(Member.class, id);
+            default -> log.warn("알 수 없는 캐시 무효화 대상: {}", key);
+        }
+        // 쿼리 캐시(그룹 채팅 목록, 참가자 목록, 이메일 조회)는 어떤 결과가 바뀌었는지 알 수 없으므로 전부 제거
+        cache.evictQueryRegions();
+    }
+}
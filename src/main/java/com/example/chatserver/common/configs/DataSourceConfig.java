@@ -0,0 +1,92 @@
+package com.example.chatserver.common.configs;
+
+import com.example.chatserver.common.datasource.DataSourceType;
+import com.example.chatserver.common.datasource.ReadYourWritesTracker;
+import com.example.chatserver.common.datasource.ReplicationRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Primary(쓰기) / Replica(읽기) DataSource 설정.
+ *
+ * application.yml
+ *  - spring.datasource.*          → primary
+ *  - spring.datasource.replica.*  → replica (url이 없으면 primary 하나만 사용)
+ *
+ * 이력 조회, 채팅방 목록 같은 읽기 트래픽이 메시지 insert와 같은 DB를 두고 경쟁하지 않도록
+ * readOnly 트랜잭션은 replica로 라우팅한다.
+ *
+ * 두 풀 모두 useCursorFetch=true 드라이버 속성을 넣는다. fetch size를 지정한 조회(이력 내보내기)를
+ * 서버 커서로 나눠 읽으므로, replica url에 옵션을 빠뜨려도 결과 전체를 메모리에 올리지 않는다.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties primaryDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.replica")
+    public DataSourceProperties replicaDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    public DataSource primaryDataSource(@Qualifier("primaryDataSourceProperties") DataSourceProperties properties) {
+        return withCursorFetch(properties.initializeDataSourceBuilder().type(HikariDataSource.class).build());
+    }
+
+    @Bean
+    public DataSource replicaDataSource(@Qualifier("replicaDataSourceProperties") DataSourceProperties replicaProperties,
+                                        @Qualifier("primaryDataSourceProperties") DataSourceProperties primaryProperties,
+                                        @Qualifier("primaryDataSource") DataSource primaryDataSource) {
+        // replica 설정이 없으면 primary를 그대로 사용 (로컬 개발 환경)
+        if (!StringUtils.hasText(replicaProperties.getUrl())) {
+            return primaryDataSource;
+        }
+        if (!StringUtils.hasText(replicaProperties.getDriverClassName())) {
+            replicaProperties.setDriverClassName(primaryProperties.getDriverClassName());
+        }
+        return withCursorFetch(replicaProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build());
+    }
+
+    @Bean
+    public DataSource routingDataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                        @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                        ReadYourWritesTracker readYourWritesTracker) {
+        ReplicationRoutingDataSource routingDataSource = new ReplicationRoutingDataSource(readYourWritesTracker);
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(DataSourceType.PRIMARY, primaryDataSource);
+        targets.put(DataSourceType.REPLICA, replicaDataSource);
+        routingDataSource.setTargetDataSources(targets);
+        routingDataSource.setDefaultTargetDataSource(primaryDataSource);
+        return routingDataSource;
+    }
+
+    private static HikariDataSource withCursorFetch(HikariDataSource dataSource) {
+        dataSource.addDataSourceProperty("useCursorFetch", "true");
+        return dataSource;
+    }
+
+    // JPA가 사용하는 DataSource: 실제 쿼리 시점까지 커넥션 획득을 미뤄야 readOnly 여부로 라우팅 가능
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("routingDataSource") DataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
@@ -1,6 +1,10 @@
 package com.example.chatserver.common.configs;
 
+import com.example.chatserver.chat.service.EphemeralEventService;
+import com.example.chatserver.chat.service.PresenceService;
 import com.example.chatserver.chat.service.RedisPubSubService;
+import com.example.chatserver.chat.service.RoomPurgeService;
+import com.example.chatserver.common.cache.SecondLevelCacheEvictor;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -81,15 +85,27 @@ public class RedisConfig {
      * RedisMessageListenerContainer는 Redis의 채널을 구독하는 역할을 한다.
      * 지정한 채널("chat")에서 메시지가 들어오면,
      * 연결된 MessageListenerAdapter를 통해 비즈니스 로직이 호출된다.
+     * "cache-evict" 채널은 다른 서버에서 변경된 2차 캐시 항목을 무효화하는 데 사용된다.
+     * "presence" 채널은 채팅방 접속 상태 변경 이벤트를 모든 서버의 구독자에게 전달하는 데 사용된다.
+     * "ephemeral" 채널은 입력 중 표시 등 저장하지 않는 일회성 이벤트를 전달하는 데 사용된다.
+     * "room-purged" 채널은 정리가 끝난 채팅방을 각 서버의 로컬 검색 인덱스에서 제거하는 데 사용된다.
      */
     @Bean
     public RedisMessageListenerContainer redisMessageListenerContainer(
             @Qualifier("chatPubSub") RedisConnectionFactory redisConnectionFactory,
-            MessageListenerAdapter messageListenerAdapter) {
+            MessageListenerAdapter messageListenerAdapter,
+            SecondLevelCacheEvictor secondLevelCacheEvictor,
+            PresenceService presenceService,
+            EphemeralEventService ephemeralEventService,
+            RoomPurgeService roomPurgeService) {
 
         RedisMessageListenerContainer container = new RedisMessageListenerContainer();
         container.setConnectionFactory(redisConnectionFactory);
         container.addMessageListener(messageListenerAdapter, new PatternTopic("chat"));
+        container.addMessageListener(secondLevelCacheEvictor, new PatternTopic(SecondLevelCacheEvictor.CHANNEL));
+        container.addMessageListener(presenceService, new PatternTopic(PresenceService.CHANNEL));
+        container.addMessageListener(ephemeralEventService, new PatternTopic(EphemeralEventService.CHANNEL));
+        container.addMessageListener(roomPurgeService, new PatternTopic(RoomPurgeService.CHANNEL));
         return container;
     }
 
@@ -1,12 +1,14 @@
 package com.example.chatserver.common.configs;
 
 import com.example.chatserver.common.auth.JwtAuthFilter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -15,6 +17,7 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
+import java.util.Map;
 
 @Configuration
 public class Securityconfigs {
@@ -34,7 +37,9 @@ public class Securityconfigs {
                 .csrf(AbstractHttpConfigurer::disable) //csrf 비활성화(JWT 기반 인증은 세션을 사용하지 않아서 필요 없음)
                 .httpBasic(AbstractHttpConfigurer::disable) //HTTP Basic 비활성화
 //                특정 url패턴에 대해서는 Authentication객체 요구하지 않음.(인증처리 제외)
-                .authorizeHttpRequests(a -> a.requestMatchers("/member/create", "/member/doLogin", "/connect/**").permitAll().anyRequest().authenticated())
+                .authorizeHttpRequests(a -> a.requestMatchers("/member/create", "/member/doLogin", "/connect/**", "/ws", "/actuator/health").permitAll()
+                        .requestMatchers("/admin/**", "/actuator/**").hasRole("ADMIN") //운영용 API, 지표는 ADMIN 권한만
+                        .anyRequest().authenticated())
                 .sessionManagement(s->s.sessionCreationPolicy(SessionCreationPolicy.STATELESS)) //세션방식을 사용하지 않겠다라는 의미
                 //스프링 기본 로그인 필터앞에 JWT 인증 필터를 추가
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
@@ -55,8 +60,9 @@ public class Securityconfigs {
     }
 
     @Bean
-    public PasswordEncoder makePassword(){
-        //비밀번호를 암호화
-        return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+    public PasswordEncoder makePassword(@Value("${chat.password.bcrypt-strength:10}") int bcryptStrength){
+        //비밀번호를 암호화 ("{bcrypt}..." 형식으로 저장)
+        //bcrypt-strength(cost)를 올리면 이전 cost로 저장된 해시는 upgradeEncoding이 true가 되어 로그인시 다시 해싱됨
+        return new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", new BCryptPasswordEncoder(bcryptStrength)));
     }
 }
@@ -0,0 +1,37 @@
+package com.example.chatserver.common.configs;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.Callable;
+
+/**
+ * MVC 비동기 요청 설정.
+ *
+ * 비동기 제한 시간은 전역 기본값(Tomcat 30초)을 그대로 두고, 오래 걸리는 요청만 따로 늘린다.
+ * 컨트롤러가 ASYNC_TIMEOUT_ATTRIBUTE 요청 속성에 제한 시간(ms)을 넣으면
+ * 비동기 처리(StreamingResponseBody, Callable)를 시작하기 직전에 그 요청에만 적용한다.
+ */
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    public static final String ASYNC_TIMEOUT_ATTRIBUTE = WebMvcConfig.class.getName() + ".asyncTimeout";
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                Object timeout = request.getAttribute(ASYNC_TIMEOUT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+                if (timeout instanceof Long millis && request instanceof AsyncWebRequest asyncWebRequest) {
+                    asyncWebRequest.setTimeout(millis);
+                }
+            }
+        });
+    }
+}
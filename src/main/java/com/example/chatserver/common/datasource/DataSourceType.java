@@ -0,0 +1,5 @@
+package com.example.chatserver.common.datasource;
+
+public enum DataSourceType {
+    PRIMARY, REPLICA;
+}
@@ -0,0 +1,114 @@
+package com.example.chatserver.common.datasource;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 복제(replica) 지연 때문에 방금 보낸 내 메시지가 이력 조회에서 보이지 않는 문제를 막기 위한 클래스.
+ *
+ * 사용자가 쓰기(메시지 전송 등)를 하면 시각을 기록해두고,
+ * replica-lag-ms 이내에 같은 사용자가 읽기 요청을 하면 replica가 아닌 primary로 보낸다.
+ *
+ * 쓰기를 받은 서버와 다음 읽기를 받은 서버가 다를 수 있으므로 쓰기 시각은 Redis(chat:ryw:{email}, replica-lag-ms 뒤 만료)에도 남긴다.
+ *  - 이 서버에서 쓴 사용자는 로컬 맵만 보고 판단 (Redis 왕복 없음)
+ *  - 그 외에는 Redis에 키가 있는지 확인, Redis 장애시에는 로컬 기록만으로 판단 (다른 서버에서 쓴 직후라면 replica에서 읽을 수 있음)
+ *  - replica가 설정되지 않았으면 모두 primary로 가므로 Redis를 사용하지 않음
+ */
+@Component
+@Log4j2
+public class ReadYourWritesTracker {
+
+    private static final String KEY_PREFIX = "chat:ryw:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final long replicaLagMillis;
+
+    private final boolean shared;
+
+    // email → 마지막 쓰기 시각 (이 서버에서 받은 쓰기)
+    private final Map<String, Long> lastWriteTimes = new ConcurrentHashMap<>();
+
+    // SecurityContext가 없는 스레드(STOMP 인바운드 등)에서 읽기 주체를 지정하기 위한 값
+    private final ThreadLocal<String> currentReader = new ThreadLocal<>();
+
+    public ReadYourWritesTracker(@Qualifier("chatPubSub") StringRedisTemplate stringRedisTemplate,
+                                 @Value("${spring.datasource.replica.replica-lag-ms:2000}") long replicaLagMillis,
+                                 @Value("${spring.datasource.replica.url:}") String replicaUrl) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.replicaLagMillis = replicaLagMillis;
+        this.shared = StringUtils.hasText(replicaUrl);
+    }
+
+    public void markWrite(String email) {
+        if (email == null) {
+            return;
+        }
+        lastWriteTimes.put(email, System.currentTimeMillis());
+        if (shared) {
+            try {
+                stringRedisTemplate.opsForValue().set(KEY_PREFIX + email, "1", Duration.ofMillis(replicaLagMillis));
+            } catch (RuntimeException e) {
+                log.warn("read-your-writes mark failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    // 오래된 항목 정리 (맵이 무한히 커지지 않도록). 쓰기 경로에서 맵 전체를 훑지 않도록 주기적으로 실행
+    @Scheduled(fixedDelayString = "${spring.datasource.replica.cleanup-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        lastWriteTimes.values().removeIf(t -> now - t > replicaLagMillis);
+    }
+
+    /**
+     * 지정한 사용자 기준으로 라우팅되도록 하여 action을 실행한다.
+     * 커넥션은 첫 쿼리 시점에 획득되므로 readOnly 트랜잭션 안에서 호출해도 적용된다.
+     */
+    public <T> T readingAs(String email, Supplier<T> action) {
+        String previous = currentReader.get();
+        currentReader.set(email);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                currentReader.remove();
+            } else {
+                currentReader.set(previous);
+            }
+        }
+    }
+
+    public String getCurrentReader() {
+        return currentReader.get();
+    }
+
+    public boolean hasRecentWrite(String email) {
+        if (email == null) {
+            return false;
+        }
+        Long lastWrite = lastWriteTimes.get(email);
+        if (lastWrite != null && System.currentTimeMillis() - lastWrite <= replicaLagMillis) {
+            return true;
+        }
+        if (!shared) {
+            return false;
+        }
+        try {
+            return Boolean.TRUE.equals(stringRedisTemplate.hasKey(KEY_PREFIX + email));
+        } catch (RuntimeException e) {
+            log.warn("read-your-writes lookup failed: {}", e.getMessage());
+            return false;
+        }
+    }
+}
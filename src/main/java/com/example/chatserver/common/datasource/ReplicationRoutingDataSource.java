@@ -0,0 +1,41 @@
+package com.example.chatserver.common.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 트랜잭션 종류에 따라 커넥션을 가져올 DataSource를 고르는 라우팅 DataSource.
+ *
+ * - @Transactional(readOnly = true) → REPLICA
+ * - 그 외(쓰기) → PRIMARY
+ * - 단, 현재 사용자가 최근에 쓰기를 했다면 읽기라도 PRIMARY (read-your-writes)
+ *
+ * 트랜잭션 시작 시점에는 readOnly 여부가 아직 설정되지 않으므로
+ * LazyConnectionDataSourceProxy로 감싸 실제 쿼리 실행 시점에 커넥션을 가져오도록 해야 한다.
+ */
+public class ReplicationRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    public ReplicationRoutingDataSource(ReadYourWritesTracker readYourWritesTracker) {
+        this.readYourWritesTracker = readYourWritesTracker;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return DataSourceType.PRIMARY;
+        }
+        String reader = readYourWritesTracker.getCurrentReader();
+        if (reader == null) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            reader = authentication != null ? authentication.getName() : null;
+        }
+        if (readYourWritesTracker.hasRecentWrite(reader)) {
+            return DataSourceType.PRIMARY;
+        }
+        return DataSourceType.REPLICA;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.chatserver.common.lock;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 여러 서버에서 같은 스케줄 작업이 동시에 돌지 않도록 하는 Redis 잠금.
+ *
+ * - 획득: SET key token NX PX ttl → 이미 있으면 다른 서버가 실행 중이므로 건너뜀
+ * - 해제: 내 token일 때만 DEL (Lua 스크립트로 비교와 삭제를 한번에)
+ *   → ttl이 지나 다른 서버가 잠금을 가져간 뒤에 늦게 끝난 서버가 그 잠금을 지우지 않음
+ * ttl은 작업이 보통 끝나는 시간보다 넉넉하게 잡는다. 서버가 작업 중에 내려가도 ttl 뒤에는 다른 서버가 실행할 수 있다.
+ */
+@Component
+@Log4j2
+public class ClusterJobLock {
+
+    private static final String KEY_PREFIX = "chat:lock:";
+
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end", Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public ClusterJobLock(@Qualifier("chatPubSub") StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    /**
+     * 잠금을 얻으면 task를 실행하고 true, 다른 서버가 실행 중이면 실행하지 않고 false를 반환한다.
+     */
+    public boolean runExclusive(String name, Duration ttl, Runnable task) {
+        String key = KEY_PREFIX + name;
+        String token = UUID.randomUUID().toString();
+        if (!Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(key, token, ttl))) {
+            log.debug("[LOCK] 다른 서버가 실행 중 - {}", name);
+            return false;
+        }
+        try {
+            task.run();
+            return true;
+        } finally {
+            stringRedisTemplate.execute(RELEASE, List.of(key), token);
+        }
+    }
+}
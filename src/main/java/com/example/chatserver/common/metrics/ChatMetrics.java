@@ -0,0 +1,109 @@
+package com.example.chatserver.common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 채팅 메시지 처리 단계별 지표 (actuator /actuator/metrics, /actuator/prometheus).
+ *
+ * 메시지 한 건의 경로와 지표 이름
+ *  1. chat.stomp.inbound{command}      : 인바운드 인터셉터(StompHandler) - JWT 검증, 구독 권한, 전송 제한
+ *  2. chat.message.save                : ChatService.saveMessage 전체
+ *     chat.message.save.query{query}   : 그 안의 조회/저장 단계별 (room, sender, append, participants)
+ *  3. chat.redis.publish               : Redis PUBLISH
+ *  4. chat.redis.receive               : Redis 수신(onMessage) 전체 - 역직렬화 + 브로커 전달
+ *  5. chat.broker.fanout               : SimpleBroker에 전달 → 구독자별 아웃바운드 메시지 생성
+ *  6. chat.stomp.outbound              : 아웃바운드 채널에서 세션에 쓰는 시간 (구독자 한 명당)
+ *  7. chat.message.e2e                 : 서버가 SEND를 받은 시각(payload의 sentAt)부터 구독자에게 쓰기까지 (히스토그램)
+ *
+ * 채팅방별 지표(chat.room.messages.rate{roomId})는 HotRoomTracker가 상위 채팅방만 내보낸다.
+ * 메시지 한 건의 단계별 시간은 MessageTracer가 샘플링해서 span으로 내보낸다.
+ */
+@Component
+public class ChatMetrics {
+
+    // 브로커 → 아웃바운드 채널로 sentAt을 전달하는 메시지 헤더 (STOMP 프레임에는 나가지 않음)
+    public static final String SENT_AT_HEADER = "chat.sentAt";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Timer> inboundTimers = new ConcurrentHashMap<>();
+
+    private final Map<String, Timer> queryTimers = new ConcurrentHashMap<>();
+
+    private final Timer saveTimer;
+
+    private final Timer redisPublishTimer;
+
+    private final Timer redisReceiveTimer;
+
+    private final Timer brokerFanoutTimer;
+
+    private final Timer outboundTimer;
+
+    private final Timer endToEndTimer;
+
+    public ChatMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.saveTimer = Timer.builder("chat.message.save").register(meterRegistry);
+        this.redisPublishTimer = Timer.builder("chat.redis.publish").register(meterRegistry);
+        this.redisReceiveTimer = Timer.builder("chat.redis.receive").register(meterRegistry);
+        this.brokerFanoutTimer = Timer.builder("chat.broker.fanout").register(meterRegistry);
+        this.outboundTimer = Timer.builder("chat.stomp.outbound").register(meterRegistry);
+        this.endToEndTimer = Timer.builder("chat.message.e2e")
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry);
+    }
+
+    public void recordInbound(String command, long startNanos) {
+        inboundTimers.computeIfAbsent(command, c -> Timer.builder("chat.stomp.inbound").tag("command", c).register(meterRegistry))
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordSave(long startNanos) {
+        saveTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public <T> T timeQuery(String query, Supplier<T> supplier) {
+        return queryTimers.computeIfAbsent(query, q -> Timer.builder("chat.message.save.query").tag("query", q).register(meterRegistry))
+                .record(supplier);
+    }
+
+    public Timer redisPublish() {
+        return redisPublishTimer;
+    }
+
+    public Timer redisReceive() {
+        return redisReceiveTimer;
+    }
+
+    public Timer brokerFanout() {
+        return brokerFanoutTimer;
+    }
+
+    // 저장, 발행, 수신(브로커 전달 포함), 아웃바운드 쓰기에 쓴 누적 시간 (MessageTracer가 추적 비용의 기준으로 사용)
+    public double pipelineNanos() {
+        return saveTimer.totalTime(TimeUnit.NANOSECONDS)
+                + redisPublishTimer.totalTime(TimeUnit.NANOSECONDS)
+                + redisReceiveTimer.totalTime(TimeUnit.NANOSECONDS)
+                + outboundTimer.totalTime(TimeUnit.NANOSECONDS);
+    }
+
+    public void recordOutbound(long startNanos, Long sentAt) {
+        outboundTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        if (sentAt != null) {
+            // 서버 간 시계 차이로 음수가 나오면 0으로 기록
+            endToEndTimer.record(Math.max(0L, System.currentTimeMillis() - sentAt), TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.chatserver.common.ratelimit;
+
+import com.example.chatserver.common.redis.RedisPipeline;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * STOMP SEND 프레임 전송 제한.
+ *
+ * 1) 서버 로컬: 세션별 / 회원별 / 채팅방별 토큰 버킷 (락 없는 CAS, Redis 왕복 없음)
+ * 2) 클러스터 공통: 회원별 / 채팅방별 초 단위 고정 윈도우 카운터를 Redis에 두어
+ *    여러 서버로 나눠 접속해도 전체 한도가 지켜지도록 함 (INCR 두번 + EXPIRE를 pipeline 한번으로 처리)
+ * 로컬 한도를 통과한 프레임만 Redis를 확인하며, Redis 장애시에는 로컬 한도만 적용한다.
+ */
+@Component
+@Log4j2
+public class SendRateLimiter {
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final boolean enabled;
+
+    private final double sessionRate;
+    private final double sessionBurst;
+    private final double memberRate;
+    private final double memberBurst;
+    private final double roomRate;
+    private final double roomBurst;
+
+    private final long clusterMemberPerSecond;
+    private final long clusterRoomPerSecond;
+
+    private final Map<String, TokenBucket> sessionBuckets = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> memberBuckets = new ConcurrentHashMap<>();
+    private final Map<Long, TokenBucket> roomBuckets = new ConcurrentHashMap<>();
+
+    private final MeterRegistry meterRegistry;
+
+    private final Counter allowedCounter;
+
+    public SendRateLimiter(@Qualifier("chatPubSub") StringRedisTemplate stringRedisTemplate, MeterRegistry meterRegistry,
+                           @Value("${chat.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${chat.rate-limit.session.rate-per-second:10}") double sessionRate,
+                           @Value("${chat.rate-limit.session.burst:20}") double sessionBurst,
+                           @Value("${chat.rate-limit.member.rate-per-second:20}") double memberRate,
+                           @Value("${chat.rate-limit.member.burst:40}") double memberBurst,
+                           @Value("${chat.rate-limit.room.rate-per-second:200}") double roomRate,
+                           @Value("${chat.rate-limit.room.burst:400}") double roomBurst,
+                           @Value("${chat.rate-limit.cluster.member-per-second:30}") long clusterMemberPerSecond,
+                           @Value("${chat.rate-limit.cluster.room-per-second:300}") long clusterRoomPerSecond) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.sessionRate = sessionRate;
+        this.sessionBurst = sessionBurst;
+        this.memberRate = memberRate;
+        this.memberBurst = memberBurst;
+        this.roomRate = roomRate;
+        this.roomBurst = roomBurst;
+        this.clusterMemberPerSecond = clusterMemberPerSecond;
+        this.clusterRoomPerSecond = clusterRoomPerSecond;
+        this.allowedCounter = Counter.builder("stomp.send.allowed").register(meterRegistry);
+    }
+
+    /**
+     * @return 제한에 걸린 범위(session, member, room, cluster-member, cluster-room), 통과하면 null
+     */
+    public String check(String sessionId, String email, Long roomId) {
+        if (!enabled) {
+            return null;
+        }
+        String rejectedBy = checkLocal(sessionId, email, roomId);
+        if (rejectedBy == null) {
+            rejectedBy = checkCluster(email, roomId);
+        }
+        if (rejectedBy == null) {
+            allowedCounter.increment();
+        } else {
+            meterRegistry.counter("stomp.send.throttled", "scope", rejectedBy).increment();
+        }
+        return rejectedBy;
+    }
+
+    private String checkLocal(String sessionId, String email, Long roomId) {
+        if (sessionId != null && !sessionBuckets.computeIfAbsent(sessionId, k -> new TokenBucket(sessionBurst, sessionRate)).tryConsume()) {
+            return "session";
+        }
+        if (email != null && !memberBuckets.computeIfAbsent(email, k -> new TokenBucket(memberBurst, memberRate)).tryConsume()) {
+            return "member";
+        }
+        if (roomId != null && !roomBuckets.computeIfAbsent(roomId, k -> new TokenBucket(roomBurst, roomRate)).tryConsume()) {
+            return "room";
+        }
+        return null;
+    }
+
+    private String checkCluster(String email, Long roomId) {
+        if (email == null && roomId == null) {
+            return null;
+        }
+        long second = System.currentTimeMillis() / 1000;
+        String memberKey = email == null ? null : "ratelimit:member:" + email + ":" + second;
+        String roomKey = roomId == null ? null : "ratelimit:room:" + roomId + ":" + second;
+        try {
+            List<Object> results = RedisPipeline.execute(stringRedisTemplate, redis -> {
+                if (memberKey != null) {
+                    redis.opsForValue().increment(memberKey);
+                    redis.expire(memberKey, 2, TimeUnit.SECONDS);
+                }
+                if (roomKey != null) {
+                    redis.opsForValue().increment(roomKey);
+                    redis.expire(roomKey, 2, TimeUnit.SECONDS);
+                }
+            });
+            int index = 0;
+            if (memberKey != null) {
+                if ((Long) results.get(index) > clusterMemberPerSecond) {
+                    return "cluster-member";
+                }
+                index += 2;
+            }
+            if (roomKey != null && (Long) results.get(index) > clusterRoomPerSecond) {
+                return "cluster-room";
+            }
+        } catch (RuntimeException e) {
+            log.warn("[RATE-LIMIT] Redis 공통 한도 확인 실패, 로컬 한도만 적용: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    public void release(String sessionId) {
+        if (sessionId != null) {
+            sessionBuckets.remove(sessionId);
+        }
+    }
+
+    // 가득 찬 상태로 오래 쓰이지 않은 회원/채팅방 버킷 정리 (다시 만들어도 가득 찬 상태이므로 동일)
+    @Scheduled(fixedDelayString = "${chat.rate-limit.cleanup-ms:60000}")
+    public void cleanup() {
+        long memberIdle = TimeUnit.SECONDS.toNanos((long) Math.ceil(memberBurst / memberRate) + 1);
+        long roomIdle = TimeUnit.SECONDS.toNanos((long) Math.ceil(roomBurst / roomRate) + 1);
+        memberBuckets.values().removeIf(bucket -> bucket.isIdle(memberIdle));
+        roomBuckets.values().removeIf(bucket -> bucket.isIdle(roomIdle));
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.chatserver.common.ratelimit;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 락을 쓰지 않는 토큰 버킷.
+ *
+ * 상태(남은 토큰, 마지막 충전 시각)를 불변 객체로 두고 CAS로 교체하므로
+ * 여러 스레드가 같은 버킷을 동시에 써도 블로킹 없이 동작한다.
+ * 초당 refillPerSecond 개씩 최대 capacity 개까지 충전된다.
+ */
+public class TokenBucket {
+
+    private final double capacity;
+
+    private final double refillPerNano;
+
+    private final AtomicReference<State> state;
+
+    private record State(double tokens, long refilledAt) {
+    }
+
+    public TokenBucket(double capacity, double refillPerSecond) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000d;
+        this.state = new AtomicReference<>(new State(capacity, System.nanoTime()));
+    }
+
+    public boolean tryConsume() {
+        return tryConsume(1);
+    }
+
+    public boolean tryConsume(double permits) {
+        while (true) {
+            State current = state.get();
+            long now = System.nanoTime();
+            double tokens = Math.min(capacity, current.tokens() + (now - current.refilledAt()) * refillPerNano);
+            if (tokens < permits) {
+                return false;
+            }
+            if (state.compareAndSet(current, new State(tokens - permits, now))) {
+                return true;
+            }
+        }
+    }
+
+    // 마지막 사용 이후 idleNanos 이상 지났으면 (가득 찬 상태이므로) 버려도 되는 버킷
+    public boolean isIdle(long idleNanos) {
+        return System.nanoTime() - state.get().refilledAt() > idleNanos;
+    }
+}
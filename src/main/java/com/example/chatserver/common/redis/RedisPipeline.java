@@ -0,0 +1,31 @@
+package com.example.chatserver.common.redis;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 여러 Redis 명령을 pipeline으로 한번에 보내는 헬퍼 (왕복 1회).
+ *
+ * commands 안에서 호출한 명령의 결과는 바로 받을 수 없고(null), 보낸 순서대로 반환 목록에 담긴다.
+ */
+public final class RedisPipeline {
+
+    private RedisPipeline() {
+    }
+
+    public static List<Object> execute(StringRedisTemplate stringRedisTemplate, Consumer<RedisOperations<String, String>> commands) {
+        return stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                commands.accept((RedisOperations<String, String>) operations);
+                return null;
+            }
+        });
+    }
+}
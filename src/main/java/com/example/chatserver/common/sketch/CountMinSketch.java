@@ -0,0 +1,75 @@
+package com.example.chatserver.common.sketch;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 크기가 고정된 count-min sketch (long 키별 누적 횟수의 근사치).
+ *
+ * depth 개의 행마다 width 개의 카운터를 두고, 키를 행마다 다른 위치에 더한 뒤 조회시 행별 값의 최솟값을 반환한다.
+ * 다른 키와 같은 칸을 공유할 수 있으므로 추정치는 실제보다 크거나 같다 (작게 나오지 않음).
+ * 오차는 e × 전체 합 / width 이내, 그 확률은 1 - e^-depth 이상 (행마다 다른 키가 더한 양의 기댓값이 전체 합 / width 이하, Markov 부등식).
+ * 카운터는 AtomicLongArray에 더하므로 락 없이 여러 스레드에서 동시에 사용할 수 있다.
+ */
+public class CountMinSketch {
+
+    private final AtomicLongArray counters;
+
+    private final int depth;
+
+    private final int width;
+
+    public CountMinSketch(int depth, int width) {
+        if (depth <= 0 || width <= 0) {
+            throw new IllegalArgumentException("depth와 width는 0보다 커야 합니다.");
+        }
+        this.depth = depth;
+        this.width = width;
+        this.counters = new AtomicLongArray(depth * width);
+    }
+
+    public void add(long key, long count) {
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int row = 0; row < depth; row++) {
+            counters.addAndGet(index(row, h1 + (row + 1) * h2), count);
+        }
+    }
+
+    public long estimate(long key) {
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters.get(index(row, h1 + (row + 1) * h2)));
+        }
+        return min;
+    }
+
+    // 동시에 add가 진행 중이면 그 값 일부가 남을 수 있음 (슬라이딩 윈도우의 구간 교체용이라 허용)
+    public void clear() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, 0L);
+        }
+    }
+
+    public long sizeInBytes() {
+        return (long) counters.length() * Long.BYTES;
+    }
+
+    private int index(int row, int combinedHash) {
+        return row * width + (combinedHash & Integer.MAX_VALUE) % width;
+    }
+
+    // murmur3 finalizer
+    private static long hash64(long key) {
+        long hash = key;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
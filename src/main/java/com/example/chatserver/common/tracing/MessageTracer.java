@@ -0,0 +1,385 @@
+package com.example.chatserver.common.tracing;
+
+import com.example.chatserver.common.metrics.ChatMetrics;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 채팅 메시지 처리 단계별 샘플링 추적 (채팅방 fan-out 지연이 저장, Redis, 브로커 전달 중 어디서 생기는지 확인용).
+ *
+ * 메시지 한 건의 trace
+ *  chat.send (루트, StompController)  ─ message.save
+ *                                     └ redis.publish
+ *  redis.receive (구독 중인 모든 서버) ─ broker.fanout
+ *  stomp.outbound (구독자 세션마다 한 건)
+ * trace id는 ChatMessageDto.traceId로 Redis를 건너고, 브로커 → 아웃바운드 채널은 TRACE_ID_HEADER로 전달한다.
+ * 루트 span id를 traceId와 같게 두어 다른 서버의 단계도 parent id 없이 같은 루트에 붙는다.
+ *
+ * 적응형 샘플링 (adjust-ms 마다)
+ *  - 추적 비용 = 샘플링된 메시지의 span 기록(요청 스레드) + JSON 직렬화(내보내기 스레드)에 쓴 CPU 시간
+ *    (파일 쓰기와 수집기 응답 대기는 I/O 대기라 처리량을 깎지 않으므로 제외)
+ *  - 처리 시간 = ChatMetrics의 저장/발행/수신/아웃바운드 시간 합
+ *  - 다음 구간 샘플링 확률 = min(max-per-second, overhead-budget x 처리 시간 / trace당 비용) / 구간 메시지 수
+ *  → 부하가 높아질수록 확률이 낮아져 추적 비용이 처리 시간의 overhead-budget 이하로 유지됨
+ *  샘플링되지 않은 메시지는 카운터 증가와 난수 하나만 추가된다.
+ *
+ * span은 크기가 고정된 큐에 넣고 (가득 차면 버림) 내보내기 스레드가 flush-ms 마다
+ * file 에 한 줄에 하나씩 Zipkin v2 JSON으로 쓰고, collector-url 이 있으면 같은 묶음을 POST 한다 (예: Zipkin /api/v2/spans).
+ * POST는 비동기로 보내고 응답을 기다리지 않으므로, 수집기가 느려도 내보내기 스레드(flush, adjust)가 멈추지 않는다.
+ */
+@Component
+@Log4j2
+public class MessageTracer implements DisposableBean {
+
+    // 브로커 → 아웃바운드 채널로 trace id를 전달하는 메시지 헤더 (STOMP 프레임에는 나가지 않음)
+    public static final String TRACE_ID_HEADER = "chat.traceId";
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final ChatMetrics chatMetrics;
+
+    private final boolean enabled;
+
+    private final int maxPerSecond;
+
+    private final double overheadBudget;
+
+    private final double minProbability;
+
+    private final long adjustMillis;
+
+    private final int maxBatch;
+
+    private final Path file;
+
+    private final long maxFileBytes;
+
+    private final URI collectorUri;
+
+    private final String serviceName;
+
+    private final String instance;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    private final BlockingQueue<TraceSpan> queue;
+
+    private final ScheduledExecutorService exporter;
+
+    private final HttpClient httpClient;
+
+    // epoch 마이크로초 변환 기준 (span 시작 시각은 nanoTime으로 받음)
+    private final long baseEpochMicros = System.currentTimeMillis() * 1000L;
+
+    private final long baseNanos = System.nanoTime();
+
+    private final LongAdder messages = new LongAdder();
+
+    private final LongAdder sampled = new LongAdder();
+
+    private final LongAdder tracingNanos = new LongAdder();
+
+    private final Counter exportedCounter;
+
+    private final Counter droppedCounter;
+
+    private volatile double probability;
+
+    // 내보내기 스레드에서만 갱신
+    private double costPerTraceNanos;
+
+    private double lastPipelineNanos;
+
+    private double overheadRatio;
+
+    private OutputStream out;
+
+    private long fileBytes;
+
+    public MessageTracer(MeterRegistry meterRegistry, ChatMetrics chatMetrics,
+                         @Value("${chat.tracing.enabled:true}") boolean enabled,
+                         @Value("${chat.tracing.max-per-second:20}") int maxPerSecond,
+                         @Value("${chat.tracing.overhead-budget:0.005}") double overheadBudget,
+                         @Value("${chat.tracing.min-probability:0.0001}") double minProbability,
+                         @Value("${chat.tracing.adjust-ms:1000}") long adjustMillis,
+                         @Value("${chat.tracing.flush-ms:1000}") long flushMillis,
+                         @Value("${chat.tracing.queue-capacity:10000}") int queueCapacity,
+                         @Value("${chat.tracing.file:./traces/spans.jsonl}") String file,
+                         @Value("${chat.tracing.max-file-mb:100}") long maxFileMb,
+                         @Value("${chat.tracing.collector-url:}") String collectorUrl,
+                         @Value("${spring.application.name:chatserver}") String serviceName) {
+        this.chatMetrics = chatMetrics;
+        this.enabled = enabled;
+        this.maxPerSecond = maxPerSecond;
+        this.overheadBudget = overheadBudget;
+        this.minProbability = minProbability;
+        this.adjustMillis = adjustMillis;
+        this.maxBatch = queueCapacity;
+        this.file = Paths.get(file);
+        this.maxFileBytes = maxFileMb * 1024 * 1024;
+        this.collectorUri = StringUtils.hasText(collectorUrl) ? URI.create(collectorUrl) : null;
+        this.serviceName = serviceName;
+        this.instance = ManagementFactory.getRuntimeMXBean().getName();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        // 첫 구간: 처리 시간을 모르므로 초당 최대치 이하가 되도록 낮게 시작
+        this.probability = enabled ? Math.max(minProbability, 0.01) : 0.0;
+        this.exportedCounter = Counter.builder("chat.tracing.spans.exported").register(meterRegistry);
+        this.droppedCounter = Counter.builder("chat.tracing.spans.dropped").register(meterRegistry);
+        Gauge.builder("chat.tracing.sample.probability", this, t -> t.probability).register(meterRegistry);
+        Gauge.builder("chat.tracing.overhead.ratio", this, t -> t.overheadRatio).register(meterRegistry);
+
+        if (!enabled) {
+            this.exporter = null;
+            this.httpClient = null;
+            return;
+        }
+        this.httpClient = collectorUri == null ? null : HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        this.exporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "message-trace-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.lastPipelineNanos = chatMetrics.pipelineNanos();
+        exporter.scheduleWithFixedDelay(guarded("adjust", this::adjust), adjustMillis, adjustMillis, TimeUnit.MILLISECONDS);
+        exporter.scheduleWithFixedDelay(guarded("flush", this::flush), flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+        log.info("[TRACE] 메시지 추적 시작 - file: {}, collector: {}, overhead-budget: {}", this.file, collectorUri, overheadBudget);
+    }
+
+    /**
+     * 새 메시지의 샘플링 여부를 정한다.
+     * @return 샘플링되면 trace id (16자리 hex), 아니면 null
+     */
+    public String startTrace() {
+        if (!enabled) {
+            return null;
+        }
+        messages.increment();
+        if (ThreadLocalRandom.current().nextDouble() >= probability) {
+            return null;
+        }
+        sampled.increment();
+        long id = ThreadLocalRandom.current().nextLong();
+        return hex(id == 0L ? 1L : id);
+    }
+
+    // 루트 span (chat.send): id = traceId
+    public void rootSpan(String traceId, String name, Long roomId, long startNanos) {
+        if (traceId != null) {
+            record(traceId, traceId, null, name, roomId, startNanos);
+        }
+    }
+
+    // 단계 span: startNanos(System.nanoTime)부터 지금까지. traceId가 null이면(샘플링되지 않음) 아무것도 하지 않음
+    public void span(String traceId, String name, Long roomId, long startNanos) {
+        if (traceId != null) {
+            record(traceId, hex(ThreadLocalRandom.current().nextLong()), traceId, name, roomId, startNanos);
+        }
+    }
+
+    private void record(String traceId, String id, String parentId, String name, Long roomId, long startNanos) {
+        long now = System.nanoTime();
+        TraceSpan span = new TraceSpan(traceId, id, parentId, name, roomId,
+                baseEpochMicros + (startNanos - baseNanos) / 1000L, Math.max(1L, (now - startNanos) / 1000L));
+        if (!queue.offer(span)) {
+            droppedCounter.increment();
+        }
+        tracingNanos.add(System.nanoTime() - now);
+    }
+
+    // 지난 구간의 메시지 수, 처리 시간, 추적 비용으로 다음 구간의 샘플링 확률을 정함
+    private void adjust() {
+        long messageCount = messages.sumThenReset();
+        long traceCount = sampled.sumThenReset();
+        long spentNanos = tracingNanos.sumThenReset();
+        double pipelineNanos = chatMetrics.pipelineNanos();
+        double pipelineDelta = pipelineNanos - lastPipelineNanos;
+        lastPipelineNanos = pipelineNanos;
+
+        overheadRatio = pipelineDelta > 0 ? spentNanos / pipelineDelta : 0.0;
+        if (traceCount > 0) {
+            double cost = (double) spentNanos / traceCount;
+            costPerTraceNanos = costPerTraceNanos == 0.0 ? cost : 0.8 * costPerTraceNanos + 0.2 * cost;
+        }
+        if (messageCount == 0) {
+            return;
+        }
+        double targetTraces = maxPerSecond * adjustMillis / 1000.0;
+        if (costPerTraceNanos > 0.0) {
+            targetTraces = Math.min(targetTraces, overheadBudget * pipelineDelta / costPerTraceNanos);
+        }
+        probability = Math.max(minProbability, Math.min(1.0, targetTraces / messageCount));
+    }
+
+    private void flush() throws IOException {
+        if (queue.isEmpty()) {
+            return;
+        }
+        // 추적 비용에는 직렬화까지만 포함 (파일 쓰기, 수집기 전송은 제외)
+        long startedAt = System.nanoTime();
+        List<TraceSpan> batch = new ArrayList<>(Math.min(queue.size(), maxBatch));
+        queue.drainTo(batch, maxBatch);
+
+        ByteArrayOutputStream lines = new ByteArrayOutputStream(batch.size() * 256);
+        try (JsonGenerator generator = jsonFactory.createGenerator(lines, JsonEncoding.UTF8)) {
+            generator.setRootValueSeparator(null);
+            for (TraceSpan span : batch) {
+                writeSpan(generator, span);
+                generator.flush();
+                lines.write('\n');
+            }
+        }
+        byte[] body = collectorUri == null ? null : toJsonArray(batch);
+        tracingNanos.add(System.nanoTime() - startedAt);
+
+        writeToFile(lines.toByteArray());
+        exportedCounter.increment(batch.size());
+        if (body != null) {
+            post(body);
+        }
+    }
+
+    private void writeToFile(byte[] bytes) throws IOException {
+        if (out != null && fileBytes + bytes.length > maxFileBytes) {
+            // 파일이 max-file-mb를 넘으면 이전 파일 하나(.1)만 남기고 새로 시작
+            out.close();
+            out = null;
+            Files.move(file, file.resolveSibling(file.getFileName() + ".1"), StandardCopyOption.REPLACE_EXISTING);
+        }
+        if (out == null) {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            out = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            fileBytes = Files.size(file);
+        }
+        out.write(bytes);
+        out.flush();
+        fileBytes += bytes.length;
+    }
+
+    private byte[] toJsonArray(List<TraceSpan> batch) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(batch.size() * 256);
+        try (JsonGenerator generator = jsonFactory.createGenerator(body, JsonEncoding.UTF8)) {
+            generator.writeStartArray();
+            for (TraceSpan span : batch) {
+                writeSpan(generator, span);
+            }
+            generator.writeEndArray();
+        }
+        return body.toByteArray();
+    }
+
+    // 응답을 기다리지 않고 보냄 (HttpClient 내부 스레드에서 완료 처리)
+    // 수집기 전송 실패는 경고만 남김 (파일에는 이미 기록됨)
+    private void post(byte[] body) {
+        HttpRequest request = HttpRequest.newBuilder(collectorUri)
+                .timeout(Duration.ofSeconds(5))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, e) -> {
+            if (e != null) {
+                log.warn("[TRACE] 수집기 전송 실패 - {}", e.getMessage());
+            } else if (response.statusCode() >= 300) {
+                log.warn("[TRACE] 수집기 전송 실패 - HTTP {}", response.statusCode());
+            }
+        });
+    }
+
+    private void writeSpan(JsonGenerator generator, TraceSpan span) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("traceId", span.traceId());
+        generator.writeStringField("id", span.id());
+        if (span.parentId() != null) {
+            generator.writeStringField("parentId", span.parentId());
+        }
+        generator.writeStringField("name", span.name());
+        generator.writeNumberField("timestamp", span.timestampMicros());
+        generator.writeNumberField("duration", span.durationMicros());
+        generator.writeObjectFieldStart("localEndpoint");
+        generator.writeStringField("serviceName", serviceName);
+        generator.writeEndObject();
+        generator.writeObjectFieldStart("tags");
+        if (span.roomId() != null) {
+            generator.writeStringField("roomId", span.roomId().toString());
+        }
+        generator.writeStringField("instance", instance);
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+
+    private static String hex(long value) {
+        char[] chars = new char[16];
+        for (int i = 15; i >= 0; i--) {
+            chars[i] = HEX[(int) (value & 0xf)];
+            value >>>= 4;
+        }
+        return new String(chars);
+    }
+
+    @FunctionalInterface
+    private interface TraceTask {
+        void run() throws IOException;
+    }
+
+    private static Runnable guarded(String name, TraceTask task) {
+        return () -> {
+            try {
+                task.run();
+            } catch (IOException | RuntimeException e) {
+                log.warn("[TRACE] {} 실패", name, e);
+            }
+        };
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (exporter == null) {
+            return;
+        }
+        exporter.shutdown();
+        try {
+            exporter.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 남은 span을 마저 기록
+        flush();
+        if (out != null) {
+            out.close();
+        }
+    }
+}
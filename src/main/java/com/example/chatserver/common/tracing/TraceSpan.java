@@ -0,0 +1,11 @@
+package com.example.chatserver.common.tracing;
+
+/**
+ * 샘플링된 채팅 메시지의 처리 단계 하나 (Zipkin v2 span 형식으로 내보냄).
+ *
+ * @param parentId        루트 span(chat.send)이면 null, 그 외 단계는 루트 span id(= traceId)
+ * @param timestampMicros 시작 시각 (epoch 마이크로초)
+ */
+public record TraceSpan(String traceId, String id, String parentId, String name, Long roomId,
+                        long timestampMicros, long durationMicros) {
+}
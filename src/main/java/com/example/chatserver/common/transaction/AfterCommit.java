@@ -0,0 +1,30 @@
+package com.example.chatserver.common.transaction;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 현재 트랜잭션이 커밋된 뒤에 작업을 실행한다.
+ *
+ * 캐시 무효화 발행, 검색 인덱스 추가, 로그 기록처럼 DB 밖에 남기는 작업은 커밋 전에 하면
+ * 롤백된 변경이 남거나 다른 서버가 아직 커밋되지 않은 이전 값을 읽을 수 있다.
+ * 트랜잭션 밖에서 호출하면 바로 실행하고, 롤백되면 실행하지 않는다.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    public static void run(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+}
@@ -1,11 +1,11 @@
 package com.example.chatserver.member.controller;
 
 import com.example.chatserver.common.auth.JwtTokenProvider;
-import com.example.chatserver.member.domain.Member;
 import com.example.chatserver.member.dto.MemberListResDto;
 import com.example.chatserver.member.dto.MemberLoginReqDto;
 import com.example.chatserver.member.dto.MemberSaveReqDto;
 import com.example.chatserver.member.service.MemberService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -13,6 +13,8 @@ import org.springframework.web.bind.annotation.*;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/member")
@@ -26,29 +28,47 @@ public class MemberController {
         this.jwtTokenProvider = jwtTokenProvider;
     }
 
+    //비밀번호 해싱이 끝나면 응답 (CompletableFuture 반환: 해싱을 기다리는 동안 요청 스레드를 반납)
     @PostMapping("/create")
-    public ResponseEntity<?> memberCreate(@RequestBody MemberSaveReqDto memberSaveReqDto) {
-        Member member = memberService.create(memberSaveReqDto);
-        return new ResponseEntity<>(member.getId(), HttpStatus.CREATED);
+    public CompletableFuture<ResponseEntity<?>> memberCreate(@RequestBody MemberSaveReqDto memberSaveReqDto) {
+        return memberService.create(memberSaveReqDto)
+                .thenApply(member -> new ResponseEntity<>(member.getId(), HttpStatus.CREATED));
     }
 
     @PostMapping("/doLogin")
-    public ResponseEntity<?> doLogin(@RequestBody MemberLoginReqDto memberLoginReqDto){
-        // email, password 검증
-        Member member = memberService.login(memberLoginReqDto);
-
-        //일치할 경우 access 토큰 발행
-        String jwtToken  = jwtTokenProvider.createToken(member.getEmail(), member.getRole().toString());
-        Map<String, Object> loginInfo = new HashMap<>();
-        loginInfo.put("id", member.getId());
-        loginInfo.put("token", jwtToken);
-        return new ResponseEntity<>(loginInfo, HttpStatus.OK);
+    public CompletableFuture<ResponseEntity<?>> doLogin(@RequestBody MemberLoginReqDto memberLoginReqDto){
+        // email, password 검증 (해싱을 기다리는 동안 요청 스레드를 반납)
+        return memberService.login(memberLoginReqDto).thenApply(member -> {
+            //일치할 경우 access 토큰 발행
+            String jwtToken  = jwtTokenProvider.createToken(member.getEmail(), member.getRole().toString());
+            Map<String, Object> loginInfo = new HashMap<>();
+            loginInfo.put("id", member.getId());
+            loginInfo.put("token", jwtToken);
+            return new ResponseEntity<>(loginInfo, HttpStatus.OK);
+        });
+    }
 
+    //비밀번호 해싱 큐가 가득 찬 경우: 요청 스레드를 붙잡고 기다리지 않고 바로 503 응답
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<?> passwordHashingBusy(){
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .build();
     }
 
+    //회원 목록 조회 (회원 id 커서 페이지네이션)
     @GetMapping("/list")
-    public ResponseEntity<?> memberList(){
-        List<MemberListResDto> dtos = memberService.findAll();
+    public ResponseEntity<?> memberList(@RequestParam(required = false) Long cursor,
+                                        @RequestParam(defaultValue = "50") int size){
+        List<MemberListResDto> dtos = memberService.findAll(cursor, size);
+        return new ResponseEntity<>(dtos, HttpStatus.OK);
+    }
+
+    //이름/이메일 접두어 검색
+    @GetMapping("/search")
+    public ResponseEntity<?> memberSearch(@RequestParam("q") String query,
+                                          @RequestParam(defaultValue = "20") int size){
+        List<MemberListResDto> dtos = memberService.search(query, size);
         return new ResponseEntity<>(dtos, HttpStatus.OK);
     }
 
@@ -6,8 +6,12 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
@@ -30,6 +34,10 @@ public class Member extends BaseTimeEntity {
     @Builder.Default
     private Role role = Role.USER;
 
+    //bcrypt cost 변경 등으로 다시 해싱한 비밀번호로 교체
+    public void updatePassword(String password){
+        this.password = password;
+    }
 
 }
 
@@ -2,15 +2,30 @@ package com.example.chatserver.member.repository;
 
 
 import com.example.chatserver.member.domain.Member;
+import com.example.chatserver.member.dto.MemberListResDto;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface MemberRepository extends JpaRepository<Member, Long> {
 
     //Optional 값이 있을수도 있고 없을수도 있고
+    //요청마다 로그인 사용자 조회에 쓰이므로 쿼리 캐시 사용
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Member> findByEmail(String email);
 
+    // 회원 목록 id 커서 페이지네이션: PK range scan이라 페이지가 뒤로 가도 비용이 같고,
+    // 필요한 컬럼만 DTO로 조회하여 password 컬럼은 읽지 않음
+    @Query("SELECT new com.example.chatserver.member.dto.MemberListResDto(m.id, m.name, m.email) FROM Member m WHERE m.id > :cursor ORDER BY m.id")
+    List<MemberListResDto> findMemberPage(@Param("cursor") Long cursor, Pageable pageable);
+
 }
@@ -0,0 +1,129 @@
+package com.example.chatserver.member.service;
+
+import com.example.chatserver.common.transaction.AfterCommit;
+import com.example.chatserver.member.dto.MemberListResDto;
+import com.example.chatserver.member.repository.MemberRepository;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * 회원 이름/이메일 접두어 검색용 메모리 인덱스.
+ *
+ * - 정렬된 ConcurrentSkipListMap에 "검색어\0회원id" → 회원 DTO 를 저장하고,
+ *   접두어 검색은 [접두어, 접두어 + '\uffff') 범위를 순회하는 것으로 처리 (트라이와 같은 효과, 락 없이 동시 읽기)
+ * - 검색어: 이름 전체, 이름의 공백 단위 단어, 이메일 (소문자로 정규화)
+ * - 이 서버에서 가입한 회원은 커밋 직후 바로 추가하고, 다른 서버에서 가입한 회원은
+ *   refresh-ms 마다 마지막으로 읽은 id 이후의 회원만 페이지 단위로 읽어서 추가 (첫 실행이 전체 빌드)
+ * - id는 insert 시점에 정해지고 커밋은 그 뒤라 작은 id가 늦게 보일 수 있으므로,
+ *   refresh는 마지막 id보다 rescan-ids 만큼 앞에서부터 다시 읽는다 (같은 키로 덮어쓰므로 중복되지 않음)
+ */
+@Component
+@Log4j2
+public class MemberSearchIndex {
+
+    private static final char SEPARATOR = '\0';
+
+    private final ConcurrentSkipListMap<String, MemberListResDto> index = new ConcurrentSkipListMap<>();
+
+    private final MemberRepository memberRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int pageSize;
+
+    private final long rescanIds;
+
+    // refresh로 읽어온 마지막 회원 id (create에서 바로 추가한 회원은 반영하지 않음 → 다른 서버의 더 작은 id를 놓치지 않도록)
+    private volatile long lastIndexedId = 0L;
+
+    public MemberSearchIndex(MemberRepository memberRepository, PlatformTransactionManager transactionManager,
+                             @Value("${chat.member-search.page-size:1000}") int pageSize,
+                             @Value("${chat.member-search.rescan-ids:200}") long rescanIds) {
+        this.memberRepository = memberRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.pageSize = pageSize;
+        this.rescanIds = rescanIds;
+    }
+
+    @Scheduled(fixedDelayString = "${chat.member-search.refresh-ms:5000}")
+    public void refresh() {
+        // 이미 읽은 구간 중 마지막 rescanIds 만큼은 늦게 커밋된 회원이 있을 수 있으므로 다시 읽음
+        long after = Math.max(0L, lastIndexedId - rescanIds);
+        while (true) {
+            long from = after;
+            List<MemberListResDto> page = transactionTemplate.execute(
+                    status -> memberRepository.findMemberPage(from, PageRequest.of(0, pageSize)));
+            if (page == null || page.isEmpty()) {
+                return;
+            }
+            for (MemberListResDto member : page) {
+                put(member);
+            }
+            after = page.get(page.size() - 1).getId();
+            lastIndexedId = Math.max(lastIndexedId, after);
+            if (page.size() < pageSize) {
+                return;
+            }
+        }
+    }
+
+    // 회원 가입 트랜잭션이 커밋된 후 인덱스에 추가 (롤백된 회원이 검색되지 않도록)
+    public void add(MemberListResDto member) {
+        AfterCommit.run(() -> put(member));
+    }
+
+    /**
+     * 이름 또는 이메일이 prefix로 시작하는 회원을 최대 limit명 반환 (중복 제거, 검색어 사전순)
+     */
+    public List<MemberListResDto> search(String prefix, int limit) {
+        String from = normalize(prefix);
+        Map<Long, MemberListResDto> result = new LinkedHashMap<>();
+        for (MemberListResDto member : index.subMap(from, true, from + '\uffff', false).values()) {
+            result.putIfAbsent(member.getId(), member);
+            if (result.size() >= limit) {
+                break;
+            }
+        }
+        return new ArrayList<>(result.values());
+    }
+
+    private void put(MemberListResDto member) {
+        for (String term : terms(member)) {
+            index.put(term + SEPARATOR + member.getId(), member);
+        }
+    }
+
+    private static List<String> terms(MemberListResDto member) {
+        List<String> terms = new ArrayList<>();
+        if (member.getName() != null && !member.getName().isBlank()) {
+            String name = normalize(member.getName());
+            terms.add(name);
+            for (String word : name.split("\\s+")) {
+                if (!word.isEmpty() && !word.equals(name)) {
+                    terms.add(word);
+                }
+            }
+        }
+        if (member.getEmail() != null) {
+            terms.add(normalize(member.getEmail()));
+        }
+        return terms;
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,17 +1,20 @@
 package com.example.chatserver.member.service;
 
+import com.example.chatserver.common.auth.PasswordHasher;
+import com.example.chatserver.common.cache.SecondLevelCacheEvictor;
 import com.example.chatserver.member.domain.Member;
 import com.example.chatserver.member.dto.MemberListResDto;
 import com.example.chatserver.member.dto.MemberLoginReqDto;
 import com.example.chatserver.member.dto.MemberSaveReqDto;
 import com.example.chatserver.member.repository.MemberRepository;
 import jakarta.persistence.EntityNotFoundException;
-import jakarta.transaction.Transactional;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @Transactional
@@ -19,51 +22,89 @@ public class MemberService {
 
     private final MemberRepository memberRepository;
 
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
 
-    public MemberService(MemberRepository memberRepository, PasswordEncoder passwordEncoder) {
+    private final SecondLevelCacheEvictor secondLevelCacheEvictor;
+
+    private final MemberSearchIndex memberSearchIndex;
+
+    // 회원 목록/검색 한 페이지의 최대 크기
+    private static final int MAX_PAGE_SIZE = 100;
+
+    public MemberService(MemberRepository memberRepository, PasswordHasher passwordHasher, SecondLevelCacheEvictor secondLevelCacheEvictor, MemberSearchIndex memberSearchIndex) {
         this.memberRepository = memberRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
+        this.secondLevelCacheEvictor = secondLevelCacheEvictor;
+        this.memberSearchIndex = memberSearchIndex;
     }
 
-    public Member create(MemberSaveReqDto memberSaveReqDto) {
+    //bcrypt 해싱 중에는 DB 커넥션을 잡고 있지 않도록 트랜잭션 없이 실행 (조회/저장은 repository의 트랜잭션 사용)
+    //해싱은 PasswordHasher 풀에서 실행되고, 저장은 해싱이 끝난 뒤 그 스레드에서 이어서 실행
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<Member> create(MemberSaveReqDto memberSaveReqDto) {
         //이미 가입되어 있는 이메일 검증
         //
         if (memberRepository.findByEmail(memberSaveReqDto.getEmail()).isPresent()) {
             throw new IllegalArgumentException("이미 존재하는 이메일입니다.");
         }
-        Member newMember = Member.builder()
-                .name(memberSaveReqDto.getName())
-                .email(memberSaveReqDto.getEmail())
-                .password(passwordEncoder.encode(memberSaveReqDto.getPassword()))
-                .build();
+        return passwordHasher.encode(memberSaveReqDto.getPassword()).thenApply(encodedPassword -> {
+            Member newMember = Member.builder()
+                    .name(memberSaveReqDto.getName())
+                    .email(memberSaveReqDto.getEmail())
+                    .password(encodedPassword)
+                    .build();
 
-        Member member = memberRepository.save(newMember);
+            Member member = memberRepository.save(newMember);
+            //다른 서버에 캐싱된 "존재하지 않는 이메일" 조회 결과 무효화
+            secondLevelCacheEvictor.evictMember(member.getId());
+            //이 서버의 검색 인덱스에는 바로 반영 (다른 서버는 주기적인 refresh로 반영)
+            memberSearchIndex.add(new MemberListResDto(member.getId(), member.getName(), member.getEmail()));
 
-        return member;
+            return member;
+        });
     }
 
-    public Member login(MemberLoginReqDto memberLoginReqDto) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<Member> login(MemberLoginReqDto memberLoginReqDto) {
         //Optional이 비어있을 경우(즉, 회원이 없을 경우) 예외를 던짐.
         Member member = memberRepository.findByEmail(memberLoginReqDto.getEmail()).orElseThrow(() -> new EntityNotFoundException("존재하지 않는 이메일입니다"));
 
-        if(!passwordEncoder.matches(memberLoginReqDto.getPassword(), member.getPassword())){
-            throw new IllegalArgumentException("비밀번호가 일치하지 않습니다");
-        }
-        return member;
+        return passwordHasher.matches(memberLoginReqDto.getPassword(), member.getPassword()).thenCompose(matched -> {
+            if(!matched){
+                throw new IllegalArgumentException("비밀번호가 일치하지 않습니다");
+            }
+            //설정된 bcrypt cost보다 낮은 cost로 저장된 해시면 평문 비밀번호를 알고 있는 지금 다시 해싱하여 저장
+            if(!passwordHasher.upgradeEncoding(member.getPassword())){
+                return CompletableFuture.completedFuture(member);
+            }
+            return passwordHasher.encode(memberLoginReqDto.getPassword()).thenApply(encodedPassword -> {
+                member.updatePassword(encodedPassword);
+                Member saved = memberRepository.save(member);
+                secondLevelCacheEvictor.evictMember(saved.getId());
+                return saved;
+            });
+        });
     }
 
-    public List<MemberListResDto> findAll(){
-        List<Member> members = memberRepository.findAll();
-        List<MemberListResDto> memberListResDtos = new ArrayList<>();
-        for(Member m : members){
-            MemberListResDto memberListResDto = new MemberListResDto();
-            memberListResDto.setId(m.getId());
-            memberListResDto.setName(m.getName());
-            memberListResDto.setEmail(m.getEmail());
-            memberListResDtos.add(memberListResDto);
+    /**
+     * 회원 목록 한 페이지 조회
+     * - cursor: 이전 페이지의 마지막 회원 id (첫 페이지는 null)
+     */
+    @Transactional(readOnly = true)
+    public List<MemberListResDto> findAll(Long cursor, int size){
+        return memberRepository.findMemberPage(cursor == null ? 0L : cursor, PageRequest.of(0, pageSize(size)));
+    }
+
+    //이름 또는 이메일 접두어로 회원 검색 (DB 조회 없이 메모리 인덱스에서)
+    public List<MemberListResDto> search(String query, int size){
+        if(query == null || query.isBlank()){
+            throw new IllegalArgumentException("검색어를 입력해주세요.");
         }
-        return memberListResDtos;
+        return memberSearchIndex.search(query, pageSize(size));
+    }
+
+    private static int pageSize(int size){
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
     }
 
 
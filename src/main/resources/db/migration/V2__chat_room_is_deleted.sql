@@ -0,0 +1,3 @@
+-- 채팅방 삭제 표시 ("Y"/"N"): 마지막 참가자가 나가면 표시만 하고 RoomPurgeService가 배치로 삭제
+ALTER TABLE chat_room
+    ADD COLUMN is_deleted VARCHAR(1) NOT NULL DEFAULT 'N';
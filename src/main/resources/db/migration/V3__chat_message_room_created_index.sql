@@ -0,0 +1,2 @@
+-- 이력 조회(채팅방별 시간순), sync(since 이후), 월 단위 아카이브 조회
+CREATE INDEX idx_chat_message_room_created ON chat_message (chat_room_id, created_time);
@@ -0,0 +1,7 @@
+-- 1:1 채팅방 참가자 쌍 키 "{작은 memberId}:{큰 memberId}", 그룹 채팅방은 NULL
+-- 기존 1:1 채팅방은 처음 조회될 때 ChatService.getOrCreatePrivateRoom이 채움
+ALTER TABLE chat_room
+    ADD COLUMN private_pair_key VARCHAR(41) NULL;
+
+ALTER TABLE chat_room
+    ADD CONSTRAINT uk_chat_room_private_pair_key UNIQUE (private_pair_key);
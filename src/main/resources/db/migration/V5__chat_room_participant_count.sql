@@ -0,0 +1,6 @@
+-- 채팅방 목록에서 참가자 테이블 join/count 없이 보여주는 참가자 수
+ALTER TABLE chat_room
+    ADD COLUMN participant_count BIGINT NOT NULL DEFAULT 0;
+
+-- 그룹 채팅방 목록의 이름 접두어 검색
+CREATE INDEX idx_chat_room_name ON chat_room (name);
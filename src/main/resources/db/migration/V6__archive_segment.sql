@@ -0,0 +1,12 @@
+-- 보관 기간이 지난 메시지의 압축 세그먼트 (MessageArchiveService, MessageSegmentStore)
+CREATE TABLE archive_segment (
+    id            BIGINT     NOT NULL AUTO_INCREMENT,
+    room_id       BIGINT     NOT NULL,
+    archive_month INT        NOT NULL,
+    first_id      BIGINT     NOT NULL,
+    last_id       BIGINT     NOT NULL,
+    row_count     INT        NOT NULL,
+    data          MEDIUMBLOB NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_archive_segment_room_first_id UNIQUE (room_id, first_id)
+) ENGINE = InnoDB;
@@ -0,0 +1,4 @@
+-- V5로 추가한 participant_count를 기존 채팅방의 실제 참가자 수로 채움 (새 컬럼은 모두 0으로 시작)
+-- 적용 중에 참여/나가기가 일어나면 값이 어긋날 수 있으므로 배포 전(애플리케이션 중지 상태)에 실행
+UPDATE chat_room r
+SET r.participant_count = (SELECT COUNT(*) FROM chat_participant p WHERE p.chat_room_id = r.id);
@@ -0,0 +1,77 @@
+package com.example.chatserver.chat.service;
+
+import com.example.chatserver.chat.dto.HotRoomDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotRoomTrackerTest {
+
+    private static final int BUCKETS = 6;
+
+    private static final long BUCKET_MS = 10_000;
+
+    private static final double WINDOW_SECONDS = BUCKETS * BUCKET_MS / 1000.0;
+
+    private static final int SKETCH_WIDTH = 256;
+
+    @Test
+    void busiestRoomsAreReportedWithBoundedOverestimate() {
+        HotRoomTracker tracker = new HotRoomTracker(new SimpleMeterRegistry(), 3, BUCKETS, BUCKET_MS, 4, SKETCH_WIDTH);
+        long total = 0;
+        // 조용한 채팅방 1000개에 1건씩
+        for (long roomId = 1000; roomId < 2000; roomId++) {
+            tracker.recordMessage(roomId);
+            total++;
+        }
+        // hot 채팅방: 1 → 3000건, 2 → 2000건, 3 → 1000건 (섞어서 기록)
+        for (int i = 0; i < 3000; i++) {
+            tracker.recordMessage(1L);
+            total++;
+            if (i % 3 != 0) {
+                tracker.recordMessage(2L);
+                total++;
+            }
+            if (i % 3 == 0) {
+                tracker.recordMessage(3L);
+                total++;
+            }
+        }
+
+        List<HotRoomDto> hotRooms = tracker.getHotRooms();
+        assertEquals(List.of(1L, 2L, 3L), hotRooms.stream().map(HotRoomDto::getRoomId).toList());
+
+        long[] actual = {3000, 2000, 1000};
+        // 구간 sketch BUCKETS개를 합치지만 값이 들어 있는 구간은 하나 → 오차는 e * 전체 / width 이내
+        double bound = Math.E * total / SKETCH_WIDTH;
+        for (int i = 0; i < actual.length; i++) {
+            double estimate = hotRooms.get(i).getMessagesPerSecond() * WINDOW_SECONDS;
+            assertTrue(estimate >= actual[i], "과소 추정 " + hotRooms.get(i));
+            assertTrue(estimate - actual[i] <= bound, "오차 한계 초과 " + hotRooms.get(i));
+        }
+    }
+
+    @Test
+    void roomsLeaveAfterWindowRotatesPast() {
+        HotRoomTracker tracker = new HotRoomTracker(new SimpleMeterRegistry(), 3, BUCKETS, BUCKET_MS, 4, SKETCH_WIDTH);
+        for (int i = 0; i < 100; i++) {
+            tracker.recordMessage(1L);
+        }
+        tracker.recordDelivery(1L, 500);
+
+        // 마지막 구간이 비워지기 전까지는 남아 있음
+        for (int i = 0; i < BUCKETS - 1; i++) {
+            tracker.rotate();
+        }
+        HotRoomDto room = tracker.getHotRooms().get(0);
+        assertEquals(1L, room.getRoomId());
+        assertEquals(100 / WINDOW_SECONDS, room.getMessagesPerSecond(), 1e-9);
+        assertEquals(500 / WINDOW_SECONDS, room.getBytesPerSecond(), 1e-9);
+
+        tracker.rotate();
+        assertTrue(tracker.getHotRooms().isEmpty());
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.chatserver.chat.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogShardTest {
+
+    // 레코드 하나가 약 60바이트 → 세그먼트 하나에 16건 정도, 몇십 건만 써도 roll 됨
+    private static final int SEGMENT_SIZE = 1024;
+
+    private static final int INDEX_INTERVAL = 4;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void reopenRecoversMessagesAndSequence() throws Exception {
+        LogShard shard = open();
+        long lastId = 0;
+        for (int i = 0; i < 100; i++) {
+            lastId = shard.append(1 + i % 2, "a@test.com", "message-" + i, 1000L + i, FsyncPolicy.NONE);
+        }
+        shard.close();
+
+        LogShard reopened = open();
+        List<LogRecord> room1 = reopened.read(1, Long.MIN_VALUE);
+        assertEquals(50, room1.size());
+        for (int i = 0; i < room1.size(); i++) {
+            assertEquals("message-" + (i * 2), room1.get(i).content());
+        }
+        // 복구된 sparse index로 시점 이후만 조회
+        assertEquals(List.of("message-97", "message-99"), readContents(reopened, 2, 1096L));
+        assertTrue(reopened.append(1, "a@test.com", "after-reopen", 2000L, FsyncPolicy.NONE) > lastId);
+    }
+
+    @Test
+    void compactionDropsDeletedRoomAndSurvivesReopen() throws Exception {
+        LogShard shard = open();
+        for (int i = 0; i < 50; i++) {
+            shard.append(1, "a@test.com", "deleted-" + i, 1000L + i, FsyncPolicy.NONE);
+            shard.append(2, "b@test.com", "kept-" + i, 1000L + i, FsyncPolicy.NONE);
+        }
+        shard.tombstone(1, FsyncPolicy.NONE);
+        // tombstone이 닫힌 세그먼트로 넘어가도록 roll
+        for (int i = 50; i < 100; i++) {
+            shard.append(2, "b@test.com", "kept-" + i, 1000L + i, FsyncPolicy.NONE);
+        }
+        shard.compact();
+
+        assertTrue(shard.read(1, Long.MIN_VALUE).isEmpty());
+        assertEquals(100, shard.read(2, Long.MIN_VALUE).size());
+        shard.close();
+
+        LogShard reopened = open();
+        assertTrue(reopened.read(1, Long.MIN_VALUE).isEmpty());
+        List<LogRecord> kept = reopened.read(2, Long.MIN_VALUE);
+        assertEquals(100, kept.size());
+        assertEquals("kept-0", kept.get(0).content());
+        assertEquals("kept-99", kept.get(99).content());
+
+        // tombstone 레코드까지 제거되었으면 같은 채팅방 id로 새로 쓴 레코드가 재시작 후에도 보임
+        reopened.append(1, "a@test.com", "new", 3000L, FsyncPolicy.NONE);
+        reopened.close();
+        assertEquals(List.of("new"), readContents(open(), 1, Long.MIN_VALUE));
+    }
+
+    @Test
+    void tombstoneInActiveSegmentKeepsRoomHiddenAfterReopen() throws Exception {
+        LogShard shard = open();
+        for (int i = 0; i < 40; i++) {
+            shard.append(1, "a@test.com", "deleted-" + i, 1000L + i, FsyncPolicy.NONE);
+        }
+        shard.tombstone(1, FsyncPolicy.NONE);
+        shard.compact();
+        shard.close();
+
+        LogShard reopened = open();
+        assertTrue(reopened.read(1, Long.MIN_VALUE).isEmpty());
+        reopened.compact();
+        assertTrue(reopened.read(1, Long.MIN_VALUE).isEmpty());
+    }
+
+    @Test
+    void readsDuringCompactionSeeEveryMessage() throws Exception {
+        LogShard shard = open();
+        for (int i = 0; i < 200; i++) {
+            shard.append(2, "b@test.com", "kept-" + i, 1000L + i, FsyncPolicy.NONE);
+        }
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            while (running.get() && failure.get() == null) {
+                int size = shard.read(2, Long.MIN_VALUE).size();
+                if (size != 200) {
+                    failure.set("컴팩션 도중 " + size + "건만 조회됨");
+                }
+            }
+        });
+        reader.start();
+        try {
+            for (int round = 0; round < 20; round++) {
+                long deletedRoom = 100 + round;
+                for (int i = 0; i < 20; i++) {
+                    shard.append(deletedRoom, "a@test.com", "deleted-" + i, 2000L + i, FsyncPolicy.NONE);
+                }
+                shard.tombstone(deletedRoom, FsyncPolicy.NONE);
+                for (int i = 0; i < 20; i++) {
+                    shard.append(3, "c@test.com", "filler-" + i, 2000L + i, FsyncPolicy.NONE);
+                }
+                shard.compact();
+            }
+        } finally {
+            running.set(false);
+            reader.join();
+        }
+        assertNull(failure.get());
+        shard.close();
+        assertEquals(200, open().read(2, Long.MIN_VALUE).size());
+    }
+
+    @Test
+    void scanWhileStopsWhenVisitorReturnsFalse() throws Exception {
+        LogShard shard = open();
+        for (int i = 0; i < 100; i++) {
+            shard.append(1, "a@test.com", "message-" + i, 1000L + i, FsyncPolicy.NONE);
+        }
+        List<String> visited = new ArrayList<>();
+        shard.scanWhile(1, 1009L, record -> {
+            visited.add(record.content());
+            return visited.size() < 3;
+        });
+        assertEquals(List.of("message-10", "message-11", "message-12"), visited);
+    }
+
+    @Test
+    void scanBeforeDeepPageDoesNotReadFirstSegment() throws Exception {
+        LogShard shard = open();
+        // id는 1부터 차례로: message-i의 id는 i + 1, 세그먼트 0에는 앞쪽 16건 정도만 들어감
+        for (int i = 0; i < 100; i++) {
+            shard.append(1, "a@test.com", "message-" + i, 1000L + i, FsyncPolicy.NONE);
+        }
+        List<LogRecord> visited = new ArrayList<>();
+        shard.scanBefore(1, 60L, 5, visited::add);
+
+        List<Long> page = visited.stream().map(LogRecord::id).sorted().toList();
+        assertEquals(List.of(55L, 56L, 57L, 58L, 59L), page.subList(page.size() - 5, page.size()));
+        // 커서 바로 앞 구간 두 개(id 53~59)만 읽고 멈춤
+        assertTrue(page.get(0) > 40, "앞쪽 구간까지 읽음: " + page);
+    }
+
+    @Test
+    void scanBeforeFindsIdsCommittedOutOfOrder() throws Exception {
+        LogShard shard = open();
+        long late = shard.reserve();
+        long early = shard.reserve();
+        // 나중에 받은 id가 먼저 기록되고, 먼저 받은 id는 한참 뒤에 기록됨 (커밋 순서가 바뀐 경우)
+        shard.append(early, 1, "a@test.com", "early", 1000L, FsyncPolicy.NONE);
+        for (int i = 0; i < 50; i++) {
+            shard.append(1, "a@test.com", "message-" + i, 1001L + i, FsyncPolicy.NONE);
+        }
+        shard.append(late, 1, "a@test.com", "late", 2000L, FsyncPolicy.NONE);
+
+        List<Long> visited = new ArrayList<>();
+        shard.scanBefore(1, early + 1, 2, record -> visited.add(record.id()));
+        assertTrue(visited.containsAll(List.of(late, early)), "누락: " + visited);
+    }
+
+    private LogShard open() throws Exception {
+        LogShard shard = new LogShard(0, 1, dir, SEGMENT_SIZE, INDEX_INTERVAL);
+        shard.open();
+        return shard;
+    }
+
+    private static List<String> readContents(LogShard shard, long roomId, long since) {
+        return shard.read(roomId, since).stream().map(LogRecord::content).toList();
+    }
+}
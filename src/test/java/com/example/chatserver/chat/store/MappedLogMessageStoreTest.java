@@ -0,0 +1,96 @@
+package com.example.chatserver.chat.store;
+
+import com.example.chatserver.chat.domain.ChatRoom;
+import com.example.chatserver.chat.dto.ChatMessageDto;
+import com.example.chatserver.member.domain.Member;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedLogMessageStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private MappedLogMessageStore store;
+
+    private final ChatRoom room = ChatRoom.builder().id(1L).name("room").build();
+
+    private final Member sender = Member.builder().id(1L).email("a@test.com").build();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        store = new MappedLogMessageStore(dir.toString(), 2, 1, 4, FsyncPolicy.NONE, 200);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        store.destroy();
+    }
+
+    @Test
+    void appendIsWrittenOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        Long id = store.append(room, sender, "hello");
+        assertTrue(store.readHistory(1L, null, 10).isEmpty());
+
+        commit();
+        List<ChatMessageDto> history = store.readHistory(1L, null, 10);
+        assertEquals(1, history.size());
+        assertEquals(id, history.get(0).getMessageId());
+    }
+
+    @Test
+    void rolledBackAppendAndDeleteLeaveNothing() {
+        TransactionSynchronizationManager.initSynchronization();
+        store.append(room, sender, "rolled back");
+        TransactionSynchronizationManager.clearSynchronization();
+
+        Long kept = store.append(room, sender, "kept");
+
+        TransactionSynchronizationManager.initSynchronization();
+        store.deleteRoom(1L);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        List<ChatMessageDto> history = store.readHistory(1L, null, 10);
+        assertEquals(1, history.size());
+        assertEquals(kept, history.get(0).getMessageId());
+        assertEquals("kept", history.get(0).getMessage());
+    }
+
+    @Test
+    void historyPagesFollowIdOrderWhenCommitsArriveOutOfOrder() {
+        TransactionSynchronizationManager.initSynchronization();
+        Long first = store.append(room, sender, "first");
+        // first가 커밋되기 전에 다른 트랜잭션의 second가 먼저 커밋됨
+        List<TransactionSynchronization> pending = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        Long second = store.append(room, sender, "second");
+        TransactionSynchronizationManager.initSynchronization();
+        pending.forEach(TransactionSynchronizationManager::registerSynchronization);
+        commit();
+
+        List<ChatMessageDto> latest = store.readHistory(1L, null, 1);
+        assertEquals(List.of(second), latest.stream().map(ChatMessageDto::getMessageId).toList());
+        List<ChatMessageDto> older = store.readHistory(1L, latest.get(0).getMessageId(), 1);
+        assertEquals(List.of(first), older.stream().map(ChatMessageDto::getMessageId).toList());
+        assertTrue(store.readHistory(1L, first, 1).isEmpty());
+    }
+
+    private static void commit() {
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.chatserver.common.cache;
+
+import com.example.chatserver.chat.domain.ChatMessage;
+import com.example.chatserver.chat.domain.ChatParticipant;
+import com.example.chatserver.chat.domain.ChatRoom;
+import com.example.chatserver.chat.domain.ReadStatus;
+import com.example.chatserver.chat.dto.ChatRoomListResDto;
+import com.example.chatserver.member.domain.Member;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 2차 캐시/쿼리 캐시를 켠 경우(CHAT_L2_CACHE=true)와 끈 경우의 실행 쿼리 수를 Hibernate Statistics로 비교한다.
+ * 설정은 application.yml과 같음: ehcache.xml의 region 사용, 설정에 없는 region이 있으면 시작 실패(missing_cache_strategy: fail).
+ *
+ * 한 라운드 = 요청 하나가 하는 조회: 채팅방 → 참가자 목록 → 참가자의 회원, 그룹 채팅 목록(쿼리 캐시)
+ */
+class SecondLevelCacheQueryCountTest {
+
+    private static final int PARTICIPANTS = 3;
+
+    private static final int ROUNDS = 10;
+
+    @Test
+    void cachedRoundsRunNoStatements() {
+        try (SessionFactory sessionFactory = open("l2-on", true)) {
+            Long roomId = seed(sessionFactory);
+            sessionFactory.getStatistics().clear();
+
+            // 첫 라운드에서 캐시가 채워지고 이후 라운드는 DB를 읽지 않음
+            readRoom(sessionFactory, roomId);
+            long warmUp = sessionFactory.getStatistics().getPrepareStatementCount();
+            for (int i = 1; i < ROUNDS; i++) {
+                readRoom(sessionFactory, roomId);
+            }
+            assertTrue(warmUp > 0);
+            assertEquals(warmUp, sessionFactory.getStatistics().getPrepareStatementCount());
+            assertTrue(sessionFactory.getStatistics().getSecondLevelCacheHitCount() > 0);
+            assertTrue(sessionFactory.getStatistics().getQueryCacheHitCount() > 0);
+        }
+    }
+
+    @Test
+    void cacheCutsStatementsComparedToDisabled() {
+        long enabled;
+        try (SessionFactory sessionFactory = open("l2-compare-on", true)) {
+            enabled = countStatements(sessionFactory);
+        }
+        long disabled;
+        try (SessionFactory sessionFactory = open("l2-compare-off", false)) {
+            disabled = countStatements(sessionFactory);
+        }
+        // 끈 경우: 라운드마다 채팅방 1 + 참가자 목록 1 + 회원 PARTICIPANTS + 목록 1
+        assertEquals((long) ROUNDS * (PARTICIPANTS + 3), disabled);
+        assertTrue(enabled * ROUNDS <= disabled, "캐시 사용 " + enabled + "건, 미사용 " + disabled + "건");
+    }
+
+    private static long countStatements(SessionFactory sessionFactory) {
+        Long roomId = seed(sessionFactory);
+        sessionFactory.getStatistics().clear();
+        for (int i = 0; i < ROUNDS; i++) {
+            readRoom(sessionFactory, roomId);
+        }
+        return sessionFactory.getStatistics().getPrepareStatementCount();
+    }
+
+    private static void readRoom(SessionFactory sessionFactory, Long roomId) {
+        try (Session session = sessionFactory.openSession()) {
+            ChatRoom chatRoom = session.find(ChatRoom.class, roomId);
+            for (ChatParticipant participant : chatRoom.getChatParticipants()) {
+                participant.getMember().getEmail();
+            }
+            List<ChatRoomListResDto> rooms = session.createQuery(
+                            "SELECT new com.example.chatserver.chat.dto.ChatRoomListResDto(r.id, r.name, r.participantCount) FROM ChatRoom r " +
+                                    "WHERE r.isGroupChat = 'Y' AND r.isDeleted = 'N' ORDER BY r.id", ChatRoomListResDto.class)
+                    .setCacheable(true)
+                    .list();
+            assertEquals(1, rooms.size());
+        }
+    }
+
+    private static Long seed(SessionFactory sessionFactory) {
+        return sessionFactory.fromTransaction(session -> {
+            ChatRoom chatRoom = ChatRoom.builder().name("room").isGroupChat("Y").participantCount((long) PARTICIPANTS).build();
+            session.persist(chatRoom);
+            for (int i = 0; i < PARTICIPANTS; i++) {
+                Member member = Member.builder().name("member" + i).email("member" + i + "@test.com").password("password").build();
+                session.persist(member);
+                session.persist(ChatParticipant.builder().chatRoom(chatRoom).member(member).build());
+            }
+            return chatRoom.getId();
+        });
+    }
+
+    private static SessionFactory open(String database, boolean cacheEnabled) {
+        return new Configuration()
+                .addAnnotatedClass(ChatRoom.class)
+                .addAnnotatedClass(ChatParticipant.class)
+                .addAnnotatedClass(ChatMessage.class)
+                .addAnnotatedClass(ReadStatus.class)
+                .addAnnotatedClass(Member.class)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:" + database + ";MODE=MySQL;DB_CLOSE_DELAY=-1")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .setProperty("hibernate.cache.use_second_level_cache", String.valueOf(cacheEnabled))
+                .setProperty("hibernate.cache.use_query_cache", String.valueOf(cacheEnabled))
+                .setProperty("hibernate.cache.region.factory_class", "jcache")
+                .setProperty("hibernate.javax.cache.provider", "org.ehcache.jsr107.EhcacheCachingProvider")
+                .setProperty("hibernate.javax.cache.uri", "classpath:ehcache.xml")
+                .setProperty("hibernate.javax.cache.missing_cache_strategy", "fail")
+                .setProperty("hibernate.generate_statistics", "true")
+                .buildSessionFactory();
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.chatserver.common.datasource;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+import redis.embedded.RedisServer;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * primary / replica 두 DB(H2 메모리)에 각각 자기 이름을 넣어두고, 어느 쪽에서 읽었는지로 라우팅을 확인한다.
+ * 서버 두 대는 같은 Redis를 보는 ReadYourWritesTracker 두 개로 흉내 낸다.
+ */
+class ReplicationRoutingDataSourceTest {
+
+    private static final long REPLICA_LAG_MS = 300;
+
+    private static RedisServer redisServer;
+
+    private static LettuceConnectionFactory connectionFactory;
+
+    private static StringRedisTemplate stringRedisTemplate;
+
+    private static DataSource primary;
+
+    private static DataSource replica;
+
+    private ReadYourWritesTracker thisNode;
+
+    private ReadYourWritesTracker otherNode;
+
+    @BeforeAll
+    static void startInfrastructure() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+        connectionFactory = new LettuceConnectionFactory("localhost", port);
+        connectionFactory.afterPropertiesSet();
+        stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+
+        primary = database("primary");
+        replica = database("replica");
+    }
+
+    @AfterAll
+    static void stopInfrastructure() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        stringRedisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+        thisNode = new ReadYourWritesTracker(stringRedisTemplate, REPLICA_LAG_MS, "jdbc:h2:mem:replica");
+        otherNode = new ReadYourWritesTracker(stringRedisTemplate, REPLICA_LAG_MS, "jdbc:h2:mem:replica");
+    }
+
+    @Test
+    void writeTransactionUsesPrimary() {
+        assertEquals("primary", read(thisNode, "a@test.com", false));
+    }
+
+    @Test
+    void readOnlyTransactionUsesReplica() {
+        assertEquals("replica", read(thisNode, "a@test.com", true));
+    }
+
+    @Test
+    void recentWriterReadsFromPrimaryUntilLagPasses() throws InterruptedException {
+        thisNode.markWrite("a@test.com");
+        assertEquals("primary", read(thisNode, "a@test.com", true));
+        // 다른 사용자는 영향 없음
+        assertEquals("replica", read(thisNode, "b@test.com", true));
+
+        Thread.sleep(REPLICA_LAG_MS * 2);
+        assertEquals("replica", read(thisNode, "a@test.com", true));
+    }
+
+    @Test
+    void writeOnOtherNodeRoutesReadToPrimary() throws InterruptedException {
+        otherNode.markWrite("a@test.com");
+        assertEquals("primary", read(thisNode, "a@test.com", true));
+
+        Thread.sleep(REPLICA_LAG_MS * 2);
+        assertEquals("replica", read(thisNode, "a@test.com", true));
+    }
+
+    @Test
+    void withoutReplicaNothingIsSharedThroughRedis() {
+        ReadYourWritesTracker single = new ReadYourWritesTracker(stringRedisTemplate, REPLICA_LAG_MS, "");
+        single.markWrite("a@test.com");
+        assertEquals(Boolean.FALSE, stringRedisTemplate.hasKey("chat:ryw:a@test.com"));
+    }
+
+    // DataSourceConfig와 같은 구성: LazyConnectionDataSourceProxy(ReplicationRoutingDataSource)
+    private static String read(ReadYourWritesTracker tracker, String email, boolean readOnly) {
+        ReplicationRoutingDataSource routing = new ReplicationRoutingDataSource(tracker);
+        routing.setTargetDataSources(Map.of(DataSourceType.PRIMARY, primary, DataSourceType.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.setReadOnly(readOnly);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        return transactionTemplate.execute(status -> tracker.readingAs(email,
+                () -> jdbcTemplate.queryForObject("SELECT name FROM db_marker", String.class)));
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS db_marker (name VARCHAR(20))");
+        jdbcTemplate.update("DELETE FROM db_marker");
+        jdbcTemplate.update("INSERT INTO db_marker (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.chatserver.common.dedup;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    private static final int INSERTIONS = 100_000;
+
+    @Test
+    void neverReportsInsertedValueAsMissing() {
+        BloomFilter filter = new BloomFilter(INSERTIONS, 0.001);
+        for (int i = 0; i < INSERTIONS; i++) {
+            filter.put("a@test.com:" + i);
+        }
+        for (int i = 0; i < INSERTIONS; i++) {
+            assertTrue(filter.mightContain("a@test.com:" + i));
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearConfiguredProbability() {
+        double probability = 0.001;
+        BloomFilter filter = new BloomFilter(INSERTIONS, probability);
+        for (int i = 0; i < INSERTIONS; i++) {
+            filter.put("a@test.com:" + i);
+        }
+        int probes = 1_000_000;
+        int falsePositives = 0;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("b@test.com:" + i)) {
+                falsePositives++;
+            }
+        }
+        double rate = (double) falsePositives / probes;
+        // 해시 편차를 감안해 설정값의 2배까지 허용
+        assertTrue(rate <= probability * 2, "오탐률 " + rate);
+        // 기대 개수만큼 넣으면 비트의 약 절반이 설정됨
+        assertEquals(0.5, filter.fillRatio(), 0.05);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.chatserver.common.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    @Test
+    void startsFullAndRejectsWhenEmpty() {
+        // 충전 속도를 아주 느리게 두어 테스트 도중 충전되지 않도록
+        TokenBucket bucket = new TokenBucket(3, 0.001);
+        assertTrue(bucket.tryConsume());
+        assertTrue(bucket.tryConsume());
+        assertTrue(bucket.tryConsume());
+        assertFalse(bucket.tryConsume());
+        assertFalse(bucket.tryConsume(0.5));
+    }
+
+    @Test
+    void refillsOverTime() throws InterruptedException {
+        // 50ms마다 토큰 1개
+        TokenBucket bucket = new TokenBucket(1, 20);
+        assertTrue(bucket.tryConsume());
+        assertFalse(bucket.tryConsume());
+
+        Thread.sleep(120);
+        assertTrue(bucket.tryConsume());
+    }
+
+    @Test
+    void refillIsCappedAtCapacity() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(3, 20);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(bucket.tryConsume());
+        }
+        // 300ms면 6개가 충전되지만 최대 3개까지만
+        Thread.sleep(300);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(bucket.tryConsume());
+        }
+        assertFalse(bucket.tryConsume());
+    }
+
+    @Test
+    void idleAfterNoUseForGivenTime() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(1, 20);
+        bucket.tryConsume();
+        assertFalse(bucket.isIdle(TimeUnit.SECONDS.toNanos(10)));
+        Thread.sleep(20);
+        assertTrue(bucket.isIdle(TimeUnit.MILLISECONDS.toNanos(10)));
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.chatserver.common.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountMinSketchTest {
+
+    private static final int DEPTH = 4;
+
+    private static final int WIDTH = 2048;
+
+    @Test
+    void estimatesNeverUnderCountAndStayWithinErrorBound() {
+        CountMinSketch sketch = new CountMinSketch(DEPTH, WIDTH);
+        int keys = 20_000;
+        long[] actual = new long[keys];
+        long total = 0;
+        SplittableRandom random = new SplittableRandom(1);
+        // 앞쪽 키에 몰리는 분포 (채팅방별 메시지 수와 비슷하게)
+        for (int i = 0; i < 500_000; i++) {
+            double r = random.nextDouble();
+            int key = (int) (r * r * r * keys);
+            sketch.add(key, 1L);
+            actual[key]++;
+            total++;
+        }
+
+        // 오차 한계 e * 전체 합 / width 를 넘는 키는 e^-depth(약 1.8%) 이하여야 함
+        double bound = Math.E * total / WIDTH;
+        int overBound = 0;
+        for (int key = 0; key < keys; key++) {
+            long estimate = sketch.estimate(key);
+            assertTrue(estimate >= actual[key], "key " + key + " 과소 추정");
+            if (estimate - actual[key] > bound) {
+                overBound++;
+            }
+        }
+        assertTrue(overBound <= keys * Math.exp(-DEPTH), "오차 한계 초과 키 " + overBound);
+    }
+
+    @Test
+    void clearResetsAllCounters() {
+        CountMinSketch sketch = new CountMinSketch(DEPTH, WIDTH);
+        sketch.add(7L, 5L);
+        assertEquals(5L, sketch.estimate(7L));
+        sketch.clear();
+        assertEquals(0L, sketch.estimate(7L));
+    }
+
+    @Test
+    void rejectsNonPositiveDimensions() {
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(0, WIDTH));
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(DEPTH, 0));
+    }
+}